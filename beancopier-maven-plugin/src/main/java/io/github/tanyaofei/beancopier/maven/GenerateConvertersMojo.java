@@ -0,0 +1,238 @@
+package io.github.tanyaofei.beancopier.maven;
+
+import io.github.tanyaofei.beancopier.annotation.CopyTo;
+import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.core.PregeneratedConverters;
+import io.github.tanyaofei.beancopier.exception.ConverterGenerateException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Generate the converters of the classes annotated by {@link CopyTo} at build time.
+ * <p>
+ * The converter classes are written into the output directory along with an index at {@link PregeneratedConverters#INDEX_RESOURCE},
+ * a {@code BeanCopierImpl} whose configuration matches the one of this plugin loads them instead of generating bytecode at runtime.
+ * </p>
+ * <pre>{@code
+ * <plugin>
+ *   <groupId>io.github.tanyaofei</groupId>
+ *   <artifactId>beancopier-maven-plugin</artifactId>
+ *   <executions>
+ *     <execution>
+ *       <goals>
+ *         <goal>generate</goal>
+ *       </goals>
+ *     </execution>
+ *   </executions>
+ * </plugin>
+ * }</pre>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+@Mojo(
+    name = "generate",
+    defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+    requiresDependencyResolution = ResolutionScope.COMPILE,
+    threadSafe = true
+)
+public class GenerateConvertersMojo extends AbstractMojo {
+
+  private static final String COPY_TO_DESCRIPTOR = Type.getDescriptor(CopyTo.class);
+
+  /**
+   * The directory of compiled classes, the converters are written into it
+   */
+  @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+  private File outputDirectory;
+
+  /**
+   * The compile classpath of project
+   */
+  @Parameter(defaultValue = "${project.compileClasspathElements}", required = true, readonly = true)
+  private List<String> classpathElements;
+
+  /**
+   * Skip generating
+   */
+  @Parameter(property = "beancopier.skip", defaultValue = "false")
+  private boolean skip;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isFullTypeMatching()
+   */
+  @Parameter(defaultValue = "false")
+  private boolean fullTypeMatching;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isSkipNull()
+   */
+  @Parameter(defaultValue = "false")
+  private boolean skipNull;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isPreferNested()
+   */
+  @Parameter(defaultValue = "true")
+  private boolean preferNested;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isIncludingSuper()
+   */
+  @Parameter(defaultValue = "true")
+  private boolean includingSuper;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isPropertySupported()
+   */
+  @Parameter(defaultValue = "true")
+  private boolean propertySupported;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isDirectFieldAccess()
+   */
+  @Parameter(defaultValue = "false")
+  private boolean directFieldAccess;
+
+  /**
+   * @see io.github.tanyaofei.beancopier.ConverterConfiguration#isCrossTypeNested()
+   */
+  @Parameter(defaultValue = "false")
+  private boolean crossTypeNested;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (skip) {
+      getLog().info("Skip generating converters");
+      return;
+    }
+    if (!outputDirectory.isDirectory()) {
+      getLog().info("No classes to generate converters for");
+      return;
+    }
+
+    var factory = new ConverterFactory(builder -> builder
+        .fullTypeMatching(fullTypeMatching)
+        .skipNull(skipNull)
+        .preferNested(preferNested)
+        .includingSuper(includingSuper)
+        .propertySupported(propertySupported)
+        .directFieldAccess(directFieldAccess)
+        .crossTypeNested(crossTypeNested)
+        .classDumpPath(null)
+    );
+
+    // the classes of beancopier must be shared with the plugin, so the plugin classloader is the parent
+    try (var cl = new URLClassLoader(classpath(), getClass().getClassLoader())) {
+      var classNames = new HashMap<String, String>();
+      var used = new HashSet<String>();
+      for (var sourceName : scan()) {
+        var sourceType = Class.forName(sourceName, false, cl);
+        for (var targetType : sourceType.getAnnotation(CopyTo.class).value()) {
+          var className = PregeneratedConverters.getClassName(sourceType, targetType, used::contains);
+          byte[] code;
+          try {
+            code = factory.generateCode(sourceType, targetType, className);
+          } catch (ConverterGenerateException e) {
+            throw new MojoExecutionException("Failed to generate converter for " + sourceType.getName() + " -> " + targetType.getName(), e);
+          }
+          used.add(className);
+          write(className, code);
+          classNames.put(PregeneratedConverters.key(sourceType, targetType), className);
+        }
+      }
+
+      writeIndex(factory, classNames);
+      getLog().info("Generated " + classNames.size() + " converters");
+    } catch (IOException | ClassNotFoundException e) {
+      throw new MojoExecutionException("Failed to generate converters", e);
+    }
+  }
+
+  private URL[] classpath() throws MalformedURLException {
+    var urls = new ArrayList<URL>(classpathElements.size() + 1);
+    urls.add(outputDirectory.toURI().toURL());
+    for (var element : classpathElements) {
+      urls.add(new File(element).toURI().toURL());
+    }
+    return urls.toArray(URL[]::new);
+  }
+
+  /**
+   * @return the names of classes annotated by {@link CopyTo} in the output directory
+   */
+  private List<String> scan() throws IOException {
+    var classNames = new ArrayList<String>();
+    try (Stream<Path> paths = Files.walk(outputDirectory.toPath())) {
+      for (var path : (Iterable<Path>) paths::iterator) {
+        var name = path.getFileName().toString();
+        if (!name.endsWith(".class") || name.equals("module-info.class")) {
+          continue;
+        }
+
+        // read the annotations only, so that the classes without @CopyTo are never loaded
+        var annotated = new boolean[1];
+        new ClassReader(Files.readAllBytes(path)).accept(new ClassVisitor(Opcodes.ASM9) {
+          @Override
+          public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            if (COPY_TO_DESCRIPTOR.equals(descriptor)) {
+              annotated[0] = true;
+            }
+            return null;
+          }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        if (annotated[0]) {
+          var relative = outputDirectory.toPath().relativize(path).toString();
+          classNames.add(relative.substring(0, relative.length() - ".class".length()).replace(File.separatorChar, '.'));
+        }
+      }
+    }
+    classNames.sort(null);
+    return classNames;
+  }
+
+  private void write(String className, byte[] code) throws IOException {
+    var path = outputDirectory.toPath().resolve(className.replace('.', File.separatorChar) + ".class");
+    Files.createDirectories(path.getParent());
+    Files.write(path, code);
+  }
+
+  private void writeIndex(ConverterFactory factory, Map<String, String> classNames) throws IOException {
+    var path = outputDirectory.toPath().resolve(PregeneratedConverters.INDEX_RESOURCE);
+    if (classNames.isEmpty()) {
+      Files.deleteIfExists(path);
+      return;
+    }
+
+    Files.createDirectories(path.getParent());
+    try (OutputStream out = Files.newOutputStream(path)) {
+      PregeneratedConverters.writeIndex(factory.getConfiguration(), classNames, out);
+    }
+  }
+
+}
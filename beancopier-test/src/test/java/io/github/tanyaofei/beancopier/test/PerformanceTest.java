@@ -1,9 +1,14 @@
 package io.github.tanyaofei.beancopier.test;
 
 import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.SourceTypeResolver;
+import io.github.tanyaofei.beancopier.converter.Converter;
 import io.github.tanyaofei.beancopier.core.ConverterFactory;
 import io.github.tanyaofei.beancopier.core.DefaultClassLoader;
+import io.github.tanyaofei.beancopier.test.util.GenericTemplateObject;
 import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import io.github.tanyaofei.beancopier.test.util.WideObject;
 import io.github.tanyaofei.guava.common.base.Stopwatch;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -14,21 +19,45 @@ import org.modelmapper.ModelMapper;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.ClassRemapper;
 import org.objectweb.asm.commons.Remapper;
 import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.ClassNode;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PerformanceTest {
 
   private static List<Obj> objs;
 
+  /**
+   * 保存拷贝结果, 避免拷贝被 JIT 优化掉
+   */
+  private static volatile Object sink;
+
   @BeforeAll
   public static void createObjs() {
     int n = 1_000_000;
@@ -74,6 +103,243 @@ public class PerformanceTest {
     System.out.println("-----------------------------");
   }
 
+  @Test
+  public void testConverterFor() {
+    var converter = BeanCopier.converterFor(Obj.class, Obj.class);
+    Stopwatch stopwatch = Stopwatch.createUnstarted();
+
+    stopwatch.start();
+    for (Obj obj : objs) {
+      converter.convert(obj);
+    }
+    stopwatch.stop();
+
+    System.out.println("-------- testConverterFor() --------");
+    System.out.println("time: " + stopwatch.elapsed().toMillis() + " ms");
+    System.out.println("------------------------------------");
+  }
+
+  @Test
+  public void testCopyIntoAllocation() {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var thread = Thread.currentThread().getId();
+    var reused = new Obj();
+    BeanCopier.copy(objs.get(0), Obj.class);
+    BeanCopier.copyInto(objs.get(0), reused);
+
+    System.out.println("-------- testCopyIntoAllocation() --------");
+    // 第一轮用于预热, 只统计第二轮; 拷贝结果写入 sink, 避免分配被逃逸分析消除
+    long copyBytes = 0;
+    long copyIntoBytes = 0;
+    for (int round = 0; round < 2; round++) {
+      copyBytes = threads.getThreadAllocatedBytes(thread);
+      Stopwatch copy = Stopwatch.createStarted();
+      for (Obj obj : objs) {
+        sink = BeanCopier.copy(obj, Obj.class);
+      }
+      copy.stop();
+      copyBytes = threads.getThreadAllocatedBytes(thread) - copyBytes;
+
+      copyIntoBytes = threads.getThreadAllocatedBytes(thread);
+      Stopwatch copyInto = Stopwatch.createStarted();
+      for (Obj obj : objs) {
+        sink = BeanCopier.copyInto(obj, reused);
+      }
+      copyInto.stop();
+      copyIntoBytes = threads.getThreadAllocatedBytes(thread) - copyIntoBytes;
+
+      if (round == 1) {
+        System.out.println("copy: " + copy.elapsed().toMillis() + " ms, " + copyBytes / objs.size() + " bytes/op");
+        System.out.println("copyInto: " + copyInto.elapsed().toMillis() + " ms, " + copyIntoBytes / objs.size() + " bytes/op");
+      }
+    }
+    System.out.println("------------------------------------------");
+    assertTrue(copyIntoBytes < copyBytes, "copyInto allocated " + copyIntoBytes + " bytes, copy allocated " + copyBytes + " bytes");
+  }
+
+  @Test
+  public void testDirectFieldAccess() {
+    var byAccessors = new BeanCopierImpl(config -> config.hiddenClassLookup(MethodHandles.lookup()))
+        .converterFor(Obj.class, Obj.class);
+    var byFields = new BeanCopierImpl(config -> config.hiddenClassLookup(MethodHandles.lookup()).directFieldAccess(true))
+        .converterFor(Obj.class, Obj.class);
+
+    System.out.println("-------- testDirectFieldAccess() --------");
+    // 第一轮用于预热, 只统计第二轮
+    for (int round = 0; round < 2; round++) {
+      Stopwatch accessors = Stopwatch.createStarted();
+      for (Obj obj : objs) {
+        byAccessors.convert(obj);
+      }
+      accessors.stop();
+
+      Stopwatch fields = Stopwatch.createStarted();
+      for (Obj obj : objs) {
+        byFields.convert(obj);
+      }
+      fields.stop();
+
+      if (round == 1) {
+        System.out.println("accessors: " + accessors.elapsed().toMillis() + " ms");
+        System.out.println("fields: " + fields.elapsed().toMillis() + " ms");
+      }
+    }
+    System.out.println("-----------------------------------------");
+  }
+
+  @Test
+  public void testWideObject() {
+    var code = new ConverterFactory(c -> {}).generateCode(WideObject.class, WideObject.class, "WideObjectConverter");
+    var node = new ClassNode();
+    new ClassReader(code).accept(node, 0);
+    var convert = node.methods
+        .stream()
+        .filter(m -> m.name.equals("convert") && (m.access & Opcodes.ACC_BRIDGE) == 0)
+        .findFirst()
+        .orElseThrow();
+    var instructions = Arrays.stream(convert.instructions.toArray()).filter(insn -> insn.getOpcode() >= 0).count();
+
+    var wideObjs = new ArrayList<WideObject>(100_000);
+    for (int i = 0; i < 100_000; i++) {
+      var obj = new WideObject();
+      obj.setF0("1").setF1(i).setF2(i).setF3(i).setF4(i).setF195("1").setF196(i).setF197(i).setF198(i).setF199(i);
+      wideObjs.add(obj);
+    }
+    var converter = BeanCopier.converterFor(WideObject.class, WideObject.class);
+
+    System.out.println("-------- testWideObject() --------");
+    System.out.println("class size: " + code.length + " bytes, convert: " + convertCodeSize(code) + " bytes, " + instructions + " instructions, " + convert.maxLocals + " locals");
+    // 第一轮用于预热, 只统计第二轮
+    for (int round = 0; round < 2; round++) {
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      for (WideObject obj : wideObjs) {
+        converter.convert(obj);
+      }
+      stopwatch.stop();
+      if (round == 1) {
+        System.out.println("time: " + stopwatch.elapsed().toMillis() + " ms");
+      }
+    }
+    System.out.println("----------------------------------");
+  }
+
+  @Test
+  public void testNestedCollections() {
+    // 每个节点有 3 个子节点, 模拟大量小集合的嵌套拷贝
+    List<Node> nodes = new ArrayList<>(200_000);
+    for (int i = 0; i < 200_000; i++) {
+      nodes.add(new Node().setValue("1").setChildren(List.of(
+          new Node().setValue("2"),
+          new Node().setValue("2"),
+          new Node().setValue("2")
+      )));
+    }
+    var converter = BeanCopier.converterFor(Node.class, NodeVO.class);
+
+    System.out.println("-------- testNestedCollections() --------");
+    // 每轮拷贝 10 遍, 前两轮用于预热, 只统计第三轮
+    for (int round = 0; round < 3; round++) {
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      for (int i = 0; i < 10; i++) {
+        for (Node node : nodes) {
+          sink = converter.convert(node);
+        }
+      }
+      stopwatch.stop();
+      if (round == 2) {
+        System.out.println("time: " + stopwatch.elapsed().toMillis() + " ms");
+      }
+    }
+    System.out.println("-----------------------------------------");
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Node {
+    private String value;
+    private List<Node> children;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class NodeVO {
+    private String value;
+    private List<NodeVO> children;
+  }
+
+  @Test
+  public void testCrossTypeNested() {
+    // 每个 Parent 有 1 个 child 和 3 个 children, 类型与 ParentVO 的属性不同
+    List<Parent> parents = new ArrayList<>(200_000);
+    for (int i = 0; i < 200_000; i++) {
+      parents.add(new Parent().setValue("1").setChild(new Child().setValue("2")).setChildren(List.of(
+          new Child().setValue("3"),
+          new Child().setValue("3"),
+          new Child().setValue("3")
+      )));
+    }
+
+    // 链接的子转换器, 整个对象图在一次调用中拷贝完成
+    var linked = new BeanCopierImpl(config -> config.crossTypeNested(true)).converterFor(Parent.class, ParentVO.class);
+
+    // 逐层拷贝, 子对象通过 BeanCopierImpl 的缓存查找转换器
+    var beanCopier = new BeanCopierImpl();
+    var parentConverter = beanCopier.converterFor(Parent.class, ParentVO.class);
+    Converter<Parent, ParentVO> perLevel = parent -> {
+      var vo = parentConverter.convert(parent);
+      vo.setChild(beanCopier.copy(parent.getChild(), ChildVO.class));
+      vo.setChildren(beanCopier.copyList(parent.getChildren(), ChildVO.class));
+      return vo;
+    };
+
+    System.out.println("-------- testCrossTypeNested() --------");
+    for (var entry : List.of(Map.entry("linked", linked), Map.entry("per level", perLevel))) {
+      var converter = entry.getValue();
+      // 每轮拷贝 10 遍, 前两轮用于预热, 只统计第三轮
+      for (int round = 0; round < 3; round++) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        for (int i = 0; i < 10; i++) {
+          for (Parent parent : parents) {
+            sink = converter.convert(parent);
+          }
+        }
+        stopwatch.stop();
+        if (round == 2) {
+          System.out.println(entry.getKey() + ": " + stopwatch.elapsed().toMillis() + " ms");
+        }
+      }
+    }
+    System.out.println("---------------------------------------");
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Parent {
+    private String value;
+    private Child child;
+    private List<Child> children;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class ParentVO {
+    private String value;
+    private ChildVO child;
+    private List<ChildVO> children;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Child {
+    private String value;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class ChildVO {
+    private String value;
+  }
+
   @Test
   public void testCloneList() {
     BeanCopier.clone(objs.get(0));
@@ -171,6 +437,63 @@ public class PerformanceTest {
     private String i;
   }
 
+  /**
+   * Compare the cost of looking up a converter: the {@code ConcurrentHashMap} keyed by a (source, target) record that
+   * was used before 0.2.0, against the registry used by {@link BeanCopierImpl#copy(Object, Class)} now.
+   * Only the lookup is measured: the call to {@link Converter#convert(Object)} in {@link BeanCopierImpl} has seen the converters
+   * of the other tests and is not inlined like the one in this test. The converters are kept in {@link #sink}.
+   */
+  @Test
+  public void testLookup() {
+    int n = 10_000_000;
+    var source = new Tiny().setA("1");
+    var beanCopier = new BeanCopierImpl(config -> config.sourceTypeResolver(SourceTypeResolver.identity()));
+    beanCopier.copy(source, Tiny.class);
+
+    var converter = new ConverterFactory(builder -> builder.classDumpPath(null)).generateConverter(Tiny.class, Tiny.class);
+    var map = new ConcurrentHashMap<PairKey, Converter<?, ?>>();
+    map.put(new PairKey(Tiny.class, Tiny.class), converter);
+
+    // 取每一轮中的最好成绩, 减少 GC 和 JIT 带来的抖动
+    long mapBest = Long.MAX_VALUE;
+    long registryBest = Long.MAX_VALUE;
+    for (int round = 0; round < 5; round++) {
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      for (int i = 0; i < n; i++) {
+        sink = map.get(new PairKey(source.getClass(), Tiny.class));
+      }
+      stopwatch.stop();
+      long mapTime = stopwatch.elapsed().toMillis();
+
+      stopwatch.reset().start();
+      for (int i = 0; i < n; i++) {
+        sink = beanCopier.converterFor(source.getClass(), Tiny.class);
+      }
+      stopwatch.stop();
+      long registryTime = stopwatch.elapsed().toMillis();
+
+      System.out.println("-------- testLookup() --------");
+      System.out.println("ConcurrentHashMap<PairKey>: " + mapTime + " ms");
+      System.out.println("ConverterRegistry: " + registryTime + " ms");
+      System.out.println("------------------------------");
+      if (round > 0) {
+        mapBest = Math.min(mapBest, mapTime);
+        registryBest = Math.min(registryBest, registryTime);
+      }
+    }
+    // 同一个 JVM 中其他测试留下的 ClassValue 和 JIT 状态会让结果有抖动, 只要求同一量级
+    assertTrue(registryBest <= mapBest * 1.5, "ConverterRegistry " + registryBest + " ms is slower than ConcurrentHashMap<PairKey> " + mapBest + " ms");
+  }
+
+  private record PairKey(Class<?> sc, Class<?> tc) {
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Tiny {
+    private String a;
+  }
+
   @Test
   public void testGenerateConverter() throws IOException {
     XClassLoader classloader = new XClassLoader();
@@ -205,6 +528,336 @@ public class PerformanceTest {
   }
 
 
+  @Test
+  public void testSharedClassGeneration() throws IOException {
+    XClassLoader classloader = new XClassLoader();
+    List<Class<?>> classes = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ClassReader cr = new ClassReader(TemplateObject.class.getName());
+      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+      Remapper remapper = new SimpleRemapper(Type.getInternalName(TemplateObject.class), Type.getInternalName(TemplateObject.class) + "Shared" + i);
+      cr.accept(new ClassRemapper(cw, remapper), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      classes.add(classloader.defineClass(cw.toByteArray()));
+    }
+
+    // TemplateObject 与每个类互相转换, 每个类参与 2 个转换器的生成, TemplateObject 参与所有转换器的生成
+    ConverterFactory converterFactory = new ConverterFactory(
+        builder -> builder
+            .classLoader(new DefaultClassLoader(this.getClass().getClassLoader()))
+            .classDumpPath(null)
+    );
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    for (Class<?> c : classes) {
+      converterFactory.generateConverter(TemplateObject.class, c);
+      converterFactory.generateConverter(c, TemplateObject.class);
+    }
+    stopwatch.stop();
+    System.out.println("Time of creating " + classes.size() * 2 + " converter classes sharing the same class: " + stopwatch.elapsed().toMillis() + " ms");
+  }
+
+  @Test
+  public void testGenericGeneration() throws IOException {
+    XClassLoader classloader = new XClassLoader();
+    List<Class<?>> classes = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ClassReader cr = new ClassReader(GenericTemplateObject.class.getName());
+      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+      Remapper remapper = new SimpleRemapper(Type.getInternalName(GenericTemplateObject.class), Type.getInternalName(GenericTemplateObject.class) + i);
+      cr.accept(new ClassRemapper(cw, remapper), ClassReader.SKIP_FRAMES);
+      classes.add(classloader.defineClass(cw.toByteArray()));
+    }
+
+    // 每个字段都是泛型类型, 需要进行泛型的子类型判断
+    ConverterFactory converterFactory = new ConverterFactory(
+        builder -> builder
+            .classLoader(new DefaultClassLoader(this.getClass().getClassLoader()))
+            .classDumpPath(null)
+    );
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    for (Class<?> c : classes) {
+      converterFactory.generateConverter(GenericTemplateObject.class, c);
+      converterFactory.generateConverter(c, GenericTemplateObject.class);
+    }
+    stopwatch.stop();
+    System.out.println("Time of creating " + classes.size() * 2 + " converter classes with generic fields: " + stopwatch.elapsed().toMillis() + " ms");
+  }
+
+  @Test
+  public void testTieredFirstCopy() throws IOException {
+    XClassLoader classloader = new XClassLoader();
+    List<Class<?>> classes = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      ClassReader cr = new ClassReader(TemplateObject.class.getName());
+      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+      Remapper remapper = new SimpleRemapper(Type.getInternalName(TemplateObject.class), Type.getInternalName(TemplateObject.class) + "Tiered" + i);
+      cr.accept(new ClassRemapper(cw, remapper), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      classes.add(classloader.defineClass(cw.toByteArray()));
+    }
+
+    // 每个类对只拷贝一次, 分层模式下不会生成转换器类, 前两轮用于预热
+    TemplateObject o = new TemplateObject().setA("a");
+    for (int round = 0; round < 4; round++) {
+      int threshold = round % 2 == 0 ? 0 : 1000;
+      BeanCopierImpl beanCopier = new BeanCopierImpl(builder -> builder.compileThreshold(threshold).classDumpPath(null));
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      for (Class<?> c : classes.subList(round * 500, round * 500 + 500)) {
+        beanCopier.copy(o, c);
+      }
+      stopwatch.stop();
+      if (round >= 2) {
+        System.out.println("Time of first copies of 500 pairs (compileThreshold=" + threshold + "): " + stopwatch.elapsed().toMillis() + " ms");
+      }
+    }
+  }
+
+  @Test
+  public void testWideBeanGeneration() {
+    XClassLoader classloader = new XClassLoader();
+    for (boolean skipNull : new boolean[]{false, true}) {
+      // 只统计字节码的编写, 不包括类的定义
+      ConverterFactory converterFactory = new ConverterFactory(builder -> builder.skipNull(skipNull).classDumpPath(null));
+      for (int fields : new int[]{10, 100, 500}) {
+        Class<?> c = classloader.defineClass(wideBean("io/github/tanyaofei/beancopier/test/WideBean" + fields + skipNull, fields));
+        String className = c.getName() + "Converter";
+        int times = 100_000 / fields;
+        for (int i = 0; i < times; i++) {
+          converterFactory.generateCode(c, c, className);
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        for (int i = 0; i < times; i++) {
+          converterFactory.generateCode(c, c, className);
+        }
+        stopwatch.stop();
+        System.out.println("Average time of writing a converter for a bean with " + fields + " fields (skipNull=" + skipNull + "): " + stopwatch.elapsed(TimeUnit.MICROSECONDS) / times + " us");
+      }
+    }
+  }
+
+  @Test
+  public void testWideBeanSweep() throws Exception {
+    XClassLoader classloader = new XClassLoader();
+    System.out.println("-------- testWideBeanSweep() --------");
+    for (boolean skipNull : new boolean[]{false, true}) {
+      BeanCopierImpl beanCopier = new BeanCopierImpl(builder -> builder.skipNull(skipNull).classDumpPath(null));
+      ConverterFactory converterFactory = new ConverterFactory(builder -> builder.skipNull(skipNull).classDumpPath(null));
+      for (int fields : new int[]{8, 16, 32, 64, 128, 256, 512, 1024}) {
+        Class<?> c = classloader.defineClass(wideBean("io/github/tanyaofei/beancopier/test/SweepBean" + fields + skipNull, fields));
+        @SuppressWarnings("unchecked")
+        Converter<Object, Object> converter = (Converter<Object, Object>) beanCopier.converterFor(c, c);
+        Object source = c.getConstructor().newInstance();
+
+        // 每个字段拷贝的次数相同, 前两轮用于预热
+        int times = 20_000_000 / fields;
+        for (int round = 0; round < 3; round++) {
+          Stopwatch stopwatch = Stopwatch.createStarted();
+          for (int i = 0; i < times; i++) {
+            sink = converter.convert(source);
+          }
+          stopwatch.stop();
+          if (round == 2) {
+            long nanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+            int codeSize = convertCodeSize(converterFactory.generateCode(c, c, c.getName() + "Converter"));
+            System.out.printf("%d fields (skipNull=%s): convert %d bytes, %d ns/op, %.2f ns/field%n", fields, skipNull, codeSize, nanos / times, (double) nanos / times / fields);
+          }
+        }
+      }
+    }
+    System.out.println("-------------------------------------");
+  }
+
+  /**
+   * 返回转换器 convert 方法的字节码长度
+   */
+  private static int convertCodeSize(byte[] code) {
+    int[] size = new int[1];
+    new ClassReader(code).accept(new ClassVisitor(Opcodes.ASM9, new ClassWriter(0)) {
+      @Override
+      public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+        if (!name.equals("convert") || (access & Opcodes.ACC_BRIDGE) != 0) {
+          return mv;
+        }
+        return new MethodVisitor(Opcodes.ASM9, mv) {
+          @Override
+          public void visitMaxs(int maxStack, int maxLocals) {
+            Label end = new Label();
+            super.visitLabel(end);
+            size[0] = end.getOffset();
+            super.visitMaxs(maxStack, maxLocals);
+          }
+        };
+      }
+    }, 0);
+    return size[0];
+  }
+
+  /**
+   * 生成一个有 n 个字段的 JavaBean, 字段类型依次为 String, int, long, List
+   */
+  private static byte[] wideBean(String internalName, int n) {
+    String[] descriptors = {"Ljava/lang/String;", "I", "J", "Ljava/util/List;"};
+    int[] loads = {Opcodes.ALOAD, Opcodes.ILOAD, Opcodes.LLOAD, Opcodes.ALOAD};
+    int[] returns = {Opcodes.ARETURN, Opcodes.IRETURN, Opcodes.LRETURN, Opcodes.ARETURN};
+
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+    MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    init.visitCode();
+    init.visitVarInsn(Opcodes.ALOAD, 0);
+    init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    init.visitInsn(Opcodes.RETURN);
+    init.visitMaxs(-1, -1);
+    init.visitEnd();
+
+    for (int i = 0; i < n; i++) {
+      String name = "f" + i;
+      String descriptor = descriptors[i % descriptors.length];
+      cw.visitField(Opcodes.ACC_PRIVATE, name, descriptor, null, null).visitEnd();
+
+      MethodVisitor getter = cw.visitMethod(Opcodes.ACC_PUBLIC, "getF" + i, "()" + descriptor, null, null);
+      getter.visitCode();
+      getter.visitVarInsn(Opcodes.ALOAD, 0);
+      getter.visitFieldInsn(Opcodes.GETFIELD, internalName, name, descriptor);
+      getter.visitInsn(returns[i % returns.length]);
+      getter.visitMaxs(-1, -1);
+      getter.visitEnd();
+
+      MethodVisitor setter = cw.visitMethod(Opcodes.ACC_PUBLIC, "setF" + i, "(" + descriptor + ")V", null, null);
+      setter.visitCode();
+      setter.visitVarInsn(Opcodes.ALOAD, 0);
+      setter.visitVarInsn(loads[i % loads.length], 1);
+      setter.visitFieldInsn(Opcodes.PUTFIELD, internalName, name, descriptor);
+      setter.visitInsn(Opcodes.RETURN);
+      setter.visitMaxs(-1, -1);
+      setter.visitEnd();
+    }
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  @Test
+  public void testConcurrentGeneration() throws Exception {
+    XClassLoader classloader = new XClassLoader();
+    List<Class<?>> classes = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      ClassReader cr = new ClassReader(TemplateObject.class.getName());
+      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+      Remapper remapper = new SimpleRemapper(Type.getInternalName(TemplateObject.class), Type.getInternalName(TemplateObject.class) + "Concurrent" + i);
+      cr.accept(new ClassRemapper(cw, remapper), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+      classes.add(classloader.defineClass(cw.toByteArray()));
+    }
+
+    // 所有线程同时启动, 并以相同的顺序首次复制到每个类, 统计首次调用的延迟分布
+    BeanCopierImpl beanCopier = new BeanCopierImpl(builder -> builder.classLoader(null));
+    TemplateObject o = new TemplateObject();
+    int threads = 8;
+    long[][] latencies = new long[threads][classes.size()];
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      long[] latency = latencies[t];
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < classes.size(); i++) {
+          long begin = System.nanoTime();
+          beanCopier.copy(o, classes.get(i));
+          latency[i] = System.nanoTime() - begin;
+        }
+        return null;
+      }));
+    }
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    stopwatch.stop();
+    executor.shutdown();
+
+    long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    System.out.printf(
+        "Time of %d threads creating %d converters concurrently: %d ms, first-copy latency p50: %d us, p99: %d us, max: %d us%n",
+        threads,
+        classes.size(),
+        stopwatch.elapsed().toMillis(),
+        all[all.length / 2] / 1000,
+        all[all.length * 99 / 100] / 1000,
+        all[all.length - 1] / 1000
+    );
+  }
+
+
+  @Test
+  public void testConcurrentNaming() throws Exception {
+    // 所有线程在同一个类加载器中反复生成同一对类的转换器, 每个转换器都需要一个新的类名
+    ConverterFactory converterFactory = new ConverterFactory(
+        builder -> builder
+            .classLoader(new DefaultClassLoader(this.getClass().getClassLoader()))
+            .classDumpPath(null)
+    );
+    int threads = 8;
+    int perThread = 500;
+    Set<String> names = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < perThread; i++) {
+          names.add(converterFactory.generateConverter(TemplateObject.class, TemplateObject.class).getClass().getName());
+        }
+        return null;
+      }));
+    }
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    stopwatch.stop();
+    executor.shutdown();
+
+    assertEquals(threads * perThread, names.size());
+    System.out.println("Time of " + threads + " threads creating " + names.size() + " converter classes with the same base name: " + stopwatch.elapsed().toMillis() + " ms");
+  }
+
+  @Test
+  public void testStartup() throws Exception {
+    // 类初始化只会发生一次, 所以在新的 JVM 中分别统计
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    for (String mode : new String[]{Startup.CONVERTER_CLASS_LOADER, Startup.SYSTEM_CLASS_LOADER}) {
+      Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Startup.class.getName(), mode)
+          .redirectErrorStream(true)
+          .start();
+      System.out.print(new String(process.getInputStream().readAllBytes()));
+      assertEquals(0, process.waitFor());
+    }
+  }
+
+  public static class Startup {
+
+    static final String CONVERTER_CLASS_LOADER = "ConverterClassLoader";
+
+    static final String SYSTEM_CLASS_LOADER = "SystemClassLoader";
+
+    public static void main(String[] args) {
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      BeanCopierImpl beanCopier = args[0].equals(SYSTEM_CLASS_LOADER)
+                                  ? new BeanCopierImpl(builder -> builder.classLoader(ClassLoader.getSystemClassLoader()))
+                                  : new BeanCopierImpl();
+      long init = stopwatch.elapsed(TimeUnit.MICROSECONDS);
+      beanCopier.copy(new TemplateObject(), TemplateObject.class);
+      stopwatch.stop();
+      System.out.println("Startup with " + args[0] + ": initialization " + init + " us, first copy " + (stopwatch.elapsed(TimeUnit.MICROSECONDS) - init) + " us");
+    }
+  }
+
+
   public static class XClassLoader extends ClassLoader {
     public Class<?> defineClass(byte[] code) {
       return super.defineClass(null, code, 0, code.length);
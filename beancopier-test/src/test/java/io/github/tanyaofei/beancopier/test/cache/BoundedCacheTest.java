@@ -0,0 +1,124 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * @author tanyaofei
+ */
+public class BoundedCacheTest extends BeanCopierTest {
+
+  @Test
+  public void testMaximumSize() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.cacheMaximumSize(2));
+    beanCopier.copy(new TemplateObject(), TemplateObject.class);
+    beanCopier.copy(new TemplateObject(), A.class);
+    beanCopier.copy(new TemplateObject(), B.class);
+    assertEquals(2, getCaches(beanCopier).size());
+
+    // evicted converter should be generated again
+    assertEquals("a", beanCopier.copy(new TemplateObject().setA("a"), TemplateObject.class).getA());
+    assertEquals(2, getCaches(beanCopier).size());
+  }
+
+  @Test
+  public void testFrequentlyUsedSurvives() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.cacheMaximumSize(2));
+    beanCopier.copy(new TemplateObject(), TemplateObject.class);
+    var hot = getCaches(beanCopier).iterator().next();
+    beanCopier.copy(new TemplateObject(), TemplateObject.class);
+
+    beanCopier.copy(new TemplateObject(), A.class);
+    beanCopier.copy(new TemplateObject(), B.class);
+    assertTrue(getCaches(beanCopier).contains(hot));
+  }
+
+  @Test
+  public void testUnloadEvictedClasses() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.cacheMaximumSize(1));
+    beanCopier.copy(new TemplateObject(), A.class);
+    Reference<Class<?>> ref = new WeakReference<>(getCaches(beanCopier).iterator().next().getClass());
+
+    beanCopier.copy(new TemplateObject(), B.class);
+    System.gc();
+    assertNull(ref.get());
+  }
+
+  @Test
+  public void testUnloadEvictedSourceClasses() throws ReflectiveOperationException, IOException {
+    // the classloader is not configured, so the converter is defined under the classloader of the source class
+    var beanCopier = new BeanCopierImpl(config -> config.classLoader(null).cacheMaximumSize(1));
+    var refs = copyFromIsolatedClass(beanCopier);
+
+    beanCopier.copy(new TemplateObject(), B.class);
+    System.gc();
+
+    // neither the evicted converter nor its source class is kept by the registry
+    assertNull(refs[0].get());
+    assertNull(refs[1].get());
+    assertEquals(1, getCaches(beanCopier).size());
+  }
+
+  /**
+   * @return the references of the source class and the converter class
+   */
+  @SuppressWarnings("unchecked")
+  private Reference<Class<?>>[] copyFromIsolatedClass(BeanCopierImpl beanCopier) throws ReflectiveOperationException, IOException {
+    var cr = new ClassReader(TemplateObject.class.getName());
+    var cw = new ClassWriter(0);
+    var name = Type.getInternalName(TemplateObject.class);
+    cr.accept(new ClassRemapper(cw, new SimpleRemapper(name, name + "Isolated")), 0);
+    var code = cw.toByteArray();
+    Class<?> c = new ClassLoader(getClass().getClassLoader()) {
+      Class<?> define() {
+        return defineClass(null, code, 0, code.length);
+      }
+    }.define();
+
+    assertEquals("a", beanCopier.copy(c.getMethod("setA", String.class).invoke(c.getConstructor().newInstance(), "a"), TemplateObject.class).getA());
+    return new Reference[]{
+        new WeakReference<>(c),
+        new WeakReference<>(getCaches(beanCopier).iterator().next().getClass())
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<Converter<?, ?>> getCaches(BeanCopierImpl copier) throws ReflectiveOperationException {
+    Field cacheField = copier.getClass().getDeclaredField("cache");
+    cacheField.setAccessible(true);
+    Object cache = cacheField.get(copier);
+    Method values = cache.getClass().getDeclaredMethod("values");
+    values.setAccessible(true);
+    return (Collection<Converter<?, ?>>) values.invoke(cache);
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class A {
+    private String a;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class B {
+    private String b;
+  }
+
+}
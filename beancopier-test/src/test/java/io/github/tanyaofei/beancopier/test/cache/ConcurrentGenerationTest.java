@@ -0,0 +1,66 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author tanyaofei
+ */
+public class ConcurrentGenerationTest extends BeanCopierTest {
+
+  @Test
+  public void testSameClassesShareOneConverter() throws Exception {
+    var beanCopier = new BeanCopierImpl();
+    int threads = 16;
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Converter<TemplateObject, A>>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return beanCopier.converterFor(TemplateObject.class, A.class);
+        }));
+      }
+      start.countDown();
+
+      var converter = futures.get(0).get();
+      for (var future : futures) {
+        assertSame(converter, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailureIsShared() {
+    var beanCopier = new BeanCopierImpl();
+    var source = new TemplateObject();
+    // non-public class can not be copied to
+    assertThrows(RuntimeException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertThrows(RuntimeException.class, () -> beanCopier.copy(source, Hidden.class));
+  }
+
+  @Data
+  public static class A {
+    private String a;
+  }
+
+  @Data
+  static class Hidden {
+    private String a;
+  }
+
+}
@@ -0,0 +1,68 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.exception.ConverterGenerateException;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * @author tanyaofei
+ */
+public class FailureCacheTest extends BeanCopierTest {
+
+  @Test
+  public void testFailureIsRemembered() {
+    var beanCopier = new BeanCopierImpl();
+    var source = new TemplateObject();
+    var first = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertEquals(0, beanCopier.getFastFailureCount());
+
+    var second = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertSame(first, second.getCause());
+    assertEquals(0, second.getStackTrace().length);
+    assertEquals(1, beanCopier.getFastFailureCount());
+
+    // other pairs are not affected
+    assertNotNull(beanCopier.copy(source, TemplateObject.class));
+    assertEquals(1, beanCopier.getFastFailureCount());
+  }
+
+  @Test
+  public void testFailureCacheDisabled() {
+    var beanCopier = new BeanCopierImpl(config -> config.failureCacheTtl(Duration.ZERO));
+    var source = new TemplateObject();
+    var first = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    var second = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertNotSame(first, second.getCause());
+    assertEquals(0, beanCopier.getFastFailureCount());
+  }
+
+  @Test
+  public void testFailureExpires() throws InterruptedException {
+    var beanCopier = new BeanCopierImpl(config -> config.failureCacheTtl(Duration.ofMillis(50)));
+    var source = new TemplateObject();
+    var first = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    var second = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertSame(first, second.getCause());
+
+    Thread.sleep(100);
+    var third = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertNotSame(first, third.getCause());
+    assertEquals(1, beanCopier.getFastFailureCount());
+
+    // the new failure is remembered again
+    var fourth = assertThrows(ConverterGenerateException.class, () -> beanCopier.copy(source, Hidden.class));
+    assertSame(third, fourth.getCause());
+    assertEquals(2, beanCopier.getFastFailureCount());
+  }
+
+  @Data
+  static class Hidden {
+    private String a;
+  }
+
+}
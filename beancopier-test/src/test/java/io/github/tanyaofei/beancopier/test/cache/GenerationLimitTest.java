@@ -0,0 +1,142 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.ClassPair;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.exception.CopyException;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
+import io.github.tanyaofei.beancopier.test.nested.NestedRecord;
+import io.github.tanyaofei.beancopier.test.simple.PrimitivePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import lombok.Data;
+import lombok.SneakyThrows;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author tanyaofei
+ */
+public class GenerationLimitTest extends BeanCopierTest {
+
+  @Test
+  public void testGenerationLimit() {
+    var beanCopier = new BeanCopierImpl(config -> config.generationLimit(1));
+    assertFalse(isReflective(beanCopier.converterFor(TemplateObject.class, TemplateObject.class)));
+
+    var converter = beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class);
+    assertTrue(isReflective(converter));
+    assertSame(converter, beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class));
+    assertEquals(Set.of(ClassPair.of(NestedPOJO.class, NestedPOJO.class).toString()), beanCopier.getTrippedPairs());
+
+    var source = new NestedPOJO()
+        .setSeniority(1)
+        .setChild(new NestedPOJO().setSeniority(2))
+        .setChildren(List.of(new NestedPOJO().setSeniority(3), new NestedPOJO().setSeniority(3)));
+    assertEquals(source, beanCopier.clone(source));
+
+    var target = new NestedPOJO().setSeniority(4);
+    assertSame(target, converter.convertInto(source, target));
+    assertEquals(source, target);
+  }
+
+  @Test
+  public void testReflectiveConverterCopiesAsGenerated() {
+    var beanCopier = new BeanCopierImpl(config -> config.generationLimit(1).skipNull(true));
+    beanCopier.converterFor(TemplateObject.class, TemplateObject.class);
+
+    var simple = new SimplePOJO().setIntVal(1).setStringVal("string").setLocalDateTimeVal(LocalDateTime.now());
+    var record = beanCopier.copy(simple, SimpleRecord.class);
+    assertEquals(1, record.intVal());
+    assertEquals("string", record.stringVal());
+    assertNull(record.longVal());
+
+    // skipNull keeps the values of target
+    var target = new SimplePOJO().setLongVal(2L);
+    beanCopier.converterFor(SimplePOJO.class, SimplePOJO.class).convertInto(simple, target);
+    assertEquals(simple.setLongVal(2L), target);
+
+    var primitive = new PrimitivePOJO().setIntVal(1).setBooleanVal(true).setCharVal('c');
+    assertEquals(primitive, beanCopier.clone(primitive));
+
+    var nested = new NestedRecord(1, new NestedRecord(2, null, null), List.of(new NestedRecord(3, null, null)));
+    assertEquals(nested, beanCopier.clone(nested));
+    assertEquals(4, beanCopier.getTrippedPairs().size());
+  }
+
+  @Test
+  public void testReflectiveConverterExceptions() {
+    var beanCopier = new BeanCopierImpl(config -> config.generationLimit(1));
+    beanCopier.converterFor(TemplateObject.class, TemplateObject.class);
+    var converter = beanCopier.converterFor(ThrowingBean.class, ThrowingBean.class);
+    assertTrue(isReflective(converter));
+
+    // unchecked exceptions are thrown as they are
+    var unchecked = new ThrowingBean().setThrowable(new IllegalStateException());
+    assertSame(unchecked.getThrowable(), assertThrows(IllegalStateException.class, () -> converter.convert(unchecked)));
+
+    // checked exceptions are wrapped with the copied classes
+    var checked = new ThrowingBean().setThrowable(new IOException());
+    var e = assertThrows(CopyException.class, () -> converter.convert(checked));
+    assertSame(checked.getThrowable(), e.getCause());
+    assertTrue(e.getMessage().contains(ThrowingBean.class.getName() + " -> " + ThrowingBean.class.getName()));
+  }
+
+  @Test
+  public void testGenerationRateLimit() throws InterruptedException {
+    var beanCopier = new BeanCopierImpl(config -> config.generationRateLimit(1).compileExecutor(Runnable::run));
+    assertTrue(isGenerated(beanCopier.converterFor(TemplateObject.class, TemplateObject.class)));
+    var converter = beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class);
+    assertFalse(isGenerated(converter));
+    assertEquals(Set.of(ClassPair.of(NestedPOJO.class, NestedPOJO.class).toString()), beanCopier.getTrippedPairs());
+
+    // the rate limited pair is not generated until the window passes
+    var source = new NestedPOJO().setSeniority(1);
+    assertEquals(source, converter.convert(source));
+    assertFalse(isGenerated(beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class)));
+
+    Thread.sleep(1100);
+    assertEquals(source, converter.convert(source));
+    assertTrue(isGenerated(beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class)));
+  }
+
+  @Test
+  public void testUnlimited() {
+    var beanCopier = new BeanCopierImpl();
+    assertFalse(isReflective(beanCopier.converterFor(TemplateObject.class, TemplateObject.class)));
+    assertFalse(isReflective(beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class)));
+    assertTrue(beanCopier.getTrippedPairs().isEmpty());
+  }
+
+  private static boolean isReflective(Converter<?, ?> converter) {
+    return converter.getClass().getSimpleName().equals("ReflectiveConverter");
+  }
+
+  private static boolean isGenerated(Converter<?, ?> converter) {
+    var name = converter.getClass().getSimpleName();
+    return !name.equals("ReflectiveConverter") && !name.equals("TieredConverter");
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class ThrowingBean {
+
+    private Throwable throwable;
+
+    private String value;
+
+    @SneakyThrows
+    public String getValue() {
+      throw throwable;
+    }
+
+  }
+
+}
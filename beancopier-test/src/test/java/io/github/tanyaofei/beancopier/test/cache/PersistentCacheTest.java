@@ -0,0 +1,114 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.core.DefaultClassLoader;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author tanyaofei
+ */
+public class PersistentCacheTest extends BeanCopierTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testReuse() throws IOException {
+    var source = new SimplePOJO().setStringVal("string").setIntVal(1);
+    var first = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()));
+    assertEquals("string", first.copy(source, SimpleRecord.class).stringVal());
+    var files = classFiles();
+    assertEquals(1, files.size());
+
+    // another instance (as if the JVM restarted) defines the persisted class instead of generating a new one
+    var persisted = files.get(0);
+    Files.setLastModifiedTime(persisted, FileTime.fromMillis(0));
+    var second = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()));
+    assertEquals(1, second.copy(source, SimpleRecord.class).intVal());
+    assertEquals(FileTime.fromMillis(0), Files.getLastModifiedTime(persisted));
+
+    // a different configuration generates different code
+    var third = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()).skipNull(true));
+    third.copy(source, SimpleRecord.class);
+    assertEquals(2, classFiles().size());
+  }
+
+  @Test
+  public void testCorrupted() throws IOException {
+    var source = new SimplePOJO().setStringVal("string");
+    new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader())).copy(source, SimpleRecord.class);
+    var persisted = classFiles().get(0);
+    Files.write(persisted, new byte[]{1, 2, 3});
+
+    var beanCopier = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()));
+    assertEquals("string", beanCopier.copy(source, SimpleRecord.class).stringVal());
+    assertTrue(Files.size(persisted) > 3);
+  }
+
+  @Test
+  public void testTampered() throws IOException {
+    var source = new SimplePOJO().setStringVal("string");
+    new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader())).copy(source, SimpleRecord.class);
+    var persisted = classFiles().get(0);
+    var signed = Files.readAllBytes(persisted);
+
+    // modify the bytecode without the secret, it must not be defined
+    var tampered = signed.clone();
+    tampered[tampered.length - 1] ^= 1;
+    Files.write(persisted, tampered);
+
+    var beanCopier = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()));
+    assertEquals("string", beanCopier.copy(source, SimpleRecord.class).stringVal());
+    assertArrayEquals(signed, Files.readAllBytes(persisted));
+  }
+
+  @Test
+  public void testUntrustedDirectory() throws IOException {
+    assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+    var source = new SimplePOJO().setStringVal("string");
+    var beanCopier = new BeanCopierImpl(config -> config.persistentCachePath(directory.toString()).classLoader(newClassLoader()));
+    assertEquals("string", beanCopier.copy(source, SimpleRecord.class).stringVal());
+    assertTrue(classFiles().isEmpty());
+  }
+
+  @Test
+  public void testSecretPermissions() throws IOException {
+    assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    var cache = directory.resolve("cache");
+    new BeanCopierImpl(config -> config.persistentCachePath(cache.toString()).classLoader(newClassLoader()))
+        .copy(new SimplePOJO(), SimpleRecord.class);
+
+    assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(cache));
+    assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(cache.resolve(".secret")));
+  }
+
+  /**
+   * Converter classes are named deterministically, each instance uses its own classloader to avoid the names reserved by the others
+   */
+  private ClassLoader newClassLoader() {
+    return new DefaultClassLoader(getClass().getClassLoader());
+  }
+
+  private List<Path> classFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(f -> f.toString().endsWith(".class")).toList();
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package io.github.tanyaofei.beancopier.test.cache;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.ClassPair;
+import io.github.tanyaofei.beancopier.NamingPolicy;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * @author tanyaofei
+ */
+public class TieredConverterTest extends BeanCopierTest {
+
+  @Test
+  public void testCompiledAfterThreshold() throws InterruptedException {
+    var beanCopier = new BeanCopierImpl(config -> config.compileThreshold(3));
+    var tiered = beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class);
+    assertEquals("TieredConverter", tiered.getClass().getSimpleName());
+
+    var source = new NestedPOJO().setSeniority(1).setChildren(List.of(new NestedPOJO().setSeniority(2)));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(source, beanCopier.clone(source));
+    }
+
+    // compiled in background
+    var deadline = System.currentTimeMillis() + 10_000;
+    while (!isGenerated(beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class))) {
+      assertTrue(System.currentTimeMillis() < deadline, "not compiled in time");
+      Thread.sleep(10);
+    }
+
+    // the tiered converter held by callers copies by the compiled one as well
+    assertEquals(source, tiered.convert(source));
+  }
+
+  @Test
+  public void testColdPairIsNotCompiled() throws InterruptedException {
+    var beanCopier = new BeanCopierImpl(config -> config.compileThreshold(100));
+    var source = new SimplePOJO().setStringVal("string").setIntVal(1);
+    var target = beanCopier.copy(source, SimpleRecord.class);
+    assertEquals("string", target.stringVal());
+    assertEquals(1, target.intVal());
+
+    Thread.sleep(100);
+    assertEquals("TieredConverter", beanCopier.converterFor(SimplePOJO.class, SimpleRecord.class).getClass().getSimpleName());
+  }
+
+  @Test
+  public void testWarmupCompiles() {
+    var beanCopier = new BeanCopierImpl(config -> config.compileThreshold(100));
+    assertTrue(beanCopier.warmup(List.of(ClassPair.of(NestedPOJO.class, NestedPOJO.class))).join().isSuccessful());
+    assertTrue(isGenerated(beanCopier.converterFor(NestedPOJO.class, NestedPOJO.class)));
+  }
+
+  @Test
+  public void testCompileExecutor() {
+    var beanCopier = new BeanCopierImpl(config -> config.compileThreshold(2).compileExecutor(Runnable::run));
+    var source = new SimplePOJO().setStringVal("string");
+    beanCopier.clone(source);
+    beanCopier.clone(source);
+
+    // compiled by the configured executor on the calling thread
+    var compiled = beanCopier.converterFor(SimplePOJO.class, SimplePOJO.class);
+    assertTrue(isGenerated(compiled));
+
+    // the cache holds the compiled converter instead of the tiered one
+    assertSame(compiled, beanCopier.converterFor(SimplePOJO.class, SimplePOJO.class));
+    assertEquals(source, beanCopier.clone(source));
+    assertSame(compiled, beanCopier.converterFor(SimplePOJO.class, SimplePOJO.class));
+  }
+
+  @Test
+  public void testCompileFailureIsRecorded() {
+    var beanCopier = new BeanCopierImpl(config -> config
+        .compileThreshold(1)
+        .compileExecutor(Runnable::run)
+        .namingPolicy(new NamingPolicy() {
+          @Override
+          public @NotNull String getClassName(@NotNull Class<?> sourceType, @NotNull Class<?> targetType, @NotNull Predicate<String> predicate) {
+            throw new IllegalStateException("no name");
+          }
+        })
+    );
+    var source = new SimplePOJO().setStringVal("string");
+    for (int i = 0; i < 10; i++) {
+      assertEquals("string", beanCopier.clone(source).getStringVal());
+    }
+
+    // the pair keeps interpreting and is not compiled again
+    assertEquals(1, beanCopier.getCompileFailureCount());
+    assertTrue(beanCopier.warmup(List.of(ClassPair.of(SimplePOJO.class, SimplePOJO.class))).join().isSuccessful());
+    assertEquals(1, beanCopier.getCompileFailureCount());
+    assertEquals("TieredConverter", beanCopier.converterFor(SimplePOJO.class, SimplePOJO.class).getClass().getSimpleName());
+  }
+
+  private static boolean isGenerated(Converter<?, ?> converter) {
+    return converter.getClass().getName().contains("GeneratedByBeanCopier");
+  }
+
+}
@@ -0,0 +1,42 @@
+package io.github.tanyaofei.beancopier.test.classloader;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * @author tanyaofei
+ */
+public class HiddenClassTest extends BeanCopierTest {
+
+  @Test
+  public void testHiddenClass() {
+    var beanCopier = new BeanCopierImpl(config -> config.hiddenClassLookup(MethodHandles.lookup()));
+    var converter = beanCopier.converterFor(SimplePOJO.class, SimpleRecord.class);
+    assertTrue(converter.getClass().isHidden());
+    assertEquals(getClass().getPackageName(), converter.getClass().getPackageName());
+    assertEquals("string", converter.convert(new SimplePOJO().setStringVal("string")).stringVal());
+
+    // nested converters call themselves, including through a lambda
+    var source = new NestedPOJO().setChild(new NestedPOJO().setSeniority(1)).setChildren(List.of(new NestedPOJO().setSeniority(2)));
+    assertEquals(source, beanCopier.clone(source));
+  }
+
+  @Test
+  public void testUnloadEvicted() {
+    var beanCopier = new BeanCopierImpl(config -> config.hiddenClassLookup(MethodHandles.lookup()).cacheMaximumSize(1));
+    Reference<Class<?>> ref = new WeakReference<>(beanCopier.converterFor(SimplePOJO.class, SimpleRecord.class).getClass());
+    beanCopier.copy(new SimpleRecord(null, null, null, null, null, null, null, null, null, null), SimplePOJO.class);
+    System.gc();
+    assertNull(ref.get());
+  }
+
+}
@@ -3,13 +3,24 @@ package io.github.tanyaofei.beancopier.test.classloader;
 import io.github.tanyaofei.beancopier.BeanCopierImpl;
 import io.github.tanyaofei.beancopier.converter.Converter;
 import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
 import io.github.tanyaofei.beancopier.test.util.DumpConverterClasses;
+import io.github.tanyaofei.beancopier.test.util.TemplateObject;
+import io.github.tanyaofei.beancopier.utils.reflection.GenericTypes;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
 
+import java.io.IOException;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,12 +29,13 @@ import static org.junit.jupiter.api.Assertions.*;
 public class UnloadClassesTest {
 
   @Test
-  public void testUnloadClasses() throws NoSuchFieldException, IllegalAccessException {
+  public void testUnloadClasses() throws ReflectiveOperationException, InterruptedException {
     BeanCopierImpl beanCopier = new BeanCopierImpl();
     beanCopier.copy(new Object(), Object.class);
 
-    Reference<Class<?>> ref = new WeakReference<>(getCaches(beanCopier).values().iterator().next().getClass());
-    assertFalse(getReservedClassNames().isEmpty());
+    Reference<Class<?>> ref = new WeakReference<>(getCaches(beanCopier).iterator().next().getClass());
+    int loaders = getReservedClassNames();
+    assertTrue(loaders > 0);
 
     // note:
     //    beanCopier = null 就会释放 BeanCopierImpl 的引用
@@ -33,23 +45,119 @@ public class UnloadClassesTest {
     beanCopier = null;
     System.gc();
 
-    getReservedClassNames().clear();
     assertNull(ref.get());
-    assertTrue(getReservedClassNames().isEmpty());
+
+    // 类加载器被回收后, 它保留的类名也会被释放
+    for (int i = 0; i < 100 && getReservedClassNames() >= loaders; i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(getReservedClassNames() < loaders);
+  }
+
+  @Test
+  public void testUnloadSourceClass() throws ReflectiveOperationException, IOException {
+    // the classloader is not configured, so the converter is defined by the classloader of the source class
+    BeanCopierImpl beanCopier = new BeanCopierImpl(config -> {});
+    Reference<Class<?>> ref = copyFromIsolatedClass(beanCopier);
+    assertEquals(1, getCaches(beanCopier).size());
+
+    System.gc();
+
+    // the registry should neither keep the source class nor its converter
+    assertNull(ref.get());
+    assertTrue(getCaches(beanCopier).isEmpty());
+  }
+
+  @Test
+  public void testUnloadTargetClass() throws ReflectiveOperationException, IOException {
+    BeanCopierImpl beanCopier = new BeanCopierImpl(config -> {});
+    Reference<Class<?>> ref = copyToIsolatedClass(beanCopier);
+    assertEquals(1, getCaches(beanCopier).size());
+
+    System.gc();
+
+    assertNull(ref.get());
+    assertTrue(getCaches(beanCopier).isEmpty());
+
+    // the source class is still usable
+    assertEquals("a", beanCopier.copy(new TemplateObject().setA("a"), TemplateObject.class).getA());
+  }
+
+  @Test
+  public void testUnloadGenericTypes() throws ReflectiveOperationException, IOException {
+    Reference<Class<?>> ref = resolveIsolatedGenericTypes();
+
+    System.gc();
+
+    // the generic types are cached in the isolated class, so they do not keep it from being unloaded
+    assertNull(ref.get());
+  }
+
+  private Reference<Class<?>> resolveIsolatedGenericTypes() throws ReflectiveOperationException, IOException {
+    Class<?> c = isolate(NestedPOJO.class);
+    java.lang.reflect.Type type = c.getDeclaredField("children").getGenericType();
+    assertTrue(GenericTypes.isSubtypeOf(type, type));
+    assertSame(c, GenericTypes.getCollectionElementType(type));
+
+    // the types of a child classloader are cached too
+    Field anchoredCachesField = GenericTypes.class.getDeclaredField("anchoredCaches");
+    anchoredCachesField.setAccessible(true);
+    Object caches = ((ClassValue<?>) anchoredCachesField.get(null)).get(c);
+    for (String name : new String[]{"subtypes", "collectionElementTypes"}) {
+      Field field = caches.getClass().getDeclaredField(name);
+      field.setAccessible(true);
+      assertEquals(1, ((Map<?, ?>) field.get(caches)).size());
+    }
+    return new WeakReference<>(c);
+  }
+
+  private Reference<Class<?>> copyFromIsolatedClass(BeanCopierImpl beanCopier) throws ReflectiveOperationException, IOException {
+    Class<?> c = isolate(TemplateObject.class);
+    Object source = c.getConstructor().newInstance();
+    c.getMethod("setA", String.class).invoke(source, "a");
+    assertEquals("a", beanCopier.copy(source, TemplateObject.class).getA());
+    return new WeakReference<>(c);
+  }
+
+  private Reference<Class<?>> copyToIsolatedClass(BeanCopierImpl beanCopier) throws ReflectiveOperationException, IOException {
+    Class<?> c = isolate(TemplateObject.class);
+    Object target = beanCopier.copy(new TemplateObject().setA("a"), c);
+    assertEquals("a", c.getMethod("getA").invoke(target));
+    return new WeakReference<>(c);
+  }
+
+  /**
+   * Define a copy of the specified class by a new classloader
+   */
+  private Class<?> isolate(Class<?> c) throws IOException {
+    ClassReader cr = new ClassReader(c.getName());
+    ClassWriter cw = new ClassWriter(0);
+    cr.accept(new ClassRemapper(cw, new SimpleRemapper(Type.getInternalName(c), Type.getInternalName(c) + "Isolated")), 0);
+    byte[] code = cw.toByteArray();
+    return new ClassLoader(getClass().getClassLoader()) {
+      Class<?> define() {
+        return defineClass(null, code, 0, code.length);
+      }
+    }.define();
   }
 
   @SuppressWarnings("unchecked")
-  private Map<String, ? super Converter<?, ?>> getCaches(BeanCopierImpl copier) throws NoSuchFieldException, IllegalAccessException {
+  private Collection<Converter<?, ?>> getCaches(BeanCopierImpl copier) throws ReflectiveOperationException {
     Field cacheField = copier.getClass().getDeclaredField("cache");
     cacheField.setAccessible(true);
-    return (Map<String, ? super Converter<?, ?>>) cacheField.get(copier);
+    Object cache = cacheField.get(copier);
+    Method values = cache.getClass().getDeclaredMethod("values");
+    values.setAccessible(true);
+    return (Collection<Converter<?, ?>>) values.invoke(cache);
   }
 
-  @SuppressWarnings("unchecked")
-  private Map<ClassLoader, String> getReservedClassNames() throws NoSuchFieldException, IllegalAccessException {
-    Field reservedClassNamesField = ConverterFactory.class.getDeclaredField("classLoaderReservedClassNames");
+  private int getReservedClassNames() throws ReflectiveOperationException {
+    Field reservedClassNamesField = ConverterFactory.class.getDeclaredField("reservedClassNames");
     reservedClassNamesField.setAccessible(true);
-    return (Map<ClassLoader, String>) reservedClassNamesField.get(ConverterFactory.class);
+    Object reservedClassNames = reservedClassNamesField.get(ConverterFactory.class);
+    Method size = reservedClassNames.getClass().getDeclaredMethod("size");
+    size.setAccessible(true);
+    return (int) size.invoke(reservedClassNames);
   }
 
 }
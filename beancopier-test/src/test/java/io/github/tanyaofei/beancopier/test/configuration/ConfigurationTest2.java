@@ -55,6 +55,33 @@ public class ConfigurationTest2 {
   }
 
 
+  @Test
+  public void testSkipNullWithWideLocals() {
+    var beanCopier = new BeanCopierImpl(builder -> builder.skipNull(true).classDumpPath(DumpConverterClasses.dumpPath));
+    W w = new W().setA(1L).setB(null).setC(2D).setD(Collections.singletonList(new W().setB("2")));
+
+    W copied = beanCopier.copy(w, W.class);
+    assertEquals(1L, copied.getA());
+    assertEquals("1", copied.getB());
+    assertEquals(2D, copied.getC());
+    assertEquals("2", copied.getD().get(0).getB());
+
+    W target = new W().setB("3");
+    beanCopier.converterFor(W.class, W.class).convertInto(w, target);
+    assertEquals(1L, target.getA());
+    assertEquals("3", target.getB());
+    assertEquals(2D, target.getC());
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class W {
+    private long a;
+    private String b = "1";
+    private double c;
+    private List<W> d;
+  }
+
   @Data
   @Accessors(chain = true)
   public static class A {
@@ -0,0 +1,136 @@
+package io.github.tanyaofei.beancopier.test.configuration;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * @author tanyaofei
+ */
+public class DirectFieldAccessTest extends BeanCopierTest {
+
+  @Test
+  public void testPublicFields() {
+    var source = new PublicFieldBean();
+    source.name = "name";
+    source.age = 1;
+
+    var target = new BeanCopierImpl(config -> config.directFieldAccess(true)).clone(source);
+    assertEquals("name", target.name);
+    assertEquals(1, target.age);
+
+    // public fields without getters and setters are not properties by default
+    var ignored = new BeanCopierImpl().clone(source);
+    assertNull(ignored.name);
+    assertEquals(0, ignored.age);
+  }
+
+  @Test
+  public void testPublicFieldsByInterpreter() {
+    var source = new PublicFieldBean();
+    source.name = "name";
+    var beanCopier = new BeanCopierImpl(config -> config.directFieldAccess(true).compileThreshold(100));
+    assertEquals("TieredConverter", beanCopier.converterFor(PublicFieldBean.class, AccessorBean.class).getClass().getSimpleName());
+    assertEquals("name", beanCopier.copy(source, AccessorBean.class).getName());
+    assertEquals("name", beanCopier.copy(new AccessorBean().setName("name"), PublicFieldBean.class).name);
+  }
+
+  @Test
+  public void testInheritedPublicFields() {
+    var source = new InheritedFieldBean();
+    source.name = "name";
+
+    // the superclass declaring the field is not accessible to converters
+    for (var beanCopier : new BeanCopierImpl[]{
+        new BeanCopierImpl(config -> config.directFieldAccess(true)),
+        new BeanCopierImpl(config -> config.directFieldAccess(true).compileThreshold(100))
+    }) {
+      assertEquals("name", beanCopier.clone(source).name);
+      assertEquals("name", beanCopier.copy(source, AccessorBean.class).getName());
+      assertEquals("name", beanCopier.copy(new AccessorBean().setName("name"), InheritedFieldBean.class).name);
+    }
+  }
+
+  @Test
+  public void testTrivialAccessors() {
+    var source = new AccessorBean().setName("name").setUpper("upper");
+    var beanCopier = new BeanCopierImpl(config -> config.directFieldAccess(true).hiddenClassLookup(MethodHandles.lookup()));
+    var target = beanCopier.clone(source);
+    assertEquals("name", target.getName());
+    assertEquals("UPPER", target.getUpper());
+
+    // the private fields are accessible to the hidden converters that are nestmates of them
+    var hidden = instructions(config -> config.directFieldAccess(true).hiddenClassLookup(MethodHandles.lookup()));
+    assertTrue(hidden.contains("GETFIELD name"));
+    assertTrue(hidden.contains("PUTFIELD name"));
+    assertTrue(hidden.contains("PUTFIELD upper"));
+    assertTrue(hidden.contains("INVOKE getUpper"), "a getter that does more than reading its field is still called");
+    assertFalse(hidden.contains("INVOKE getName"));
+
+    // but not to the named ones
+    var named = instructions(config -> config.directFieldAccess(true));
+    assertTrue(named.contains("INVOKE getName"));
+    assertTrue(named.contains("INVOKE setName"));
+    assertFalse(named.contains("GETFIELD name"));
+  }
+
+  private static Set<String> instructions(Consumer<ConverterConfiguration.Builder> config) {
+    var code = new ConverterFactory(config).generateCode(AccessorBean.class, AccessorBean.class, "DirectFieldAccessTestConverter");
+    var instructions = new HashSet<String>();
+    new ClassReader(code).accept(new ClassVisitor(Opcodes.ASM9) {
+      @Override
+      public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        return new MethodVisitor(Opcodes.ASM9) {
+          @Override
+          public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            instructions.add((opcode == Opcodes.GETFIELD ? "GETFIELD " : "PUTFIELD ") + name);
+          }
+
+          @Override
+          public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            instructions.add("INVOKE " + name);
+          }
+        };
+      }
+    }, 0);
+    return instructions;
+  }
+
+  public static class PublicFieldBean {
+    public String name;
+    public int age;
+    public final String constant = "constant";
+  }
+
+  static class PackagePrivateFieldBean {
+    public String name;
+  }
+
+  public static class InheritedFieldBean extends PackagePrivateFieldBean {
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class AccessorBean {
+    private String name;
+    private String upper;
+
+    public String getUpper() {
+      return upper == null ? null : upper.toUpperCase();
+    }
+  }
+
+}
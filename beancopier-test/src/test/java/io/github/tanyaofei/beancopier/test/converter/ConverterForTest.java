@@ -0,0 +1,54 @@
+package io.github.tanyaofei.beancopier.test.converter;
+
+import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author tanyaofei
+ */
+public class ConverterForTest extends BeanCopierTest {
+
+  private static final Converter<NestedPOJO, NestedPOJO> NESTED = BeanCopier.converterFor(NestedPOJO.class, NestedPOJO.class);
+
+  @Test
+  public void testConvert() {
+    var source = new NestedPOJO().setSeniority(1).setChild(new NestedPOJO().setSeniority(2));
+    assertEquals(source, NESTED.convert(source));
+    assertNull(NESTED.convert(null));
+    assertSame(NESTED, BeanCopier.converterFor(NestedPOJO.class, NestedPOJO.class));
+  }
+
+  @Test
+  public void testConvertList() {
+    var sources = Arrays.asList(new NestedPOJO().setSeniority(1), null, new NestedPOJO().setSeniority(3));
+    assertEquals(sources, NESTED.convertList(sources));
+    assertEquals(sources, sources.stream().map(NESTED.asFunction()).toList());
+  }
+
+  @Test
+  public void testConvertInto() {
+    var source = new NestedPOJO().setSeniority(1).setChildren(List.of(new NestedPOJO().setSeniority(2)));
+    var target = new NestedPOJO().setSeniority(3);
+    assertSame(target, NESTED.convertInto(source, target));
+    assertEquals(source, target);
+
+    var unmodified = new NestedPOJO().setSeniority(3);
+    assertSame(unmodified, NESTED.convertInto(null, unmodified));
+    assertEquals(3, unmodified.getSeniority());
+  }
+
+  @Test
+  public void testConvertIntoRecord() {
+    var converter = BeanCopier.converterFor(SimplePOJO.class, SimpleRecord.class);
+    assertThrows(UnsupportedOperationException.class, () -> converter.convertInto(new SimplePOJO(), converter.convert(new SimplePOJO())));
+  }
+
+}
@@ -0,0 +1,169 @@
+package io.github.tanyaofei.beancopier.test.nested;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.core.NestedConverters;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * @author tanyaofei
+ */
+public class CrossTypeNestedTest extends BeanCopierTest {
+
+  private static Order order() {
+    var customer = new Customer().setName("customer").setOrders(List.of(new Order().setId(2)));
+    return new Order()
+        .setId(1)
+        .setCustomer(customer)
+        .setItems(List.of(new Item("a", 1), new Item("b", 2)))
+        .setTags(Set.of(new Item("c", 3)));
+  }
+
+  private static void assertConverted(OrderDTO target) {
+    assertEquals(1, target.getId());
+    assertEquals("customer", target.getCustomer().getName());
+    assertEquals(1, target.getCustomer().getOrders().size());
+    assertEquals(2, target.getCustomer().getOrders().get(0).getId());
+    assertNull(target.getCustomer().getOrders().get(0).getCustomer());
+    assertEquals(List.of(new ItemDTO("a", 1), new ItemDTO("b", 2)), target.getItems());
+    assertEquals(Set.of(new ItemDTO("c", 3)), target.getTags());
+  }
+
+  @Test
+  public void testObjectGraph() {
+    var configs = List.<Consumer<ConverterConfiguration.Builder>>of(
+        config -> config.crossTypeNested(true),
+        config -> config.crossTypeNested(true).hiddenClassLookup(MethodHandles.lookup()),
+        config -> config.crossTypeNested(true).compileThreshold(100)
+    );
+    for (var config : configs) {
+      var beanCopier = new BeanCopierImpl(config);
+      assertConverted(beanCopier.copy(order(), OrderDTO.class));
+      assertConverted(beanCopier.copy(order(), OrderDTO.class));
+      assertEquals("customer", beanCopier.copy(order().getCustomer(), CustomerDTO.class).getName());
+      assertNull(beanCopier.copy(new Order(), OrderDTO.class).getCustomer());
+    }
+  }
+
+  @Test
+  public void testSharedNestedConverters() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.crossTypeNested(true));
+    assertConverted(beanCopier.copy(order(), OrderDTO.class));
+    assertEquals("customer", beanCopier.copy(new Invoice().setCustomer(order().getCustomer()), InvoiceDTO.class).getCustomer().getName());
+
+    // both parents link the registered converter, so only one class is generated for Customer -> CustomerDTO
+    var customer = beanCopier.converterFor(Customer.class, CustomerDTO.class);
+    assertTrue(linked(beanCopier.converterFor(Order.class, OrderDTO.class)).contains(customer));
+    assertEquals(List.of(customer), linked(beanCopier.converterFor(Invoice.class, InvoiceDTO.class)));
+  }
+
+  private static List<Object> linked(Object converter) throws ReflectiveOperationException {
+    var linked = new ArrayList<>();
+    for (var field : converter.getClass().getDeclaredFields()) {
+      if (field.getName().startsWith("nested$")) {
+        field.setAccessible(true);
+        linked.add(field.get(null));
+      }
+    }
+    return linked;
+  }
+
+  @Test
+  public void testDisabled() {
+    var target = new BeanCopierImpl().copy(order(), OrderDTO.class);
+    assertEquals(1, target.getId());
+    assertNull(target.getCustomer());
+    assertNull(target.getItems());
+  }
+
+  @Test
+  public void testStandaloneFactory() {
+    var converter = new ConverterFactory(config -> config.crossTypeNested(true)).generateConverter(Order.class, OrderDTO.class);
+    assertConverted(converter.convert(order()));
+  }
+
+  @Test
+  public void testLinkedFields() {
+    var code = new ConverterFactory(config -> config.crossTypeNested(true))
+        .generateCode(Order.class, OrderDTO.class, "CrossTypeNestedTestConverter");
+    var node = new ClassNode();
+    new ClassReader(code).accept(node, 0);
+
+    // Customer -> CustomerDTO and Item -> ItemDTO, each is linked once
+    var fields = node.fields
+        .stream()
+        .filter(f -> f.name.startsWith("nested$"))
+        .peek(f -> assertEquals(Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, f.access & (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL)))
+        .map(f -> f.name)
+        .collect(Collectors.toSet());
+    assertEquals(Set.of("nested$0", "nested$1"), fields);
+    assertTrue(node.methods.stream().anyMatch(m -> m.name.equals("<clinit>")));
+
+    assertThrows(IllegalStateException.class, () -> NestedConverters.link(Customer.class, CustomerDTO.class));
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Order {
+    private Integer id;
+    private Customer customer;
+    private List<Item> items;
+    private Set<Item> tags;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class OrderDTO {
+    private Integer id;
+    private CustomerDTO customer;
+    private List<ItemDTO> items;
+    private Set<ItemDTO> tags;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Customer {
+    private String name;
+    private List<Order> orders;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class CustomerDTO {
+    private String name;
+    private List<OrderDTO> orders;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class Invoice {
+    private Customer customer;
+  }
+
+  @Data
+  @Accessors(chain = true)
+  public static class InvoiceDTO {
+    private CustomerDTO customer;
+  }
+
+  public record Item(String name, int quantity) {
+  }
+
+  public record ItemDTO(String name, int quantity) {
+  }
+
+}
@@ -0,0 +1,26 @@
+package io.github.tanyaofei.beancopier.test.nested;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author tanyaofei
+ */
+@Data
+@Accessors(chain = true)
+public class NestedCollectionPOJO {
+  private int seniority;
+  private List<NestedCollectionPOJO> list;
+  private Collection<NestedCollectionPOJO> collection;
+  private Set<NestedCollectionPOJO> set;
+  private LinkedHashSet<NestedCollectionPOJO> linkedHashSet;
+  private Deque<NestedCollectionPOJO> deque;
+  private LinkedList<NestedCollectionPOJO> linkedList;
+}
@@ -0,0 +1,26 @@
+package io.github.tanyaofei.beancopier.test.nested;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author tanyaofei
+ */
+@Data
+@Accessors(chain = true)
+public class NestedCollectionVO {
+  private int seniority;
+  private List<NestedCollectionVO> list;
+  private Collection<NestedCollectionVO> collection;
+  private Set<NestedCollectionVO> set;
+  private LinkedHashSet<NestedCollectionVO> linkedHashSet;
+  private Deque<NestedCollectionVO> deque;
+  private LinkedList<NestedCollectionVO> linkedList;
+}
@@ -1,9 +1,15 @@
 package io.github.tanyaofei.beancopier.test.nested;
 
 import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
 import io.github.tanyaofei.beancopier.test.BeanCopierTest;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -35,5 +41,48 @@ public class NestedTest extends BeanCopierTest {
     assertEquals(source, target);
   }
 
+  @Test
+  public void testCollections() {
+    var a = new NestedCollectionPOJO().setSeniority(2);
+    var b = new NestedCollectionPOJO().setSeniority(3);
+    var source = new NestedCollectionPOJO()
+        .setSeniority(1)
+        .setList(new LinkedList<>(List.of(a, b)))
+        .setCollection(List.of(a))
+        .setSet(new LinkedHashSet<>(List.of(b, a)))
+        .setLinkedHashSet(new LinkedHashSet<>(List.of(b, a)))
+        .setDeque(new ArrayDeque<>(List.of(a, b)))
+        .setLinkedList(new LinkedList<>(List.of(a, b)));
+
+    // the interpreter must create the same collections as the generated converter
+    for (var beanCopier : List.of(new BeanCopierImpl(), new BeanCopierImpl(config -> config.compileThreshold(100)))) {
+      var target = beanCopier.copy(source, NestedCollectionVO.class);
+      assertEquals(ArrayList.class, target.getList().getClass());
+      assertEquals(List.of(2, 3), seniorities(target.getList()));
+      assertEquals(ArrayList.class, target.getCollection().getClass());
+      assertEquals(List.of(2), seniorities(target.getCollection()));
+      assertEquals(LinkedHashSet.class, target.getSet().getClass());
+      assertEquals(List.of(3, 2), seniorities(target.getSet()));
+      assertEquals(LinkedHashSet.class, target.getLinkedHashSet().getClass());
+      assertEquals(List.of(3, 2), seniorities(target.getLinkedHashSet()));
+      assertEquals(ArrayDeque.class, target.getDeque().getClass());
+      assertEquals(List.of(2, 3), seniorities(target.getDeque()));
+      assertEquals(LinkedList.class, target.getLinkedList().getClass());
+      assertEquals(List.of(2, 3), seniorities(target.getLinkedList()));
+      assertNull(beanCopier.copy(new NestedCollectionPOJO(), NestedCollectionVO.class).getList());
+    }
+
+    // the elements of a random access list are converted by index
+    var list = new ArrayList<NestedCollectionPOJO>();
+    list.add(a);
+    list.add(null);
+    var target = BeanCopier.copy(new NestedCollectionPOJO().setList(list), NestedCollectionVO.class);
+    assertEquals(2, target.getList().get(0).getSeniority());
+    assertNull(target.getList().get(1));
+  }
+
+  private static List<Integer> seniorities(Collection<NestedCollectionVO> collection) {
+    return collection.stream().map(NestedCollectionVO::getSeniority).toList();
+  }
 
 }
@@ -0,0 +1,107 @@
+package io.github.tanyaofei.beancopier.test.pregenerated;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.core.PregeneratedConverters;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Simulates the output of beancopier-maven-plugin
+ *
+ * @author tanyaofei
+ */
+public class PregeneratedConverterTest extends BeanCopierTest {
+
+  @TempDir
+  static Path outputDirectory;
+
+  static String className;
+
+  static URLClassLoader classLoader;
+
+  @BeforeAll
+  public static void generate() throws IOException {
+    var factory = new ConverterFactory(builder -> builder.classDumpPath(null));
+    className = PregeneratedConverters.getClassName(SimplePOJO.class, SimpleRecord.class, name -> false);
+    var classFile = outputDirectory.resolve(className.replace('.', File.separatorChar) + ".class");
+    Files.createDirectories(classFile.getParent());
+    Files.write(classFile, factory.generateCode(SimplePOJO.class, SimpleRecord.class, className));
+
+    var index = outputDirectory.resolve(PregeneratedConverters.INDEX_RESOURCE);
+    Files.createDirectories(index.getParent());
+    try (var out = Files.newOutputStream(index)) {
+      PregeneratedConverters.writeIndex(
+          factory.getConfiguration(),
+          Map.of(PregeneratedConverters.key(SimplePOJO.class, SimpleRecord.class), className),
+          out
+      );
+    }
+
+    classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, PregeneratedConverterTest.class.getClassLoader());
+  }
+
+  @Test
+  public void testPregenerated() {
+    var beanCopier = new BeanCopierImpl(builder -> builder.classLoader(classLoader));
+    var converter = beanCopier.converterFor(SimplePOJO.class, SimpleRecord.class);
+    assertEquals(className, converter.getClass().getName());
+    assertSame(classLoader, converter.getClass().getClassLoader());
+
+    var source = new SimplePOJO().setStringVal("string").setIntVal(1);
+    var target = beanCopier.copy(source, SimpleRecord.class);
+    assertEquals("string", target.stringVal());
+    assertEquals(1, target.intVal());
+  }
+
+  @Test
+  public void testFingerprintMismatch() {
+    var beanCopier = new BeanCopierImpl(builder -> builder.classLoader(classLoader).skipNull(true));
+    var converter = beanCopier.converterFor(SimplePOJO.class, SimpleRecord.class);
+    assertNotEquals(className, converter.getClass().getName());
+  }
+
+  @Test
+  public void testNotIndexed() {
+    var beanCopier = new BeanCopierImpl(builder -> builder.classLoader(classLoader));
+    var converter = beanCopier.converterFor(SimpleRecord.class, SimplePOJO.class);
+    assertFalse(converter.getClass().getName().contains("PregeneratedByBeanCopier"));
+  }
+
+  @Test
+  public void testNamedLikeRuntimeConverters() {
+    // suffixed the same way as the converters generated at runtime
+    assertEquals(
+        className + "_2",
+        PregeneratedConverters.getClassName(SimplePOJO.class, SimpleRecord.class, name -> name.equals(className))
+    );
+    assertEquals(SimplePOJO.class.getPackageName(), className.substring(0, className.lastIndexOf('.')));
+  }
+
+  @Test
+  public void testFingerprintHasLibraryVersion() throws IOException {
+    // the converters generated by another version of beancopier are rejected
+    var properties = new Properties();
+    try (var in = PregeneratedConverters.class.getResourceAsStream("version.properties")) {
+      properties.load(in);
+    }
+    var version = properties.getProperty("version");
+    assertFalse(version.startsWith("${"));
+    var fingerprint = PregeneratedConverters.fingerprint(new ConverterFactory(builder -> {}).getConfiguration());
+    assertTrue(fingerprint.startsWith(version + ":"));
+  }
+
+}
@@ -1,9 +1,19 @@
 package io.github.tanyaofei.beancopier.test.property;
 
 import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.annotation.Property;
 import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import lombok.Data;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * @author tanyaofei
  */
@@ -34,4 +44,66 @@ public class PropertyTest extends BeanCopierTest {
     assertEquals(source.sex(), target.sex());
   }
 
+  @Test
+  public void testAlias() {
+    var source = new PropertyPOJO()
+        .setId("id")
+        .setName("name")
+        .setAge(18)
+        .setSex("male");
+
+    var target = BeanCopier.copy(source, AliasPOJO.class);
+    assertEquals(source.getName(), target.getNickname());
+    assertEquals(source.getId(), target.getIdentity());
+    assertNull(target.getSex());
+  }
+
+  @Test
+  public void testConcurrentAlias() throws Exception {
+    var source = new PropertyPOJO()
+        .setId("id")
+        .setName("name")
+        .setSex("male");
+
+    int threads = 16;
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<AliasPOJO>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        // every thread generates its own converter
+        var beanCopier = new BeanCopierImpl();
+        futures.add(executor.submit(() -> {
+          start.await();
+          return beanCopier.copy(source, AliasPOJO.class);
+        }));
+      }
+      start.countDown();
+
+      for (var future : futures) {
+        var target = future.get();
+        assertEquals(source.getName(), target.getNickname());
+        assertEquals(source.getId(), target.getIdentity());
+        assertNull(target.getSex());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Data
+  public static class AliasParent {
+    @Property("id")
+    private String identity;
+  }
+
+  @Data
+  public static class AliasPOJO extends AliasParent {
+    @Property("name")
+    private String nickname;
+
+    @Property(skip = true)
+    private String sex;
+  }
+
 }
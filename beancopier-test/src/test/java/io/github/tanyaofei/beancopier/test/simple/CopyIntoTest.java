@@ -0,0 +1,49 @@
+package io.github.tanyaofei.beancopier.test.simple;
+
+import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.exception.CopyException;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author tanyaofei
+ */
+public class CopyIntoTest extends BeanCopierTest {
+
+  @Test
+  public void testCopyInto() {
+    var source = new SimplePOJO().setStringVal("string").setIntVal(1);
+    var target = new SimplePOJO().setStringVal("old").setLongVal(2L);
+    assertSame(target, BeanCopier.copyInto(source, target));
+    assertEquals(source, target);
+
+    var unmodified = new SimplePOJO().setLongVal(2L);
+    assertSame(unmodified, BeanCopier.copyInto(null, unmodified));
+    assertEquals(2L, unmodified.getLongVal());
+
+    var callback = new SimplePOJO();
+    BeanCopier.copyInto(source, callback, (s, t) -> t.setLongVal(3L));
+    assertEquals("string", callback.getStringVal());
+    assertEquals(3L, callback.getLongVal());
+  }
+
+  @Test
+  public void testMergeBySkipNull() {
+    var beanCopier = new BeanCopierImpl(config -> config.skipNull(true));
+    var patch = new SimplePOJO().setStringVal("patched");
+    var target = new SimplePOJO().setStringVal("old").setIntVal(1).setLongVal(2L);
+    beanCopier.copyInto(patch, target);
+    assertEquals("patched", target.getStringVal());
+    assertEquals(1, target.getIntVal());
+    assertEquals(2L, target.getLongVal());
+  }
+
+  @Test
+  public void testCopyIntoRecord() {
+    var target = BeanCopier.copy(new SimplePOJO(), SimpleRecord.class);
+    var e = assertThrows(CopyException.class, () -> BeanCopier.copyInto(new SimplePOJO(), target));
+    assertInstanceOf(UnsupportedOperationException.class, e.getCause());
+  }
+
+}
@@ -0,0 +1,72 @@
+package io.github.tanyaofei.beancopier.test.simple;
+
+import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.exception.ConverterGenerateException;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.io.IOException;
+
+/**
+ * 所有参数构造器的参数名来源
+ *
+ * @author tanyaofei
+ */
+public class ParameterNamesTest extends BeanCopierTest {
+
+  @Test
+  public void testParametersFlag() throws Exception {
+    // 相当于使用 -parameters -g:none 编译, 并且 class 文件不可读
+    var c = compile("WithParameters", true);
+    var target = BeanCopier.copy(new AllArgsConstructorPOJO("a", 1, "c"), c);
+    assertEquals("a", c.getMethod("getA").invoke(target));
+    assertEquals(1, c.getMethod("getB").invoke(target));
+    assertEquals("c", c.getMethod("getC").invoke(target));
+  }
+
+  @Test
+  public void testNoParameterNames() throws Exception {
+    // 相当于使用 -g:none 编译, 无法得知参数名, 也就无法使用所有参数构造器
+    var c = compile("WithoutParameters", false);
+    assertThrows(ConverterGenerateException.class, () -> BeanCopier.copy(new AllArgsConstructorPOJO("a", 1, "c"), c));
+  }
+
+  private static Class<?> compile(String suffix, boolean parameters) throws IOException {
+    var cr = new ClassReader(AllArgsConstructorPOJO.class.getName());
+    var cw = new ClassWriter(0);
+    var name = Type.getInternalName(AllArgsConstructorPOJO.class);
+    ClassVisitor cv = new ClassVisitor(Opcodes.ASM9, cw) {
+      @Override
+      public MethodVisitor visitMethod(int access, String methodName, String descriptor, String signature, String[] exceptions) {
+        var mv = super.visitMethod(access, methodName, descriptor, signature, exceptions);
+        if (parameters && methodName.equals("<init>")) {
+          for (var parameterName : new String[]{"a", "b", "c"}) {
+            mv.visitParameter(parameterName, 0);
+          }
+        }
+        return mv;
+      }
+    };
+    cr.accept(new ClassRemapper(cv, new SimpleRemapper(name, name + suffix)), ClassReader.SKIP_DEBUG);
+    return new XClassLoader().defineClass(cw.toByteArray());
+  }
+
+  private static class XClassLoader extends ClassLoader {
+    private XClassLoader() {
+      super(ParameterNamesTest.class.getClassLoader());
+    }
+
+    public Class<?> defineClass(byte[] code) {
+      return super.defineClass(null, code, 0, code.length);
+    }
+  }
+
+}
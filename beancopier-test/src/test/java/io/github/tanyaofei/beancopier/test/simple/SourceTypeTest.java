@@ -0,0 +1,115 @@
+package io.github.tanyaofei.beancopier.test.simple;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.SourceTypeResolver;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.exception.CopyException;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author tanyaofei
+ */
+public class SourceTypeTest extends BeanCopierTest {
+
+  @Test
+  public void testProxyIsCopiedAsSuperclass() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl();
+    var a = beanCopier.copy(new SimplePOJO$$ProxyA().setStringVal("a"), SimpleRecord.class);
+    var b = beanCopier.copy(new SimplePOJO$$ProxyB().setStringVal("b"), SimpleRecord.class);
+    assertEquals("a", a.stringVal());
+    assertEquals("b", b.stringVal());
+    assertEquals(1, getCaches(beanCopier).size());
+
+    var cloned = beanCopier.clone(new SimplePOJO$$ProxyA().setIntVal(1));
+    assertSame(SimplePOJO.class, cloned.getClass());
+    assertEquals(1, cloned.getIntVal());
+  }
+
+  @Test
+  public void testIdentityResolver() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.sourceTypeResolver(SourceTypeResolver.identity()));
+    beanCopier.copy(new SimplePOJO$$ProxyA(), SimpleRecord.class);
+    beanCopier.copy(new SimplePOJO$$ProxyB(), SimpleRecord.class);
+    assertEquals(2, getCaches(beanCopier).size());
+  }
+
+  @Test
+  public void testDeclaredSourceType() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl(config -> config.sourceTypeResolver(SourceTypeResolver.identity()));
+    var source = new ExtendedPOJO().setExtra("extra");
+    source.setStringVal("string");
+
+    var target = beanCopier.copyAs(source, SimplePOJO.class, ExtendedPOJO.class);
+    assertEquals("string", target.getStringVal());
+    assertNull(target.getExtra());
+    assertNull(beanCopier.copyAs(null, SimplePOJO.class, ExtendedPOJO.class));
+
+    var targets = beanCopier.copyListAs(
+        Arrays.asList(source, null, new SimplePOJO$$ProxyA().setStringVal("a")),
+        SimplePOJO.class,
+        SimpleRecord.class
+    );
+    assertEquals(3, targets.size());
+    assertEquals("string", targets.get(0).stringVal());
+    assertNull(targets.get(1));
+    assertEquals("a", targets.get(2).stringVal());
+    assertEquals(2, getCaches(beanCopier).size());
+
+    // a null consumer is not ambiguous with the declared source class
+    assertEquals("string", beanCopier.copy(source, SimplePOJO.class, null).getStringVal());
+  }
+
+  @Test
+  public void testDeclaredSourceTypeFailures() {
+    var beanCopier = new BeanCopierImpl();
+    var failing = new FailingPOJO();
+    var e = assertThrows(CopyException.class, () -> beanCopier.copyAs(failing, SimplePOJO.class, SimpleRecord.class));
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+    e = assertThrows(CopyException.class, () -> beanCopier.copyListAs(List.of(failing), SimplePOJO.class, SimpleRecord.class));
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<Converter<?, ?>> getCaches(BeanCopierImpl copier) throws ReflectiveOperationException {
+    Field cacheField = copier.getClass().getDeclaredField("cache");
+    cacheField.setAccessible(true);
+    Object cache = cacheField.get(copier);
+    Method values = cache.getClass().getDeclaredMethod("values");
+    values.setAccessible(true);
+    return (Collection<Converter<?, ?>>) values.invoke(cache);
+  }
+
+  /**
+   * Named like a class generated by CGLIB
+   */
+  public static class SimplePOJO$$ProxyA extends SimplePOJO {
+  }
+
+  public static class SimplePOJO$$ProxyB extends SimplePOJO {
+  }
+
+  public static class FailingPOJO extends SimplePOJO {
+    @Override
+    public String getStringVal() {
+      throw new IllegalStateException();
+    }
+  }
+
+  @Data
+  @Accessors(chain = true)
+  @EqualsAndHashCode(callSuper = true)
+  public static class ExtendedPOJO extends SimplePOJO {
+    private String extra;
+  }
+
+}
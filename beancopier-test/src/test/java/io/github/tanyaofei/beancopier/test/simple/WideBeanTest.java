@@ -0,0 +1,199 @@
+package io.github.tanyaofei.beancopier.test.simple;
+
+import io.github.tanyaofei.beancopier.BeanCopier;
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.core.ConverterFactory;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.util.WideObject;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Arrays;
+
+/**
+ * @author tanyaofei
+ */
+public class WideBeanTest extends BeanCopierTest {
+
+  @Test
+  public void testWideObject() {
+    var source = new WideObject().setF0("0").setF1(1).setF2(2L).setF3(3).setF4(4D).setF195("195").setF199(199D);
+    assertEquals(source, BeanCopier.clone(source));
+    assertEquals(source, BeanCopier.copyInto(source, new WideObject()));
+
+    var merged = new BeanCopierImpl(config -> config.skipNull(true)).copyInto(new WideObject().setF0("new"), new WideObject().setF195("old"));
+    assertEquals("new", merged.getF0());
+    assertEquals("old", merged.getF195());
+
+    // the copies are split into private methods which are called by convert
+    var node = generate(WideObject.class, WideObject.class);
+    assertTrue(methods(node, "copy$") > 1);
+    assertTrue(instructions(convert(node)) < 100);
+  }
+
+  @Test
+  public void testWideRecord() {
+    var source = new WideObject().setF0("0").setF1(1).setF2(2L).setF3(3).setF4(4D).setF39(39D);
+    var target = BeanCopier.copy(source, WideRecord.class);
+    assertEquals("0", target.f0());
+    assertEquals(1, target.f1());
+    assertEquals(2L, target.f2());
+    assertEquals(3, target.f3());
+    assertEquals(4D, target.f4());
+    assertEquals(39D, target.f39());
+    assertNull(target.f5());
+
+    var node = generate(WideObject.class, WideRecord.class);
+    assertEquals(40, methods(node, "value$"));
+  }
+
+  @Test
+  public void testSplitThreshold() {
+    // the copies of a target with 32 properties are split, the ones of a target with 31 properties are not
+    assertEquals(32, methods(generate(WideObject.class, Record32.class), "value$"));
+    assertEquals(0, methods(generate(WideObject.class, Record31.class), "value$"));
+    assertEquals(0, methods(generate(WideObject.class, Record31.class), "copy$"));
+  }
+
+  private static ClassNode generate(Class<?> sourceType, Class<?> targetType) {
+    var code = new ConverterFactory(config -> {}).generateCode(sourceType, targetType, "WideBeanTestConverter");
+    var node = new ClassNode();
+    new ClassReader(code).accept(node, 0);
+    return node;
+  }
+
+  private static long methods(ClassNode node, String prefix) {
+    return node.methods.stream().filter(m -> m.name.startsWith(prefix)).count();
+  }
+
+  private static MethodNode convert(ClassNode node) {
+    return node.methods
+        .stream()
+        .filter(m -> m.name.equals("convert") && (m.access & Opcodes.ACC_BRIDGE) == 0)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static long instructions(MethodNode method) {
+    return Arrays.stream(method.instructions.toArray()).filter(insn -> insn.getOpcode() >= 0).count();
+  }
+
+  public record WideRecord(
+      String f0,
+      int f1,
+      long f2,
+      Integer f3,
+      double f4,
+      String f5,
+      int f6,
+      long f7,
+      Integer f8,
+      double f9,
+      String f10,
+      int f11,
+      long f12,
+      Integer f13,
+      double f14,
+      String f15,
+      int f16,
+      long f17,
+      Integer f18,
+      double f19,
+      String f20,
+      int f21,
+      long f22,
+      Integer f23,
+      double f24,
+      String f25,
+      int f26,
+      long f27,
+      Integer f28,
+      double f29,
+      String f30,
+      int f31,
+      long f32,
+      Integer f33,
+      double f34,
+      String f35,
+      int f36,
+      long f37,
+      Integer f38,
+      double f39
+  ) {
+  }
+
+  public record Record32(
+      String f0,
+      int f1,
+      long f2,
+      Integer f3,
+      double f4,
+      String f5,
+      int f6,
+      long f7,
+      Integer f8,
+      double f9,
+      String f10,
+      int f11,
+      long f12,
+      Integer f13,
+      double f14,
+      String f15,
+      int f16,
+      long f17,
+      Integer f18,
+      double f19,
+      String f20,
+      int f21,
+      long f22,
+      Integer f23,
+      double f24,
+      String f25,
+      int f26,
+      long f27,
+      Integer f28,
+      double f29,
+      String f30,
+      int f31
+  ) {
+  }
+
+  public record Record31(
+      String f0,
+      int f1,
+      long f2,
+      Integer f3,
+      double f4,
+      String f5,
+      int f6,
+      long f7,
+      Integer f8,
+      double f9,
+      String f10,
+      int f11,
+      long f12,
+      Integer f13,
+      double f14,
+      String f15,
+      int f16,
+      long f17,
+      Integer f18,
+      double f19,
+      String f20,
+      int f21,
+      long f22,
+      Integer f23,
+      double f24,
+      String f25,
+      int f26,
+      long f27,
+      Integer f28,
+      double f29,
+      String f30
+  ) {
+  }
+
+}
@@ -0,0 +1,28 @@
+package io.github.tanyaofei.beancopier.test.util;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Data
+@Accessors(chain = true)
+public class GenericTemplateObject {
+  private List<String> a;
+  private List<Integer> b;
+  private Set<String> c;
+  private Collection<Long> d;
+  private Map<String, String> e;
+  private Map<String, List<String>> f;
+  private Optional<String> g;
+  private Supplier<String> h;
+  private List<Map<String, Integer>> i;
+  private Map<Integer, Set<String>> j;
+  private List<? extends Number> k;
+  private Map<String, ? super Integer> l;
+}
@@ -0,0 +1,209 @@
+package io.github.tanyaofei.beancopier.test.util;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class WideObject {
+  private String f0;
+  private int f1;
+  private long f2;
+  private Integer f3;
+  private double f4;
+  private String f5;
+  private int f6;
+  private long f7;
+  private Integer f8;
+  private double f9;
+  private String f10;
+  private int f11;
+  private long f12;
+  private Integer f13;
+  private double f14;
+  private String f15;
+  private int f16;
+  private long f17;
+  private Integer f18;
+  private double f19;
+  private String f20;
+  private int f21;
+  private long f22;
+  private Integer f23;
+  private double f24;
+  private String f25;
+  private int f26;
+  private long f27;
+  private Integer f28;
+  private double f29;
+  private String f30;
+  private int f31;
+  private long f32;
+  private Integer f33;
+  private double f34;
+  private String f35;
+  private int f36;
+  private long f37;
+  private Integer f38;
+  private double f39;
+  private String f40;
+  private int f41;
+  private long f42;
+  private Integer f43;
+  private double f44;
+  private String f45;
+  private int f46;
+  private long f47;
+  private Integer f48;
+  private double f49;
+  private String f50;
+  private int f51;
+  private long f52;
+  private Integer f53;
+  private double f54;
+  private String f55;
+  private int f56;
+  private long f57;
+  private Integer f58;
+  private double f59;
+  private String f60;
+  private int f61;
+  private long f62;
+  private Integer f63;
+  private double f64;
+  private String f65;
+  private int f66;
+  private long f67;
+  private Integer f68;
+  private double f69;
+  private String f70;
+  private int f71;
+  private long f72;
+  private Integer f73;
+  private double f74;
+  private String f75;
+  private int f76;
+  private long f77;
+  private Integer f78;
+  private double f79;
+  private String f80;
+  private int f81;
+  private long f82;
+  private Integer f83;
+  private double f84;
+  private String f85;
+  private int f86;
+  private long f87;
+  private Integer f88;
+  private double f89;
+  private String f90;
+  private int f91;
+  private long f92;
+  private Integer f93;
+  private double f94;
+  private String f95;
+  private int f96;
+  private long f97;
+  private Integer f98;
+  private double f99;
+  private String f100;
+  private int f101;
+  private long f102;
+  private Integer f103;
+  private double f104;
+  private String f105;
+  private int f106;
+  private long f107;
+  private Integer f108;
+  private double f109;
+  private String f110;
+  private int f111;
+  private long f112;
+  private Integer f113;
+  private double f114;
+  private String f115;
+  private int f116;
+  private long f117;
+  private Integer f118;
+  private double f119;
+  private String f120;
+  private int f121;
+  private long f122;
+  private Integer f123;
+  private double f124;
+  private String f125;
+  private int f126;
+  private long f127;
+  private Integer f128;
+  private double f129;
+  private String f130;
+  private int f131;
+  private long f132;
+  private Integer f133;
+  private double f134;
+  private String f135;
+  private int f136;
+  private long f137;
+  private Integer f138;
+  private double f139;
+  private String f140;
+  private int f141;
+  private long f142;
+  private Integer f143;
+  private double f144;
+  private String f145;
+  private int f146;
+  private long f147;
+  private Integer f148;
+  private double f149;
+  private String f150;
+  private int f151;
+  private long f152;
+  private Integer f153;
+  private double f154;
+  private String f155;
+  private int f156;
+  private long f157;
+  private Integer f158;
+  private double f159;
+  private String f160;
+  private int f161;
+  private long f162;
+  private Integer f163;
+  private double f164;
+  private String f165;
+  private int f166;
+  private long f167;
+  private Integer f168;
+  private double f169;
+  private String f170;
+  private int f171;
+  private long f172;
+  private Integer f173;
+  private double f174;
+  private String f175;
+  private int f176;
+  private long f177;
+  private Integer f178;
+  private double f179;
+  private String f180;
+  private int f181;
+  private long f182;
+  private Integer f183;
+  private double f184;
+  private String f185;
+  private int f186;
+  private long f187;
+  private Integer f188;
+  private double f189;
+  private String f190;
+  private int f191;
+  private long f192;
+  private Integer f193;
+  private double f194;
+  private String f195;
+  private int f196;
+  private long f197;
+  private Integer f198;
+  private double f199;
+}
@@ -0,0 +1,71 @@
+package io.github.tanyaofei.beancopier.test.warmup;
+
+import io.github.tanyaofei.beancopier.BeanCopierImpl;
+import io.github.tanyaofei.beancopier.ClassPair;
+import io.github.tanyaofei.beancopier.test.BeanCopierTest;
+import io.github.tanyaofei.beancopier.test.nested.NestedPOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimplePOJO;
+import io.github.tanyaofei.beancopier.test.simple.SimpleRecord;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * @author tanyaofei
+ */
+public class WarmupTest extends BeanCopierTest {
+
+  @Test
+  public void testWarmup() throws ReflectiveOperationException {
+    var beanCopier = new BeanCopierImpl();
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var warmup = beanCopier.warmup(List.of(
+          ClassPair.of(SimplePOJO.class, SimpleRecord.class),
+          ClassPair.of(NestedPOJO.class, NestedPOJO.class),
+          ClassPair.of(NestedPOJO.class, NestedPOJO.class),
+          ClassPair.of(SimplePOJO.class, Hidden.class)
+      ), executor).join();
+
+      assertTrue(warmup.isDone());
+      assertFalse(warmup.isSuccessful());
+      assertEquals(2, warmup.getTimings().size());
+      assertTrue(warmup.getTimings().containsKey(ClassPair.of(SimplePOJO.class, SimpleRecord.class)));
+      assertTrue(warmup.getTimings().containsKey(ClassPair.of(NestedPOJO.class, NestedPOJO.class)));
+      assertEquals(1, warmup.getFailures().size());
+      assertTrue(warmup.getFailures().containsKey(ClassPair.of(SimplePOJO.class, Hidden.class)));
+      assertEquals(2, cacheSize(beanCopier));
+
+      // nested properties are copied by the warmed converter, nothing is generated lazily
+      beanCopier.clone(new NestedPOJO().setChild(new NestedPOJO()).setChildren(List.of(new NestedPOJO())));
+      beanCopier.copy(new SimplePOJO(), SimpleRecord.class);
+      assertEquals(2, cacheSize(beanCopier));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    var warmup = new BeanCopierImpl().warmup(List.of()).join();
+    assertTrue(warmup.isSuccessful());
+    assertTrue(warmup.getTimings().isEmpty());
+  }
+
+  private static int cacheSize(BeanCopierImpl beanCopier) throws ReflectiveOperationException {
+    var field = BeanCopierImpl.class.getDeclaredField("cache");
+    field.setAccessible(true);
+    var cache = field.get(beanCopier);
+    var size = cache.getClass().getDeclaredMethod("size");
+    size.setAccessible(true);
+    return (int) size.invoke(cache);
+  }
+
+  @Data
+  static class Hidden {
+    private String string;
+  }
+
+}
@@ -1,6 +1,7 @@
 package io.github.tanyaofei.beancopier;
 
 import io.github.tanyaofei.beancopier.annotation.Property;
+import io.github.tanyaofei.beancopier.converter.Converter;
 import io.github.tanyaofei.beancopier.core.ConverterFactory;
 import io.github.tanyaofei.beancopier.core.DefaultClassLoader;
 import io.github.tanyaofei.beancopier.exception.ConverterGenerateException;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 
 /**
@@ -41,6 +43,46 @@ public final class BeanCopier {
   private final static BeanCopierImpl theCopier = BeanCopierImpl.getInstance();
 
 
+  /**
+   * Generate and cache the converters of the specified pairs in parallel on the common pool.
+   *
+   * @param pairs the pairs to warm up
+   * @return a handle of this warmup
+   * @see BeanCopierImpl#warmup(Collection, Executor)
+   * @since 0.2.0
+   */
+  public static Warmup warmup(Collection<ClassPair> pairs) {
+    return theCopier.warmup(pairs);
+  }
+
+  /**
+   * Generate and cache the converters of the specified pairs in parallel on the specified executor.
+   *
+   * @param pairs    the pairs to warm up
+   * @param executor the executor to generate converters
+   * @return a handle of this warmup
+   * @see BeanCopierImpl#warmup(Collection, Executor)
+   * @since 0.2.0
+   */
+  public static Warmup warmup(Collection<ClassPair> pairs, Executor executor) {
+    return theCopier.warmup(pairs, executor);
+  }
+
+  /**
+   * Return a resolved converter that copies the instances of the source class to the target class.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a converter
+   * @see BeanCopierImpl#converterFor(Class, Class)
+   * @since 0.2.0
+   */
+  public static <S, T> Converter<S, T> converterFor(Class<S> sourceType, Class<T> targetType) {
+    return theCopier.converterFor(sourceType, targetType);
+  }
+
   /**
    * Initialize a target object and copy the fields from the source object to it.
    *
@@ -76,6 +118,53 @@ public final class BeanCopier {
     return theCopier.copy(source, target, consumer);
   }
 
+  /**
+   * Initialize a target object and copy the fields declared by the source class from the source object to it.
+   *
+   * @param source     source object
+   * @param sourceType the declared class of source
+   * @param targetType target class
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a target object
+   * @see BeanCopierImpl#copyAs(Object, Class, Class)
+   * @since 0.2.0
+   */
+  public static <S, T> T copyAs(S source, Class<S> sourceType, Class<T> targetType) {
+    return theCopier.copyAs(source, sourceType, targetType);
+  }
+
+  /**
+   * Copy the fields from the source object into an existing target object.
+   *
+   * @param source source object
+   * @param target target object
+   * @param <S>    the type of source
+   * @param <T>    the type of target
+   * @return the target object
+   * @see BeanCopierImpl#copyInto(Object, Object)
+   * @since 0.2.0
+   */
+  public static <S, T> T copyInto(S source, T target) {
+    return theCopier.copyInto(source, target);
+  }
+
+  /**
+   * Copy the fields from the source object into an existing target object, and then apply the consumer to them.
+   *
+   * @param source   source object
+   * @param target   target object
+   * @param consumer the consumer to apply after copying
+   * @param <S>      the type of source
+   * @param <T>      the type of target
+   * @return the target object
+   * @see BeanCopierImpl#copyInto(Object, Object, BiConsumer)
+   * @since 0.2.0
+   */
+  public static <S, T> T copyInto(S source, T target, BiConsumer<S, T> consumer) {
+    return theCopier.copyInto(source, target, consumer);
+  }
+
   /**
    * Clone an object.
    * <p>{@link Property#value()} will not take effect.</p>
@@ -144,5 +233,21 @@ public final class BeanCopier {
     return theCopier.copyList(source, target, consumer);
   }
 
+  /**
+   * Copy objects as the declared source class.
+   *
+   * @param sources    source objects
+   * @param sourceType the declared class of source
+   * @param targetType target class
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return The instances of target, the return values has the same size as sources.
+   * @see BeanCopierImpl#copyListAs(Collection, Class, Class)
+   * @since 0.2.0
+   */
+  public static <S, T> List<T> copyListAs(Collection<? extends S> sources, Class<S> sourceType, Class<T> targetType) {
+    return theCopier.copyListAs(sources, sourceType, targetType);
+  }
+
 
 }
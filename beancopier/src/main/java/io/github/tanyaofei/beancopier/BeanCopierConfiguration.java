@@ -16,6 +16,13 @@ public abstract class BeanCopierConfiguration {
    */
   public static String CONVERTER_CLASS_DUMP_PATH = System.getProperty(PropertyNames.CONVERTER_CLASS_DUMP_PATH, "");
 
+  /**
+   * The directory to keep the generated converter classes across JVM restarts, empty means disabled.
+   *
+   * @since 0.2.0
+   */
+  public static String CONVERTER_PERSISTENT_CACHE_PATH = System.getProperty(PropertyNames.CONVERTER_PERSISTENT_CACHE_PATH, "");
+
   /**
    * <b>beancopier</b> configuration names.
    *
@@ -23,6 +30,8 @@ public abstract class BeanCopierConfiguration {
    */
   public interface PropertyNames {
     String CONVERTER_CLASS_DUMP_PATH = "io.github.tanyaofei.beancopier.converterClassDumpPath";
+
+    String CONVERTER_PERSISTENT_CACHE_PATH = "io.github.tanyaofei.beancopier.converterPersistentCachePath";
   }
 
 
@@ -8,12 +8,17 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -30,18 +35,60 @@ public final class BeanCopierImpl {
    */
   private static final int DEFAULT_CACHE_CAPACITY = 64;
 
+  /**
+   * The number of classloader segments that the converter classes of a bounded cache are spread over.
+   *
+   * @see ClassLoaderSegments
+   */
+  private static final int SEGMENTS_PER_CACHE = 8;
+
+  private static final Duration MAX_NANOS = Duration.ofNanos(Long.MAX_VALUE);
+
   /**
    * The converter generated for the source and target classes of the copy will be cached.
    * When the same source class is copied to the same target class in the future,
    * the converter bytecode does not need to be regenerated, but can be retrieved from this cache.
    */
-  private final ConcurrentMap<CacheKey, ? super Converter<?, ?>> cache;
+  private final ConverterRegistry cache;
 
   /**
    * Converter Factory
    */
   private final ConverterFactory converterFactory;
 
+  /**
+   * The classloader segments for defining converter classes if the cache is bounded, otherwise null
+   */
+  @Nullable
+  private final ClassLoaderSegments segments;
+
+  /**
+   * The limits of generating converter classes, null if unlimited
+   */
+  @Nullable
+  private final GenerationBreaker breaker;
+
+  /**
+   * Resolves the class that a source object is copied as if it is not declared, null if it is {@link SourceTypeResolver#identity()}
+   */
+  @Nullable
+  private final SourceTypeResolver sourceTypeResolver;
+
+  /**
+   * The number of invocations before a converter is compiled, 0 or less means the tiered mode is disabled
+   */
+  private final int compileThreshold;
+
+  /**
+   * The executor to compile the tiered converters in background
+   */
+  private final Executor compileExecutor;
+
+  /**
+   * The number of tiered converters that failed to be compiled
+   */
+  private final LongAdder compileFailures = new LongAdder();
+
 
   /**
    * Create a BeanCopierImpl with the default configurations.
@@ -72,8 +119,28 @@ public final class BeanCopierImpl {
    */
   @Contract(pure = true)
   private BeanCopierImpl(int cacheInitialCapacity, @NotNull ConverterFactory converterFactory) {
-    this.cache = new ConcurrentHashMap<>(cacheInitialCapacity);
+    int cacheMaximumSize = converterFactory.getConfiguration().getCacheMaximumSize();
+    this.cache = new ConverterRegistry(
+        cacheInitialCapacity,
+        cacheMaximumSize,
+        toNanos(converterFactory.getConfiguration().getFailureCacheTtl())
+    );
     this.converterFactory = converterFactory;
+    this.segments = cacheMaximumSize > 0
+                    ? new ClassLoaderSegments(cacheMaximumSize / SEGMENTS_PER_CACHE)
+                    : null;
+    var breaker = new GenerationBreaker(
+        converterFactory.getConfiguration().getGenerationLimit(),
+        converterFactory.getConfiguration().getGenerationRateLimit()
+    );
+    this.breaker = breaker.isUnlimited() ? null : breaker;
+    var sourceTypeResolver = converterFactory.getConfiguration().getSourceTypeResolver();
+    this.sourceTypeResolver = sourceTypeResolver instanceof SourceTypeResolver.Identity ? null : sourceTypeResolver;
+    this.compileThreshold = converterFactory.getConfiguration().getCompileThreshold();
+    this.compileExecutor = converterFactory.getConfiguration().getCompileExecutor();
+    if (converterFactory.getConfiguration().isCrossTypeNested()) {
+      converterFactory.setNestedConverterResolver(this::nestedConverter);
+    }
   }
 
   /**
@@ -120,12 +187,170 @@ public final class BeanCopierImpl {
   }
 
 
+  /**
+   * Return a resolved converter that copies the instances of the source class to the target class.
+   * <p>
+   * Unlike {@link #copy(Object, Class)}, calling the returned converter costs no lookup at all.
+   * It is recommended to store it in a {@code static final} field and call it directly, so that the JIT compiler can inline it into callers:
+   * </p>
+   * <pre>{@code
+   * private static final Converter<Source, Target> SOURCE_TO_TARGET = BeanCopier.converterFor(Source.class, Target.class);
+   *
+   * Target target = SOURCE_TO_TARGET.convert(source);
+   * List<Target> targets = SOURCE_TO_TARGET.convertList(sources);
+   * List<Target> targets = sources.stream().map(SOURCE_TO_TARGET.asFunction()).toList();
+   * }</pre>
+   * <p>
+   * The returned converter copies the properties declared by the source class, the instances of its subclasses are copied as the source class.
+   * It stays valid even if it was evicted from the cache of this instance.
+   * </p>
+   * <p>
+   * In the {@link ConverterConfiguration#getCompileThreshold() tiered mode}, the interpreting converter is returned until the pair is compiled,
+   * call this method again after that to get the generated converter, which is not wrapped.
+   * </p>
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a converter
+   * @since 0.2.0
+   */
+  @NotNull
+  public <S, T> Converter<S, T> converterFor(@NotNull Class<S> sourceType, @NotNull Class<T> targetType) {
+    var converter = generateConverter(sourceType, targetType);
+    if (converter instanceof TieredConverter<S, T> tiered) {
+      // compiled but not replaced in the cache yet
+      var compiled = tiered.getCompiled();
+      return compiled != null ? compiled : tiered;
+    }
+    return converter;
+  }
+
+  /**
+   * Generate and cache the converters of the specified pairs in parallel on the common pool.
+   *
+   * @param pairs the pairs to warm up
+   * @return a handle of this warmup
+   * @see #warmup(Collection, Executor)
+   * @since 0.2.0
+   */
+  @NotNull
+  public Warmup warmup(@NotNull Collection<ClassPair> pairs) {
+    return warmup(pairs, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generate and cache the converters of the specified pairs in parallel on the specified executor,
+   * so that the first copies of these pairs do not generate converters on the calling threads.
+   * <p>
+   * A pair that can not be copied does not fail the warmup, it is reported by {@link Warmup#getFailures()} instead.
+   * The nested properties of a pair are copied by the converter of that pair itself, so a warmed up pair never generates code lazily.
+   * </p>
+   *
+   * @param pairs    the pairs to warm up
+   * @param executor the executor to generate converters
+   * @return a handle of this warmup
+   * @since 0.2.0
+   */
+  @NotNull
+  public Warmup warmup(@NotNull Collection<ClassPair> pairs, @NotNull Executor executor) {
+    var warmup = new Warmup();
+    var tasks = new ArrayList<CompletableFuture<Void>>(pairs.size());
+    for (var pair : new LinkedHashSet<>(pairs)) {
+      tasks.add(CompletableFuture.runAsync(() -> {
+        long start = System.nanoTime();
+        try {
+          var converter = generateConverter(pair.sourceType(), pair.targetType());
+          if (converter instanceof TieredConverter<?, ?> tiered) {
+            tiered.compileNow();
+          }
+          warmup.succeed(pair, System.nanoTime() - start);
+        } catch (Throwable e) {
+          warmup.fail(pair, e);
+        }
+      }, executor));
+    }
+
+    CompletableFuture
+        .allOf(tasks.toArray(CompletableFuture[]::new))
+        .whenComplete((v, e) -> warmup.complete());
+    return warmup;
+  }
+
+  /**
+   * Return the number of calls that failed immediately because the converter of their classes had failed to be generated before.
+   *
+   * @return the number of fast failures since this instance was created
+   * @see ConverterConfiguration#getFailureCacheTtl()
+   * @since 0.2.0
+   */
+  public long getFastFailureCount() {
+    return cache.fastFailureCount();
+  }
+
+  /**
+   * Return the number of tiered converters whose classes failed to be generated, they keep interpreting and are not compiled again.
+   *
+   * @return the number of compile failures since this instance was created
+   * @see ConverterConfiguration#getCompileThreshold()
+   * @since 0.2.0
+   */
+  public long getCompileFailureCount() {
+    return compileFailures.sum();
+  }
+
+  /**
+   * Return the pairs that were copied without generating converters because {@link ConverterConfiguration#getGenerationLimit()}
+   * or {@link ConverterConfiguration#getGenerationRateLimit()} was exceeded.
+   * <p>
+   * At most the first 1024 pairs are returned. A lot of pairs sharing a source or target class usually indicates
+   * that the classes are generated at runtime, e.g. the proxies of an ORM framework.
+   * The pairs are kept by names in the form of {@link ClassPair#toString()}, so the classes can still be unloaded.
+   * </p>
+   *
+   * @return the names of pairs that tripped the generation limits, such as {@code com.example.Source -> com.example.Target}
+   * @since 0.2.0
+   */
+  @NotNull
+  public Set<String> getTrippedPairs() {
+    return breaker == null ? Set.of() : breaker.getTrippedPairs();
+  }
+
   @Contract(value = "null, _ -> null")
   public <S, T> T copy(@Nullable S source, @NotNull Class<T> target) {
     return copy(source, target, null);
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Copy the source object as the declared source class, the properties of its subclasses are not copied.
+   * <p>
+   * The objects of different subclasses share the converter of the declared class,
+   * unlike {@link #copy(Object, Class)} which resolves the source class from the object.
+   * </p>
+   *
+   * @param source     the source object
+   * @param sourceType the declared class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a target object, or null if source is null
+   * @since 0.2.0
+   */
+  @Contract(value = "null, _, _ -> null")
+  public <S, T> T copyAs(@Nullable S source, @NotNull Class<S> sourceType, @NotNull Class<T> targetType) {
+    if (source == null) {
+      return null;
+    }
+
+    var converter = generateConverter(sourceType, targetType);
+    try {
+      return converter.convert(source);
+    } catch (Exception e) {
+      throw new CopyException("Failed to copy bean with the following converter: " + converter.getClass().getName(), e);
+    }
+  }
+
   @Contract(value = "null, _, _ -> null")
   public <S, T> T copy(
       @Nullable S source,
@@ -136,8 +361,8 @@ public final class BeanCopierImpl {
       return null;
     }
 
-    var sc = (Class<S>) source.getClass();
-    var converter = generateConverter(new CacheKey(sc, target), sc, target);
+    Class<S> sc = sourceType(source);
+    var converter = generateConverter(sc, target);
 
     // init a t, and copy fields from source
     T t;
@@ -153,13 +378,67 @@ public final class BeanCopierImpl {
     return t;
   }
 
+  /**
+   * Copy the source object into an existing target object instead of creating a new one.
+   * <p>
+   * Reusing the target saves the allocation of {@link #copy(Object, Class)}.
+   * If {@link ConverterConfiguration#isSkipNull()} is enabled the null properties of source are not copied,
+   * so that the properties of target are merged by the non-null ones of source.
+   * </p>
+   *
+   * @param source the source object
+   * @param target the target object, must be instantiated by a no-args-constructor
+   * @param <S>    the type of source
+   * @param <T>    the type of target
+   * @return the target object
+   * @throws CopyException if the target class can not be modified, e.g. a {@link Record}
+   * @see Converter#convertInto(Object, Object)
+   * @since 0.2.0
+   */
+  @NotNull
+  public <S, T> T copyInto(@Nullable S source, @NotNull T target) {
+    return copyInto(source, target, null);
+  }
+
+  /**
+   * Copy the source object into an existing target object instead of creating a new one,
+   * and then apply the consumer to them.
+   *
+   * @param source   the source object
+   * @param target   the target object, must be instantiated by a no-args-constructor
+   * @param consumer the consumer to apply after copying, not called if source is null
+   * @param <S>      the type of source
+   * @param <T>      the type of target
+   * @return the target object
+   * @throws CopyException if the target class can not be modified, e.g. a {@link Record}
+   * @see #copyInto(Object, Object)
+   * @since 0.2.0
+   */
+  @NotNull
   @SuppressWarnings("unchecked")
+  public <S, T> T copyInto(@Nullable S source, @NotNull T target, @Nullable BiConsumer<S, T> consumer) {
+    if (source == null) {
+      return target;
+    }
+
+    var converter = generateConverter(sourceType(source), (Class<T>) target.getClass());
+    try {
+      converter.convertInto(source, target);
+      if (consumer != null) {
+        consumer.accept(source, target);
+      }
+    } catch (Exception e) {
+      throw new CopyException("Failed to copy bean with the following converter: " + converter.getClass().getName(), e);
+    }
+    return target;
+  }
+
   @Contract(value = "null -> null")
   public <T> T clone(@Nullable T source) {
     if (source == null) {
       return null;
     }
-    return copy(source, (Class<T>) source.getClass(), null);
+    return copy(source, sourceType(source), null);
   }
 
 
@@ -168,7 +447,6 @@ public final class BeanCopierImpl {
     return cloneList(sources, null);
   }
 
-  @SuppressWarnings("unchecked")
   public <T> List<T> cloneList(
       @NotNull Collection<@Nullable T> objs,
       @Nullable BiConsumer<T, T> consumer
@@ -191,7 +469,7 @@ public final class BeanCopierImpl {
         }
 
         itr.previous();
-        Class<T> c = (Class<T>) t.getClass();
+        Class<T> c = sourceType(t);
         assert remains + ret.size() == objs.size();
         ret.addAll(copyList(itr, c, consumer, remains));
       }
@@ -205,7 +483,7 @@ public final class BeanCopierImpl {
           continue;
         }
 
-        var c = (Class<T>) t.getClass();
+        Class<T> c = sourceType(t);
         ret.add(copy(t, c, consumer));
         assert remains - 1 + ret.size() == objs.size();
         ret.addAll(copyList(itr, c, consumer, remains - 1));
@@ -233,30 +511,207 @@ public final class BeanCopierImpl {
     return copyList(source.iterator(), target, consumer, source.size());
   }
 
+  /**
+   * Copy the source objects as the declared source class, the properties of their subclasses are not copied.
+   * <p>
+   * All the objects are copied by the converter of the declared class no matter what their classes are.
+   * </p>
+   *
+   * @param sources    the source objects
+   * @param sourceType the declared class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return the target objects, has the same size and order as sources. The element will be null if the source element is null.
+   * @since 0.2.0
+   */
+  @NotNull
+  public <S, T> List<T> copyListAs(
+      @NotNull Collection<@Nullable ? extends S> sources,
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType
+  ) {
+    var converter = generateConverter(sourceType, targetType);
+    try {
+      return converter.convertList(sources);
+    } catch (Exception e) {
+      throw new CopyException("Failed to copy bean with the following converter: " + converter.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Return the class that the specified source object is copied as
+   *
+   * @param source the source object
+   * @param <S>    the type of source
+   * @return the class resolved by {@link ConverterConfiguration#getSourceTypeResolver()}
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  private <S> Class<S> sourceType(@NotNull S source) {
+    var sourceType = source.getClass();
+    return (Class<S>) (sourceTypeResolver == null ? sourceType : sourceTypeResolver.resolve(sourceType));
+  }
+
   /**
    * Return a converter that copies the source object to the target object. The converter should be created if there is no instance in cache.
    *
-   * @param cacheKey   the key for cache.
    * @param sourceType the class of source
    * @param targetType the class of target
    * @param <S>        the type of source
    * @param <T>        the type of target
    * @return a converter that copies the source object to the target object
    */
-  @SuppressWarnings("unchecked")
   private <S, T> Converter<S, T> generateConverter(
-      @NotNull CacheKey cacheKey,
       @NotNull Class<S> sourceType,
       @NotNull Class<T> targetType
   ) {
-    return (Converter<S, T>) cache.computeIfAbsent(
-        cacheKey,
-        key -> converterFactory.generateConverter(sourceType, targetType)
-    );
+    var converter = cache.get(sourceType, targetType);
+    if (converter != null) {
+      return converter;
+    }
+    return cache.computeIfAbsent(sourceType, targetType, () -> newConverter(sourceType, targetType));
+  }
+
+  /**
+   * Create a converter, the one generated ahead of time is preferred.
+   * <ul>
+   *   <li>In the tiered mode, an interpreter is created and it will be compiled once it has been called enough times</li>
+   *   <li>If the generation limit is exceeded, a converter based on method handles is created instead of generating a class</li>
+   *   <li>If the generation rate limit is exceeded, the converter based on method handles is used until the class is generated in the next second</li>
+   * </ul>
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a new converter
+   */
+  @NotNull
+  private <S, T> Converter<S, T> newConverter(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType
+  ) {
+    var converter = converterFactory.getPregeneratedConverter(sourceType, targetType);
+    if (converter != null) {
+      return converter;
+    }
+
+    if (compileThreshold > 0) {
+      return new TieredConverter<>(
+          converterFactory.createReflectiveConverter(sourceType, targetType),
+          compileThreshold,
+          compileExecutor,
+          tiered -> compile(tiered, sourceType, targetType)
+      );
+    }
+
+    var permit = breaker == null ? GenerationBreaker.Permit.GRANTED : breaker.tryAcquire(sourceType, targetType);
+    if (permit == GenerationBreaker.Permit.DENIED) {
+      return converterFactory.createReflectiveConverter(sourceType, targetType);
+    }
+    if (permit == GenerationBreaker.Permit.DEFERRED) {
+      // compiled by the first call after the window passes
+      var tiered = new TieredConverter<>(
+          converterFactory.createReflectiveConverter(sourceType, targetType),
+          1,
+          compileExecutor,
+          t -> compile(t, sourceType, targetType)
+      );
+      tiered.defer(GenerationBreaker.WINDOW_NANOS);
+      return tiered;
+    }
+
+    return generate(sourceType, targetType);
+  }
+
+  /**
+   * Return the converter to link into other converters for the nested properties of the specified classes.
+   * The registered one is reused, otherwise a new one is created and registered, so the converters that nest the same classes share one converter.
+   * It is called while other converters are being created, so it never waits for the ones being created by other threads, which may deadlock.
+   *
+   * @param sourceType the class of nested source
+   * @param targetType the class of nested target
+   * @param <S>        the type of nested source
+   * @param <T>        the type of nested target
+   * @return a converter
+   * @see ConverterFactory#setNestedConverterResolver(java.util.function.BiFunction)
+   * @see ConverterRegistry#computeIfAbsentWithoutWaiting(Class, Class, java.util.function.Supplier)
+   */
+  @NotNull
+  private <S, T> Converter<S, T> nestedConverter(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType
+  ) {
+    var converter = cache.get(sourceType, targetType);
+    if (converter != null) {
+      return converter;
+    }
+    return cache.computeIfAbsentWithoutWaiting(sourceType, targetType, () -> newConverter(sourceType, targetType));
+  }
+
+  /**
+   * The tiered converter keeps interpreting if the generation limit is exceeded or the generation failed, a failure is recorded and counted by {@link #getCompileFailureCount()}.
+   * If the generation rate limit is exceeded, it requests to compile again after the window passes.
+   *
+   * @param tiered     the tiered converter
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   */
+  private <S, T> void compile(
+      @NotNull TieredConverter<S, T> tiered,
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType
+  ) {
+    var permit = breaker == null ? GenerationBreaker.Permit.GRANTED : breaker.tryAcquire(sourceType, targetType);
+    if (permit == GenerationBreaker.Permit.DEFERRED) {
+      tiered.defer(GenerationBreaker.WINDOW_NANOS);
+      return;
+    }
+    if (permit == GenerationBreaker.Permit.DENIED) {
+      // the tiered converter never requests to compile again
+      return;
+    }
+
+    Converter<S, T> compiled;
+    try {
+      compiled = generate(sourceType, targetType);
+    } catch (RuntimeException | LinkageError e) {
+      // the tiered converter never requests to compile again
+      tiered.fail(e);
+      compileFailures.increment();
+      return;
+    }
+    tiered.promote(compiled);
+    cache.replace(sourceType, targetType, tiered, compiled);
+  }
+
+  /**
+   * Generate a converter class
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return a generated converter
+   */
+  @NotNull
+  private <S, T> Converter<S, T> generate(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType
+  ) {
+    return segments == null || converterFactory.getConfiguration().getHiddenClassLookup() != null
+           ? converterFactory.generateConverter(sourceType, targetType)
+           : converterFactory.generateConverter(
+               sourceType,
+               targetType,
+               segments.next(converterFactory.getClassLoader(sourceType, targetType))
+           );
   }
 
   @NotNull
-  @SuppressWarnings("unchecked")
   private <S, T> List<T> copyList(
       @NotNull Iterator<@Nullable S> itr,
       @NotNull Class<T> tc,
@@ -276,9 +731,8 @@ public final class BeanCopierImpl {
       if (s == null) {
         t = null;
       } else if (c == null) {
-        var sc = (Class<S>) s.getClass();
-        var cacheKey = new CacheKey(sc, tc);
-        c = generateConverter(cacheKey, sc, tc);
+        Class<S> sc = sourceType(s);
+        c = generateConverter(sc, tc);
         t = c.convert(s);
       } else {
         t = c.convert(s);
@@ -293,6 +747,17 @@ public final class BeanCopierImpl {
     return ret;
   }
 
+  /**
+   * @param ttl the time to live of failures, null means forever
+   * @return the time to live in nanoseconds, {@link Long#MAX_VALUE} means forever
+   */
+  private static long toNanos(@Nullable Duration ttl) {
+    if (ttl == null || ttl.compareTo(MAX_NANOS) >= 0) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(ttl.toNanos(), 0);
+  }
+
   private static class Lazy {
 
     private final static BeanCopierImpl INSTANCE = new BeanCopierImpl(
@@ -300,26 +765,4 @@ public final class BeanCopierImpl {
         new ConverterFactory(builder -> builder.classDumpPath(BeanCopierConfiguration.CONVERTER_CLASS_DUMP_PATH))
     );
   }
-
-  /**
-   * The key object for {@link #cache}.
-   *
-   * @author tanyaofei
-   * @since 0.1.4
-   */
-  record CacheKey(Class<?> sc, Class<?> tc) {
-
-    @Override
-    public boolean equals(Object obj) {
-      if (obj == this) {
-        return true;
-      }
-      if (!(obj instanceof CacheKey o)) {
-        return false;
-      }
-
-      return o.sc.equals(sc) && o.tc.equals(tc);
-    }
-
-  }
 }
@@ -0,0 +1,77 @@
+package io.github.tanyaofei.beancopier;
+
+import io.github.tanyaofei.beancopier.core.DefaultClassLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Groups the converter classes defined under the same parent classloader into segments, each segment is a {@link DefaultClassLoader}.
+ * <p>
+ * Only the segment that is currently filled is referenced (weakly) by this object,
+ * a full segment is referenced by nothing but the converters defined by it.
+ * Once all of those converters are evicted from the cache, the segment and its classes become unloadable together.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+final class ClassLoaderSegments {
+
+  /**
+   * The number of converter classes a segment holds
+   */
+  private final int segmentSize;
+
+  /**
+   * The current segment of each parent classloader, guarded by {@code this}
+   */
+  private final Map<ClassLoader, Segment> segments = new WeakHashMap<>(4);
+
+  /**
+   * @param segmentSize the number of converter classes a segment holds
+   */
+  ClassLoaderSegments(int segmentSize) {
+    this.segmentSize = Math.max(1, segmentSize);
+  }
+
+  /**
+   * Return a classloader for defining the next converter class
+   *
+   * @param parent the classloader that the converter class should be visible from
+   * @return a segment classloader whose parent is the specified one
+   */
+  @NotNull
+  synchronized ClassLoader next(@NotNull ClassLoader parent) {
+    var segment = segments.get(parent);
+    var loader = segment == null ? null : segment.loader.get();
+    if (loader == null || segment.defined >= segmentSize) {
+      loader = new DefaultClassLoader(parent);
+      segment = new Segment(new WeakReference<>(loader));
+      segments.put(parent, segment);
+    }
+    segment.defined++;
+    return loader;
+  }
+
+  private static final class Segment {
+
+    /**
+     * The segment classloader, referenced weakly so that it can be collected as soon as all of its converters were evicted
+     */
+    private final WeakReference<DefaultClassLoader> loader;
+
+    /**
+     * The number of converter classes that have been defined by this segment
+     */
+    private int defined;
+
+    private Segment(WeakReference<DefaultClassLoader> loader) {
+      this.loader = loader;
+    }
+
+  }
+
+}
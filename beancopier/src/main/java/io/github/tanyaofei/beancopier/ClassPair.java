@@ -0,0 +1,38 @@
+package io.github.tanyaofei.beancopier;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A source class and a target class that a converter copies between.
+ *
+ * @param sourceType the class of source
+ * @param targetType the class of target
+ * @author tanyaofei
+ * @see BeanCopierImpl#warmup(java.util.Collection)
+ * @since 0.2.0
+ */
+public record ClassPair(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+
+  public ClassPair {
+    Objects.requireNonNull(sourceType, "sourceType");
+    Objects.requireNonNull(targetType, "targetType");
+  }
+
+  /**
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return a class pair
+   */
+  @NotNull
+  public static ClassPair of(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    return new ClassPair(sourceType, targetType);
+  }
+
+  @Override
+  public String toString() {
+    return sourceType.getName() + " -> " + targetType.getName();
+  }
+
+}
@@ -6,6 +6,11 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Converter generation configuration
  *
@@ -63,6 +68,136 @@ public final class ConverterConfiguration {
    */
   private final String classDumpPath;
 
+  /**
+   * The maximum number of converters that a {@link BeanCopierImpl} caches.
+   * When the number is exceeded, the least valuable converters will be evicted (segmented LRU),
+   * and the classes of evicted converters become unloadable once all the converters defined alongside them are evicted.
+   * <p>A value that is less than or equal to 0 means the cache is unbounded, which is the default.</p>
+   *
+   * @since 0.2.0
+   */
+  private final int cacheMaximumSize;
+
+  /**
+   * The directory to keep the generated converter classes across JVM restarts.
+   * A converter class is read back from it as long as the bytecode of its source and target classes and the configuration are unchanged,
+   * so the reflection scanning and bytecode generation are skipped.
+   * <p>The persisted classes are defined with the same privilege as the generated ones, so the directory must only be writable by trusted users.
+   * The files are signed by a secret kept in the directory, and the cache is disabled if the directory or the secret is accessible by the group or others</p>
+   * <p>If this configuration is null, {@link BeanCopierConfiguration#CONVERTER_PERSISTENT_CACHE_PATH} will be used as default, an empty path means disabled</p>
+   *
+   * @since 0.2.0
+   */
+  private final String persistentCachePath;
+
+  /**
+   * If it is specified, converters are defined as hidden classes in the package of its lookup class
+   * instead of being defined as named classes in a classloader.
+   * <ul>
+   *   <li>A hidden converter is unloaded as soon as it is unreachable, e.g. evicted from a bounded cache, rather than when its classloader is unloaded</li>
+   *   <li>No class name is reserved for hidden converters</li>
+   *   <li>The lookup must have full privilege access, e.g. {@code MethodHandles.lookup()} called by a class next to the copied classes</li>
+   * </ul>
+   * <p>{@link #classLoader}, {@link #namingPolicy} and {@link #persistentCachePath} do not take effect on hidden converters</p>
+   *
+   * @since 0.2.0
+   */
+  private final MethodHandles.Lookup hiddenClassLookup;
+
+  /**
+   * How long a {@link BeanCopierImpl} remembers that the converter of a pair of classes can not be generated.
+   * While a failure is remembered, copying the same pair fails immediately with the remembered failure as the cause,
+   * instead of scanning and generating again.
+   * <p>If this configuration is null, failures are remembered as long as the {@link BeanCopierImpl} is alive, which is the default.
+   * A zero or negative duration means failures are never remembered.</p>
+   *
+   * @since 0.2.0
+   */
+  private final Duration failureCacheTtl;
+
+  /**
+   * The maximum number of converter classes that a {@link BeanCopierImpl} generates.
+   * Once it is reached, the pairs that have no converter yet are copied by a converter based on method handles,
+   * which defines no class but is slower than the generated ones.
+   * It protects the Metaspace from a pair explosion, e.g. copying proxy objects whose classes are generated for each object.
+   * <p>A value that is less than or equal to 0 means unlimited, which is the default.</p>
+   *
+   * @see BeanCopierImpl#getTrippedPairs()
+   * @since 0.2.0
+   */
+  private final int generationLimit;
+
+  /**
+   * The maximum number of converter classes that a {@link BeanCopierImpl} generates per second.
+   * The pairs that exceed it are copied by a converter based on method handles, like exceeding {@link #generationLimit},
+   * but unlike that limit, their classes are generated once the second passes and they are copied again.
+   * <p>A value that is less than or equal to 0 means unlimited, which is the default.</p>
+   *
+   * @see BeanCopierImpl#getTrippedPairs()
+   * @since 0.2.0
+   */
+  private final int generationRateLimit;
+
+  /**
+   * Resolves the class that a source object is copied as, when the source class is not declared by the caller,
+   * e.g. {@link BeanCopierImpl#copy(Object, Class)}.
+   * <p>{@link SourceTypeResolver#getDefault()} is used by default, which copies the proxy objects as their superclasses</p>
+   *
+   * @since 0.2.0
+   */
+  private final SourceTypeResolver sourceTypeResolver;
+
+  /**
+   * Enables the tiered mode if it is greater than 0.
+   * In the tiered mode, a pair is copied by an interpreter based on method handles at first,
+   * the converter class is generated on the {@link #compileExecutor} after the interpreter has been called this number of times,
+   * and then the generated converter replaces the interpreter.
+   * <ul>
+   *   <li>The first copy of a pair is fast, and no class is generated for the pairs that are rarely copied</li>
+   *   <li>The pairs that are {@link BeanCopierImpl#warmup(java.util.Collection) warmed up} are compiled during the warmup</li>
+   * </ul>
+   * <p>A value that is less than or equal to 0 means the converters are generated on the first copy, which is the default.</p>
+   *
+   * @since 0.2.0
+   */
+  private final int compileThreshold;
+
+  /**
+   * The executor to generate the converter classes of the {@link #compileThreshold tiered mode} in background, {@link ForkJoinPool#commonPool()} by default.
+   * <p>A pair is interpreted for good if its converter class failed to be generated, it is not generated again.</p>
+   *
+   * @since 0.2.0
+   */
+  private final Executor compileExecutor;
+
+  /**
+   * Determines whether the generated converters access the fields of beans directly instead of calling getters and setters.
+   * <ul>
+   *   <li>The public fields that have no getter or setter are copied as properties as well</li>
+   *   <li>A getter or setter that does nothing but reading or writing its field is replaced by accessing the field,
+   *   if the field is public, or the converter is a {@link #hiddenClassLookup hidden class} that can access it, e.g. a private field of a nestmate of the lookup class</li>
+   *   <li>The other getters and setters are still called</li>
+   * </ul>
+   * <p>Since the fields are accessed as the declared source class,
+   * the getters overridden by the subclasses of source at runtime, e.g. the lazy loading proxies, are bypassed.</p>
+   *
+   * @since 0.2.0
+   */
+  private final boolean directFieldAccess;
+
+  /**
+   * Determines whether a nested property is converted if its classes are different from the classes of its owner, e.g. {@code Order.customer} of {@code Order -> OrderDTO} is converted from {@code Customer} to {@code CustomerDTO}.
+   * <ul>
+   *   <li>The converter of the nested classes is linked into the generated converter of the owner, so the whole object graph is converted in a single call chain</li>
+   *   <li>The elements of a nested collection are converted as well, e.g. {@code List<Customer>} to {@code List<CustomerDTO>}</li>
+   *   <li>Only the public classes outside of the JDK are converted, and the target class must be instantiable, the other properties are copied as usual</li>
+   * </ul>
+   * <p>It takes effect only if {@link #preferNested} is enabled. The classes that refer to each other are supported.</p>
+   *
+   * @since 0.2.0
+   */
+  private final boolean crossTypeNested;
+
   public static Builder builder() {
     return new Builder();
   }
@@ -84,8 +219,50 @@ public final class ConverterConfiguration {
 
     private String classDumpPath = BeanCopierConfiguration.CONVERTER_CLASS_DUMP_PATH;
 
+    private int cacheMaximumSize = 0;
+
+    private String persistentCachePath = BeanCopierConfiguration.CONVERTER_PERSISTENT_CACHE_PATH;
+
+    private MethodHandles.Lookup hiddenClassLookup = null;
+
+    private Duration failureCacheTtl = null;
+
+    private int generationLimit = 0;
+
+    private int generationRateLimit = 0;
+
+    private SourceTypeResolver sourceTypeResolver = SourceTypeResolver.getDefault();
+
+    private int compileThreshold = 0;
+
+    private Executor compileExecutor = ForkJoinPool.commonPool();
+
+    private boolean directFieldAccess = false;
+
+    private boolean crossTypeNested = false;
+
     public ConverterConfiguration build() {
-      return new ConverterConfiguration(fullTypeMatching, skipNull, preferNested, includingSuper, propertySupported, classLoader, namingPolicy, classDumpPath);
+      return new ConverterConfiguration(
+          fullTypeMatching,
+          skipNull,
+          preferNested,
+          includingSuper,
+          propertySupported,
+          classLoader,
+          namingPolicy,
+          classDumpPath,
+          cacheMaximumSize,
+          persistentCachePath,
+          hiddenClassLookup,
+          failureCacheTtl,
+          generationLimit,
+          generationRateLimit,
+          sourceTypeResolver,
+          compileThreshold,
+          compileExecutor,
+          directFieldAccess,
+          crossTypeNested
+      );
     }
 
     public Builder fullTypeMatching(boolean fullTypeMatching) {
@@ -127,6 +304,61 @@ public final class ConverterConfiguration {
       this.classDumpPath = classDumpPath;
       return this;
     }
+
+    public Builder cacheMaximumSize(int cacheMaximumSize) {
+      this.cacheMaximumSize = cacheMaximumSize;
+      return this;
+    }
+
+    public Builder persistentCachePath(String persistentCachePath) {
+      this.persistentCachePath = persistentCachePath;
+      return this;
+    }
+
+    public Builder hiddenClassLookup(MethodHandles.Lookup hiddenClassLookup) {
+      this.hiddenClassLookup = hiddenClassLookup;
+      return this;
+    }
+
+    public Builder failureCacheTtl(Duration failureCacheTtl) {
+      this.failureCacheTtl = failureCacheTtl;
+      return this;
+    }
+
+    public Builder generationLimit(int generationLimit) {
+      this.generationLimit = generationLimit;
+      return this;
+    }
+
+    public Builder generationRateLimit(int generationRateLimit) {
+      this.generationRateLimit = generationRateLimit;
+      return this;
+    }
+
+    public Builder sourceTypeResolver(SourceTypeResolver sourceTypeResolver) {
+      this.sourceTypeResolver = sourceTypeResolver;
+      return this;
+    }
+
+    public Builder compileThreshold(int compileThreshold) {
+      this.compileThreshold = compileThreshold;
+      return this;
+    }
+
+    public Builder compileExecutor(Executor compileExecutor) {
+      this.compileExecutor = compileExecutor;
+      return this;
+    }
+
+    public Builder directFieldAccess(boolean directFieldAccess) {
+      this.directFieldAccess = directFieldAccess;
+      return this;
+    }
+
+    public Builder crossTypeNested(boolean crossTypeNested) {
+      this.crossTypeNested = crossTypeNested;
+      return this;
+    }
   }
 
 }
@@ -0,0 +1,767 @@
+package io.github.tanyaofei.beancopier;
+
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.exception.ConverterGenerateException;
+import io.github.tanyaofei.beancopier.utils.reflection.Reflections;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A two-level registry of the converters generated by a {@link BeanCopierImpl}.
+ * <ol>
+ *   <li>The first level is keyed by the source class through a {@link ClassValue}, so the lookup table of a source class is found without hashing</li>
+ *   <li>The second level is a small copy-on-write table keyed by the identity of the target class</li>
+ * </ol>
+ * <p>
+ * A hit allocates nothing and never compares keys with {@code equals()}.
+ * A miss generates the converter without holding any lock, concurrent misses of the same classes share one generation.
+ * </p>
+ * <p>
+ * The tables are stored in the source classes by the {@link ClassValue} and reference the converters weakly,
+ * so neither the tables nor this registry keep a class (and its classloader) from being unloaded.
+ * A target class is referenced strongly if it is loaded by the classloader of source or one of its ancestors,
+ * which the source class keeps reachable anyway, so a hit compares it directly and dereferences the converter only.
+ * Other target classes are referenced weakly.
+ * A converter is held strongly by its owner:
+ * </p>
+ * <ul>
+ *   <li>this registry, if both classes are loaded by the system classloader or its ancestors, which never unload the classes,
+ *   so a released registry does not keep its converters reachable</li>
+ *   <li>otherwise the class loaded by the lower classloader, which is the one that is unloaded first,
+ *   so the converter lives as long as both classes, and its entry is dropped once either class is unloaded</li>
+ * </ul>
+ * <p>
+ * <p>
+ * If a maximum size is specified, the registry is bounded by a segmented LRU policy:
+ * new converters enter the probation segment, converters that were hit while they were in probation are promoted to the protected segment,
+ * and the victims are taken from the head of the probation segment.
+ * A hit only sets a flag on the entry, the queues are reordered while evicting.
+ * </p>
+ * <p>
+ * The {@link ConverterGenerateException} thrown by a supplier is remembered for a while,
+ * the classes fail immediately with it as the cause until it expires, so a pair that can not be copied is not scanned again and again.
+ * The failures are looked up on misses only, hits are not slowed down by them.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+final class ConverterRegistry {
+
+  /**
+   * The percentage of the maximum size that the protected segment takes
+   */
+  private static final int PROTECTED_PERCENTAGE = 80;
+
+  /**
+   * The first level of lookup, the lookup table of a source class is stored in the source class
+   */
+  private final ClassValue<TargetTable> lookup = new ClassValue<>() {
+    @Override
+    protected TargetTable computeValue(Class<?> type) {
+      return new TargetTable(type);
+    }
+  };
+
+  /**
+   * The converters owned by a class which may be unloaded, they are stored in the owner class
+   */
+  private final ClassValue<Set<Converter<?, ?>>> anchored = new ClassValue<>() {
+    @Override
+    protected Set<Converter<?, ?>> computeValue(Class<?> type) {
+      return ConcurrentHashMap.newKeySet(2);
+    }
+  };
+
+  /**
+   * The converters owned by this registry, whose classes are never unloaded
+   */
+  private final Set<Converter<?, ?>> owned;
+
+  /**
+   * All registered entries, they reference nothing strongly but their tables
+   */
+  private final Set<Entry> entries;
+
+  /**
+   * The references of the converters which were collected since their owner classes were unloaded
+   */
+  private final ReferenceQueue<Converter<?, ?>> collected = new ReferenceQueue<>();
+
+  /**
+   * The generations in flight
+   */
+  private final ConcurrentMap<Key, Generation> generations = new ConcurrentHashMap<>();
+
+  /**
+   * The maximum number of converters, 0 or less means unbounded
+   */
+  private final int maximumSize;
+
+  /**
+   * Whether this registry is bounded
+   */
+  private final boolean bounded;
+
+  /**
+   * The probation segment of the eviction policy, guarded by {@code this}
+   */
+  private final ArrayDeque<Entry> probationSegment = new ArrayDeque<>();
+
+  /**
+   * The protected segment of the eviction policy, guarded by {@code this}
+   */
+  private final ArrayDeque<Entry> protectedSegment = new ArrayDeque<>();
+
+  /**
+   * How long a failure is remembered in nanoseconds, {@link Long#MAX_VALUE} means forever and 0 or less means never
+   */
+  private final long failureTtlNanos;
+
+  /**
+   * The number of calls that failed with a remembered failure
+   */
+  private final LongAdder fastFailures = new LongAdder();
+
+  /**
+   * @param initialCapacity the initial capacity of source classes
+   * @param maximumSize     the maximum number of converters, 0 or less means unbounded
+   * @param failureTtlNanos how long a failure is remembered in nanoseconds, {@link Long#MAX_VALUE} means forever and 0 or less means never
+   */
+  ConverterRegistry(int initialCapacity, int maximumSize, long failureTtlNanos) {
+    this.owned = ConcurrentHashMap.newKeySet(initialCapacity);
+    this.entries = ConcurrentHashMap.newKeySet(initialCapacity);
+    this.maximumSize = maximumSize;
+    this.bounded = maximumSize > 0;
+    this.failureTtlNanos = failureTtlNanos;
+  }
+
+  /**
+   * Return the registered converter of the specified classes
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return the registered converter, or null if there is none
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  <S, T> Converter<S, T> get(@NotNull Class<S> sourceType, @NotNull Class<T> targetType) {
+    var entry = lookup.get(sourceType).get(targetType);
+    if (entry == null) {
+      return null;
+    }
+    if (bounded && !entry.referenced) {
+      entry.referenced = true;
+    }
+    return (Converter<S, T>) entry.converter.get();
+  }
+
+  /**
+   * Return the registered converter of the specified classes, or register the one supplied by the specified supplier.
+   * <p>
+   * The supplier will be called at most once at a time for the same classes, and no lock is held while it is running.
+   * Other threads that require the same classes at the same time wait for the result of the calling thread,
+   * and the threads that require other classes are not blocked at all.
+   * </p>
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param supplier   the supplier to create a converter
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return the registered converter
+   * @throws ConverterGenerateException if the supplier is being called for the same classes by the calling thread,
+   *                                    or the supplier failed for the same classes and the failure is still remembered
+   */
+  @NotNull
+  <S, T> Converter<S, T> computeIfAbsent(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType,
+      @NotNull Supplier<? extends Converter<S, T>> supplier
+  ) {
+    return compute(sourceType, targetType, supplier, true);
+  }
+
+  /**
+   * Same as {@link #computeIfAbsent(Class, Class, Supplier)}, but never waits for a generation in flight.
+   * <ul>
+   *   <li>If the classes are being generated by another thread, the converter supplied by the specified supplier is returned without being registered</li>
+   *   <li>If the classes are being generated by the calling thread, a converter that delegates to the result of that generation is returned</li>
+   * </ul>
+   * It is used while other converters are being created, when waiting for the generations of other threads may deadlock.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param supplier   the supplier to create a converter
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return the registered converter, or a converter that is not registered
+   * @throws ConverterGenerateException if the supplier failed for the same classes and the failure is still remembered
+   */
+  @NotNull
+  <S, T> Converter<S, T> computeIfAbsentWithoutWaiting(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType,
+      @NotNull Supplier<? extends Converter<S, T>> supplier
+  ) {
+    return compute(sourceType, targetType, supplier, false);
+  }
+
+  @NotNull
+  @SuppressWarnings("unchecked")
+  private <S, T> Converter<S, T> compute(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType,
+      @NotNull Supplier<? extends Converter<S, T>> supplier,
+      boolean wait
+  ) {
+    if (failureTtlNanos > 0) {
+      var failure = lookup.get(sourceType).getFailure(targetType);
+      if (failure != null && !failure.isExpired()) {
+        fastFailures.increment();
+        throw new ConverterGenerateException(
+            "Failed to generate converter class: " + sourceType.getName() + " -> " + targetType.getName() + " (remembered failure)",
+            failure.cause,
+            false
+        );
+      }
+    }
+
+    var key = new Key(sourceType, targetType);
+    var generation = new Generation(Thread.currentThread());
+    var inFlight = generations.putIfAbsent(key, generation);
+    if (inFlight != null) {
+      if (wait) {
+        return (Converter<S, T>) inFlight.await(key);
+      }
+      if (inFlight.owner == Thread.currentThread()) {
+        return (Converter<S, T>) new Deferred(inFlight);
+      }
+      return supplier.get();
+    }
+
+    try {
+      // another thread may have registered it before this generation started
+      var converter = get(sourceType, targetType);
+      if (converter == null) {
+        converter = supplier.get();
+        register(sourceType, targetType, converter);
+      }
+      generation.complete(converter);
+      return converter;
+    } catch (Throwable e) {
+      if (failureTtlNanos > 0 && e instanceof ConverterGenerateException cge) {
+        remember(sourceType, targetType, cge);
+      }
+      generation.completeExceptionally(e);
+      throw e;
+    } finally {
+      generations.remove(key, generation);
+    }
+  }
+
+  /**
+   * Register a converter
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param converter  the converter
+   */
+  private void register(@NotNull Class<?> sourceType, @NotNull Class<?> targetType, @NotNull Converter<?, ?> converter) {
+    expungeStaleEntries();
+
+    var anchor = anchorOf(sourceType, targetType);
+    Entry entry;
+    for (; ; ) {
+      var table = lookup.get(sourceType);
+      synchronized (table) {
+        if (table.removed) {
+          // emptied by an eviction after it was looked up
+          continue;
+        }
+        entry = new Entry(table, targetType, Reflections.isClAssignableFrom(targetType.getClassLoader(), sourceType.getClassLoader()), anchor);
+        entry.converter = new ConverterReference(converter, entry, collected);
+        ownerOf(entry).add(converter);
+        // the entry whose converter was collected
+        var stale = table.get(targetType);
+        if (stale != null) {
+          table.remove(stale);
+        }
+        table.add(entry);
+        table.removeFailure(targetType);
+        break;
+      }
+    }
+    entries.add(entry);
+
+    if (bounded) {
+      admit(entry);
+    }
+  }
+
+  /**
+   * Replace the registered converter of the specified classes if it is the expected one, the eviction state of its entry is kept
+   *
+   * @param sourceType  the class of source
+   * @param targetType  the class of target
+   * @param expected    the converter expected to be registered
+   * @param replacement the new converter
+   * @return true if replaced, or false if the registered converter is not the expected one, e.g. it had been evicted
+   */
+  boolean replace(
+      @NotNull Class<?> sourceType,
+      @NotNull Class<?> targetType,
+      @NotNull Converter<?, ?> expected,
+      @NotNull Converter<?, ?> replacement
+  ) {
+    var table = lookup.get(sourceType);
+    synchronized (table) {
+      var entry = table.get(targetType);
+      if (entry == null || entry.converter.get() != expected) {
+        return false;
+      }
+      var owner = ownerOf(entry);
+      owner.add(replacement);
+      entry.converter = new ConverterReference(replacement, entry, collected);
+      owner.remove(expected);
+      return true;
+    }
+  }
+
+  /**
+   * Remember that the converter of the specified classes can not be generated
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param cause      the failure
+   */
+  private void remember(@NotNull Class<?> sourceType, @NotNull Class<?> targetType, @NotNull ConverterGenerateException cause) {
+    var now = System.nanoTime();
+    var failure = new Failure(
+        new WeakReference<>(targetType),
+        cause,
+        failureTtlNanos == Long.MAX_VALUE ? 0 : now + failureTtlNanos,
+        failureTtlNanos != Long.MAX_VALUE
+    );
+    for (; ; ) {
+      var table = lookup.get(sourceType);
+      synchronized (table) {
+        if (table.removed) {
+          continue;
+        }
+        table.removeFailure(targetType);
+        table.addFailure(failure);
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the number of calls that failed immediately with a remembered failure
+   */
+  long fastFailureCount() {
+    return fastFailures.sum();
+  }
+
+  /**
+   * @return the number of registered converters
+   */
+  int size() {
+    expungeStaleEntries();
+    return entries.size();
+  }
+
+  /**
+   * @return a snapshot of all registered converters
+   */
+  @NotNull
+  Collection<Converter<?, ?>> values() {
+    expungeStaleEntries();
+    var values = new ArrayList<Converter<?, ?>>(entries.size());
+    for (var entry : entries) {
+      var converter = entry.converter.get();
+      if (converter != null) {
+        values.add(converter);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Return the class that should own the converter of the specified classes.
+   * The converter references both classes, so it is owned by the one that is unloaded first, which is the one loaded by the lower classloader.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return the owner class, or null if both classes are never unloaded and the converter is owned by this registry
+   */
+  @Nullable
+  private static Class<?> anchorOf(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    var anchor = Reflections.isClAssignableFrom(sourceType.getClassLoader(), targetType.getClassLoader())
+                 ? targetType
+                 : sourceType;
+    return Reflections.isClAssignableFrom(anchor.getClassLoader(), ClassLoader.getSystemClassLoader())
+           ? null
+           : anchor;
+  }
+
+  /**
+   * @param entry the entry
+   * @return the set that holds the converter of the specified entry strongly
+   */
+  @NotNull
+  private Set<Converter<?, ?>> ownerOf(@NotNull Entry entry) {
+    if (entry.anchor == null) {
+      return owned;
+    }
+    var anchor = entry.anchor.get();
+    // the owner class was unloaded, nothing holds the converter any more
+    return anchor == null ? Collections.emptySet() : anchored.get(anchor);
+  }
+
+  /**
+   * Remove the entries whose converters were collected after their owner classes were unloaded
+   */
+  private void expungeStaleEntries() {
+    for (Reference<?> ref; (ref = collected.poll()) != null; ) {
+      var entry = ((ConverterReference) ref).entry;
+      if (entry.converter != ref) {
+        // replaced
+        continue;
+      }
+      unlink(entry);
+      if (bounded) {
+        synchronized (this) {
+          probationSegment.remove(entry);
+          protectedSegment.remove(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove an entry from its table and this registry, and release its converter.
+   * The table is removed from its source class once it becomes empty.
+   *
+   * @param entry the entry
+   */
+  private void unlink(@NotNull Entry entry) {
+    var table = entry.table;
+    synchronized (table) {
+      table.remove(entry);
+      var converter = entry.converter.get();
+      if (converter != null) {
+        ownerOf(entry).remove(converter);
+      }
+      if (!table.removed && table.entries.length == 0 && table.failures.length == 0) {
+        table.removed = true;
+        var sourceType = table.sourceType.get();
+        if (sourceType != null) {
+          lookup.remove(sourceType);
+        }
+      }
+    }
+    entries.remove(entry);
+  }
+
+  /**
+   * Add a new entry to the probation segment, and evict entries until the size does not exceed the maximum size.
+   *
+   * @param entry the new entry
+   */
+  private synchronized void admit(@NotNull Entry entry) {
+    probationSegment.addLast(entry);
+    int protectedMaximumSize = maximumSize * PROTECTED_PERCENTAGE / 100;
+
+    // each round either evicts an entry or clears a flag, the bound avoids spinning on entries that keep being hit concurrently
+    int rounds = 2 * (probationSegment.size() + protectedSegment.size());
+    while (probationSegment.size() + protectedSegment.size() > maximumSize) {
+      var candidate = probationSegment.pollFirst();
+      if (candidate == null) {
+        candidate = protectedSegment.pollFirst();
+        assert candidate != null;
+      } else if (candidate.referenced && rounds-- > 0) {
+        candidate.referenced = false;
+        protectedSegment.addLast(candidate);
+        while (protectedSegment.size() > protectedMaximumSize) {
+          probationSegment.addLast(protectedSegment.pollFirst());
+        }
+        continue;
+      }
+      evict(candidate);
+    }
+  }
+
+  private void evict(@NotNull Entry entry) {
+    unlink(entry);
+  }
+
+  /**
+   * The second level of lookup, contains the converters of a source class.
+   * A source class is usually copied to a few target classes only, so a linear scan over an array is faster than hashing.
+   * The target classes are referenced through the entries, weakly if they may be unloaded before the source class.
+   * Modifications are guarded by {@code this}.
+   */
+  private static final class TargetTable {
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private static final Failure[] NO_FAILURES = new Failure[0];
+
+    private volatile Entry[] entries = EMPTY;
+
+    /**
+     * The remembered failures, kept apart from {@link #entries} so that hits never scan them
+     */
+    private volatile Failure[] failures = NO_FAILURES;
+
+    private final Reference<Class<?>> sourceType;
+
+    /**
+     * Whether this table was removed from its source class, a removed table must not be modified any more
+     */
+    private boolean removed;
+
+    private TargetTable(@NotNull Class<?> sourceType) {
+      this.sourceType = new WeakReference<>(sourceType);
+    }
+
+    @Nullable
+    Entry get(@NotNull Class<?> targetType) {
+      var entries = this.entries;
+      for (var entry : entries) {
+        if (entry.targetType == targetType) {
+          return entry;
+        }
+      }
+      // the target classes that may be unloaded before the source class
+      for (var entry : entries) {
+        if (entry.weakTargetType != null && entry.weakTargetType.get() == targetType) {
+          return entry;
+        }
+      }
+      return null;
+    }
+
+    void add(@NotNull Entry entry) {
+      var entries = Arrays.copyOf(this.entries, this.entries.length + 1);
+      entries[entries.length - 1] = entry;
+      this.entries = entries;
+    }
+
+    void remove(@NotNull Entry entry) {
+      var entries = this.entries;
+      for (int i = 0; i < entries.length; i++) {
+        if (entries[i] == entry) {
+          var removed = new Entry[entries.length - 1];
+          System.arraycopy(entries, 0, removed, 0, i);
+          System.arraycopy(entries, i + 1, removed, i, entries.length - i - 1);
+          this.entries = removed;
+          return;
+        }
+      }
+    }
+
+    @Nullable
+    Failure getFailure(@NotNull Class<?> targetType) {
+      for (var failure : failures) {
+        if (failure.targetType.get() == targetType) {
+          return failure;
+        }
+      }
+      return null;
+    }
+
+    void addFailure(@NotNull Failure failure) {
+      var failures = Arrays.copyOf(this.failures, this.failures.length + 1);
+      failures[failures.length - 1] = failure;
+      this.failures = failures;
+    }
+
+    void removeFailure(@NotNull Class<?> targetType) {
+      var failures = this.failures;
+      for (int i = 0; i < failures.length; i++) {
+        if (failures[i].targetType.get() == targetType) {
+          var removed = new Failure[failures.length - 1];
+          System.arraycopy(failures, 0, removed, 0, i);
+          System.arraycopy(failures, i + 1, removed, i, failures.length - i - 1);
+          this.failures = removed;
+          return;
+        }
+      }
+    }
+
+  }
+
+  /**
+   * A remembered failure
+   *
+   * @param targetType the class of target, referenced weakly
+   * @param cause      the exception thrown by the supplier
+   * @param deadline   the {@link System#nanoTime()} when this failure expires, ignored if it never expires
+   * @param expirable  whether this failure expires
+   */
+  private record Failure(Reference<Class<?>> targetType, ConverterGenerateException cause, long deadline, boolean expirable) {
+
+    boolean isExpired() {
+      return expirable && System.nanoTime() - deadline >= 0;
+    }
+
+  }
+
+  /**
+   * The key of a generation in flight
+   */
+  private record Key(Class<?> sourceType, Class<?> targetType) {
+  }
+
+  /**
+   * A generation in flight
+   */
+  private static final class Generation extends CompletableFuture<Converter<?, ?>> {
+
+    /**
+     * The thread which is generating
+     */
+    private final Thread owner;
+
+    private Generation(Thread owner) {
+      this.owner = owner;
+    }
+
+    /**
+     * Wait for the generation is done
+     *
+     * @param key the key of this generation
+     * @return the generated converter
+     * @throws ConverterGenerateException if the calling thread is the owner of this generation
+     */
+    @NotNull
+    private Converter<?, ?> await(@NotNull Key key) {
+      if (owner == Thread.currentThread()) {
+        throw new ConverterGenerateException(
+            "Recursive generation of converter: " + key.sourceType.getName() + " -> " + key.targetType.getName()
+        );
+      }
+      return result();
+    }
+
+    /**
+     * @return the generated converter
+     */
+    @NotNull
+    private Converter<?, ?> result() {
+      try {
+        return join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException re) {
+          throw re;
+        }
+        if (e.getCause() instanceof Error err) {
+          throw err;
+        }
+        throw e;
+      }
+    }
+
+  }
+
+  /**
+   * A converter that delegates to the result of a generation in flight of the calling thread,
+   * it is called after the generation is done since it is only linked into the converters created by that generation
+   */
+  private static final class Deferred implements Converter<Object, Object> {
+
+    private final Generation generation;
+
+    private Deferred(Generation generation) {
+      this.generation = generation;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public Object convert(@Nullable Object source) {
+      return ((Converter<Object, Object>) generation.result()).convert(source);
+    }
+
+  }
+
+  private static final class Entry {
+
+    private final TargetTable table;
+
+    /**
+     * The class of target if it can not be unloaded before the source class, otherwise null
+     */
+    @Nullable
+    private final Class<?> targetType;
+
+    /**
+     * The class of target if it may be unloaded before the source class, otherwise null
+     */
+    @Nullable
+    private final Reference<Class<?>> weakTargetType;
+
+    /**
+     * The class that owns the converter, or null if the converter is owned by the registry
+     */
+    @Nullable
+    private final Reference<Class<?>> anchor;
+
+    /**
+     * The converter, referenced weakly since it is held by its owner.
+     * Only replaced by {@link #replace(Class, Class, Converter, Converter)}
+     */
+    private volatile ConverterReference converter;
+
+    /**
+     * Whether this entry was hit since it was moved last time, written without synchronization since it is only a hint
+     */
+    private boolean referenced;
+
+    /**
+     * @param table      the table of source class
+     * @param targetType the class of target
+     * @param pinned     whether the target class is kept reachable by the source class, so it is referenced strongly
+     * @param anchor     the class that owns the converter, or null if the converter is owned by the registry
+     */
+    private Entry(TargetTable table, Class<?> targetType, boolean pinned, @Nullable Class<?> anchor) {
+      this.table = table;
+      this.targetType = pinned ? targetType : null;
+      this.weakTargetType = pinned ? null : new WeakReference<>(targetType);
+      this.anchor = anchor == null ? null : new WeakReference<>(anchor);
+    }
+
+  }
+
+  private static final class ConverterReference extends WeakReference<Converter<?, ?>> {
+
+    private final Entry entry;
+
+    private ConverterReference(Converter<?, ?> converter, Entry entry, ReferenceQueue<? super Converter<?, ?>> queue) {
+      super(converter, queue);
+      this.entry = entry;
+    }
+
+  }
+
+}
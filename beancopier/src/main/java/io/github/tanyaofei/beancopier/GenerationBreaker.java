@@ -0,0 +1,147 @@
+package io.github.tanyaofei.beancopier;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the converter classes that a {@link BeanCopierImpl} generates, in total and per second.
+ * <p>
+ * Once a limit is reached, the breaker is open and the pairs that require new converters are denied,
+ * they should be copied without generating classes instead.
+ * The breaker stays open forever once the total limit is reached, the denied pairs should never be generated.
+ * It stays open until the next second once the rate limit is reached, the deferred pairs should be generated again after {@link #WINDOW_NANOS}.
+ * The first {@link #MAXIMUM_REPORTED_PAIRS} denied pairs are kept for diagnosis, it is usually enough to tell the pattern of a pair explosion,
+ * e.g. a proxy class generated for each source object.
+ * They are kept by names, the classes that the breaker protects Metaspace from must not be pinned by it.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+final class GenerationBreaker {
+
+  /**
+   * The maximum number of denied pairs to keep
+   */
+  static final int MAXIMUM_REPORTED_PAIRS = 1024;
+
+  /**
+   * The window of the rate limit
+   */
+  static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * The maximum number of generations, 0 or less means unlimited
+   */
+  private final int limit;
+
+  /**
+   * The maximum number of generations per second, 0 or less means unlimited
+   */
+  private final int rateLimit;
+
+  /**
+   * The number of permitted generations, guarded by {@code this}
+   */
+  private int generations;
+
+  /**
+   * The {@link System#nanoTime()} when the current window started, guarded by {@code this}
+   */
+  private long windowStart = System.nanoTime();
+
+  /**
+   * The number of permitted generations in the current window, guarded by {@code this}
+   */
+  private int windowGenerations;
+
+  /**
+   * The names of denied pairs, in the form of {@link ClassPair#toString()}
+   */
+  private final Set<String> trippedPairs = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param limit     the maximum number of generations, 0 or less means unlimited
+   * @param rateLimit the maximum number of generations per second, 0 or less means unlimited
+   */
+  GenerationBreaker(int limit, int rateLimit) {
+    this.limit = limit;
+    this.rateLimit = rateLimit;
+  }
+
+  /**
+   * @return true if neither the total limit nor the rate limit is specified
+   */
+  boolean isUnlimited() {
+    return limit <= 0 && rateLimit <= 0;
+  }
+
+  /**
+   * Try to acquire a permit to generate the converter of the specified classes.
+   * It is called once per generation, which costs far more than a short lock.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return whether the generation is permitted, deferred by the rate limit or denied by the total limit
+   */
+  @NotNull
+  Permit tryAcquire(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    Permit permit;
+    synchronized (this) {
+      var now = System.nanoTime();
+      if (now - windowStart >= WINDOW_NANOS) {
+        windowStart = now;
+        windowGenerations = 0;
+      }
+      if (limit > 0 && generations >= limit) {
+        permit = Permit.DENIED;
+      } else if (rateLimit > 0 && windowGenerations >= rateLimit) {
+        permit = Permit.DEFERRED;
+      } else {
+        generations++;
+        windowGenerations++;
+        return Permit.GRANTED;
+      }
+    }
+
+    if (trippedPairs.size() < MAXIMUM_REPORTED_PAIRS) {
+      trippedPairs.add(sourceType.getName() + " -> " + targetType.getName());
+    }
+    return permit;
+  }
+
+  /**
+   * @return the names of pairs that were denied, at most {@link #MAXIMUM_REPORTED_PAIRS} ones
+   */
+  @NotNull
+  Set<String> getTrippedPairs() {
+    return Collections.unmodifiableSet(trippedPairs);
+  }
+
+  /**
+   * The result of {@link #tryAcquire(Class, Class)}
+   */
+  enum Permit {
+
+    /**
+     * The generation is permitted
+     */
+    GRANTED,
+
+    /**
+     * The rate limit is reached, the generation may be permitted after {@link #WINDOW_NANOS}
+     */
+    DEFERRED,
+
+    /**
+     * The total limit is reached, no generation will be permitted any more
+     */
+    DENIED
+
+  }
+
+}
@@ -33,7 +33,7 @@ public abstract class NamingPolicy {
   /**
    * @param sourceType The type of Source
    * @param targetType The type of Target
-   * @param predicate  To predicate the name is used or not
+   * @param predicate  To predicate the name is used or not, it is a {@link UsedNames} when it is called by the converter factory
    * @return A class name for generator is about to be generated
    */
   @NotNull
@@ -43,31 +43,78 @@ public abstract class NamingPolicy {
       @NotNull Predicate<String> predicate
   );
 
+  /**
+   * The names used in the classloader that the converter class is about to be defined in.
+   * <p>
+   * Besides testing whether a name is used, it keeps the last suffix appended to each base name in that classloader,
+   * so a policy that appends suffixes does not need to probe from the first suffix every time.
+   * The suffixes are released together with the classloader.
+   * </p>
+   *
+   * @since 0.2.0
+   */
+  public interface UsedNames extends Predicate<String> {
+
+    /**
+     * @param base the base name
+     * @return the last suffix appended to the specified base name, or 1 if there is none
+     */
+    int getLastSuffix(@NotNull String base);
+
+    /**
+     * Keep the suffix appended to the specified base name, the last suffix is never decreased
+     *
+     * @param base   the base name
+     * @param suffix the suffix
+     */
+    void setLastSuffix(@NotNull String base, int suffix);
+
+  }
+
   public static class Default extends NamingPolicy {
 
     private static final Default INSTANCE = new Default();
 
     @Override
     @NotNull
-    @SuppressWarnings("StatementWithEmptyBody")
     public String getClassName(
         @NotNull Class<?> sourceType,
         @NotNull Class<?> targetType,
         @NotNull Predicate<String> predicate
     ) {
-      String base = getPackage()
+      String base = getBaseName(sourceType, targetType);
+      if (!predicate.test(base)) {
+        return base;
+      }
+
+      // continue from the last suffix instead of probing from "_2" every time
+      var usedNames = predicate instanceof UsedNames u ? u : null;
+      int suffix = usedNames == null ? 2 : usedNames.getLastSuffix(base) + 1;
+      String attempt;
+      while (predicate.test(attempt = base + "_" + suffix)) {
+        suffix++;
+      }
+      if (usedNames != null) {
+        usedNames.setLastSuffix(base, suffix);
+      }
+      return attempt;
+    }
+
+    /**
+     * @param sourceType The type of Source
+     * @param targetType The type of Target
+     * @return The class name if it is not used, otherwise the suffixes "_2", "_3" and so on are appended to it
+     * @since 0.2.0
+     */
+    @NotNull
+    protected String getBaseName(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+      return getPackage()
           + "."
           + sourceType.getSimpleName()
           + "To"
           + targetType.getSimpleName()
           + "Converter$$GeneratedByBeanCopier$$"
           + Integer.toHexString((sourceType.getName() + targetType.getName()).hashCode());
-
-      String attempt = base;
-      for (int i = 2; predicate.test(attempt); attempt = base + "_" + i++) {
-
-      }
-      return attempt;
     }
   }
 
@@ -0,0 +1,116 @@
+package io.github.tanyaofei.beancopier;
+
+import io.github.tanyaofei.beancopier.utils.reflection.ClassUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resolves the class that a source object is copied as when its class is not declared by the caller.
+ * <p>
+ * The class of a source object may be generated at runtime, e.g. a proxy of an ORM framework,
+ * which has the same properties as its superclass. Copying it as the superclass shares one converter among all of its proxies,
+ * instead of generating a converter for each proxy class.
+ * </p>
+ *
+ * @author tanyaofei
+ * @see ConverterConfiguration#getSourceTypeResolver()
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface SourceTypeResolver {
+
+  /**
+   * @return the default resolver, which unwraps the proxy classes generated by CGLIB, ByteBuddy and Javassist
+   */
+  @NotNull
+  static SourceTypeResolver getDefault() {
+    return Default.INSTANCE;
+  }
+
+  /**
+   * @return a resolver that returns the class of source object as is
+   */
+  @NotNull
+  static SourceTypeResolver identity() {
+    return Identity.INSTANCE;
+  }
+
+  /**
+   * Resolve the class that the objects of the specified class should be copied as.
+   * It is called for every copy, so it should be fast.
+   *
+   * @param sourceType the class of source object
+   * @return the specified class or one of its superclasses
+   */
+  @NotNull
+  Class<?> resolve(@NotNull Class<?> sourceType);
+
+  /**
+   * Returns the class of source object as is, the copier skips resolving when it is configured
+   */
+  final class Identity implements SourceTypeResolver {
+
+    private static final Identity INSTANCE = new Identity();
+
+    private Identity() {
+    }
+
+    @Override
+    @NotNull
+    public Class<?> resolve(@NotNull Class<?> sourceType) {
+      return sourceType;
+    }
+
+  }
+
+  /**
+   * Unwraps a proxy class to the nearest superclass that is not a proxy.
+   * A class is considered as a proxy if its name contains one of the {@link #PROXY_MARKERS}.
+   * The result of each class is computed once and kept alongside the class.
+   */
+  final class Default implements SourceTypeResolver {
+
+    /**
+     * The markers in the names of proxy classes generated by CGLIB (e.g. Spring), ByteBuddy (e.g. Hibernate) and Javassist
+     */
+    private static final String[] PROXY_MARKERS = {
+        ClassUtils.CGLIB_CLASS_SEPARATOR,
+        "$HibernateProxy$",
+        "$ByteBuddy$",
+        "_$$_jvst"
+    };
+
+    private static final Default INSTANCE = new Default();
+
+    private final ClassValue<Class<?>> resolved = new ClassValue<>() {
+      @Override
+      protected Class<?> computeValue(Class<?> type) {
+        var c = type;
+        while (isProxy(c) && c.getSuperclass() != null && c.getSuperclass() != Object.class) {
+          c = c.getSuperclass();
+        }
+        return c;
+      }
+    };
+
+    private Default() {
+    }
+
+    @Override
+    @NotNull
+    public Class<?> resolve(@NotNull Class<?> sourceType) {
+      return resolved.get(sourceType);
+    }
+
+    private static boolean isProxy(Class<?> c) {
+      var name = c.getName();
+      for (var marker : PROXY_MARKERS) {
+        if (name.contains(marker)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+  }
+
+}
@@ -0,0 +1,169 @@
+package io.github.tanyaofei.beancopier;
+
+import io.github.tanyaofei.beancopier.converter.Converter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A converter that copies by an interpreter until it has been called a number of times,
+ * then the converter class is generated in background and replaces the interpreter.
+ * <p>
+ * The pairs that are copied a few times, e.g. by an admin endpoint or a migration, never pay for generating a class,
+ * while the hot pairs reach the speed of generated converters soon.
+ * The invocations are counted without synchronization, the threshold is a hint rather than an exact number.
+ * </p>
+ *
+ * @param <S> the type of source
+ * @param <T> the type of target
+ * @author tanyaofei
+ * @see ConverterConfiguration#getCompileThreshold()
+ * @since 0.2.0
+ */
+final class TieredConverter<S, T> implements Converter<S, T> {
+
+  /**
+   * The interpreter at first, and the generated converter once it is compiled
+   */
+  private volatile Converter<S, T> delegate;
+
+  /**
+   * The generated converter, null until it is compiled
+   */
+  private volatile Converter<S, T> compiled;
+
+  /**
+   * The number of invocations before compiling
+   */
+  private final int threshold;
+
+  /**
+   * The executor to compile in background
+   */
+  private final Executor executor;
+
+  /**
+   * Compiles the specified converter synchronously and {@link #promote(Converter) promotes} it if succeeded
+   */
+  private final Consumer<TieredConverter<S, T>> compiler;
+
+  private final AtomicBoolean compilationRequested = new AtomicBoolean();
+
+  /**
+   * The {@link System#nanoTime()} before which the compilation is not requested, it is moved forward by {@link #defer(long)}
+   */
+  private volatile long notBefore = System.nanoTime();
+
+  /**
+   * Why the converter class failed to be generated, the interpreter is used for good once it is set
+   */
+  private volatile Throwable compileFailure;
+
+  private int invocations;
+
+  /**
+   * @param interpreter the converter to copy before compiled
+   * @param threshold   the number of invocations before compiling
+   * @param executor    the executor to compile in background
+   * @param compiler    compiles the specified converter synchronously and promotes it if succeeded
+   */
+  TieredConverter(
+      @NotNull Converter<S, T> interpreter,
+      int threshold,
+      @NotNull Executor executor,
+      @NotNull Consumer<TieredConverter<S, T>> compiler
+  ) {
+    this.delegate = interpreter;
+    this.threshold = threshold;
+    this.executor = executor;
+    this.compiler = compiler;
+  }
+
+  @Override
+  @Nullable
+  public T convert(@Nullable S source) {
+    count();
+    return delegate.convert(source);
+  }
+
+  @Override
+  public T convertInto(@Nullable S source, @NotNull T target) {
+    count();
+    return delegate.convertInto(source, target);
+  }
+
+  /**
+   * Compile the converter on the calling thread, unless it has been requested to compile
+   */
+  void compileNow() {
+    if (compilationRequested.compareAndSet(false, true)) {
+      compiler.accept(this);
+    }
+  }
+
+  /**
+   * Replace the interpreter with the generated converter
+   *
+   * @param compiled the generated converter
+   */
+  void promote(@NotNull Converter<S, T> compiled) {
+    this.delegate = compiled;
+    this.compiled = compiled;
+  }
+
+  /**
+   * @return the generated converter, or null if it is not compiled yet
+   */
+  @Nullable
+  Converter<S, T> getCompiled() {
+    return compiled;
+  }
+
+  /**
+   * Request to compile again after the specified delay, e.g. the generation was rate limited
+   *
+   * @param delayNanos the delay in nanoseconds
+   */
+  void defer(long delayNanos) {
+    this.notBefore = System.nanoTime() + delayNanos;
+    this.invocations = 0;
+    compilationRequested.set(false);
+  }
+
+  /**
+   * Record that the converter class failed to be generated, it is never requested to compile again
+   *
+   * @param cause the failure
+   */
+  void fail(@NotNull Throwable cause) {
+    this.compileFailure = cause;
+  }
+
+  /**
+   * @return why the converter class failed to be generated, or null if it did not fail
+   */
+  @Nullable
+  Throwable getCompileFailure() {
+    return compileFailure;
+  }
+
+  private void count() {
+    if (!compilationRequested.get()
+        && ++invocations >= threshold
+        && System.nanoTime() - notBefore >= 0
+        && compilationRequested.compareAndSet(false, true)) {
+      try {
+        executor.execute(() -> compiler.accept(this));
+      } catch (RejectedExecutionException e) {
+        // keep interpreting, try again at the next threshold
+        invocations = 0;
+        compilationRequested.set(false);
+      }
+    }
+  }
+
+}
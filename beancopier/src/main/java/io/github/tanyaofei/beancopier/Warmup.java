@@ -0,0 +1,110 @@
+package io.github.tanyaofei.beancopier;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The completion handle of {@link BeanCopierImpl#warmup(java.util.Collection, java.util.concurrent.Executor)}.
+ * <p>
+ * The timings and failures are filled in while the converters are being generated,
+ * they are complete once this warmup {@link #isDone() is done}.
+ * </p>
+ *
+ * <pre>{@code
+ * Warmup warmup = beanCopier.warmup(List.of(
+ *   ClassPair.of(UserEntity.class, UserDTO.class),
+ *   ClassPair.of(OrderEntity.class, OrderDTO.class)
+ * ), executor).join();
+ *
+ * warmup.getFailures().forEach((pair, e) -> log.warn("Failed to warm up {}", pair, e));
+ * }</pre>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+public final class Warmup {
+
+  /**
+   * The time taken to obtain the converter of each successful pair
+   */
+  private final Map<ClassPair, Duration> timings = new ConcurrentHashMap<>();
+
+  /**
+   * The exception thrown while generating the converter of each failed pair
+   */
+  private final Map<ClassPair, Throwable> failures = new ConcurrentHashMap<>();
+
+  /**
+   * Completes after all pairs are processed, never completes exceptionally
+   */
+  private final CompletableFuture<Warmup> completion = new CompletableFuture<>();
+
+  Warmup() {
+  }
+
+  void succeed(@NotNull ClassPair pair, long nanos) {
+    timings.put(pair, Duration.ofNanos(nanos));
+  }
+
+  void fail(@NotNull ClassPair pair, @NotNull Throwable e) {
+    failures.put(pair, e);
+  }
+
+  void complete() {
+    completion.complete(this);
+  }
+
+  /**
+   * @return whether all pairs are processed
+   */
+  public boolean isDone() {
+    return completion.isDone();
+  }
+
+  /**
+   * Wait until all pairs are processed
+   *
+   * @return this
+   */
+  @NotNull
+  public Warmup join() {
+    return completion.join();
+  }
+
+  /**
+   * @return a future that completes with this warmup after all pairs are processed, it never completes exceptionally
+   */
+  @NotNull
+  public CompletableFuture<Warmup> toCompletableFuture() {
+    return completion.copy();
+  }
+
+  /**
+   * @return the time taken to obtain the converter of each successful pair, a pair which had been cached takes almost no time
+   */
+  @NotNull
+  public Map<ClassPair, Duration> getTimings() {
+    return Collections.unmodifiableMap(timings);
+  }
+
+  /**
+   * @return the exception thrown while generating the converter of each failed pair
+   */
+  @NotNull
+  public Map<ClassPair, Throwable> getFailures() {
+    return Collections.unmodifiableMap(failures);
+  }
+
+  /**
+   * @return whether all pairs are processed and none of them failed
+   */
+  public boolean isSuccessful() {
+    return isDone() && failures.isEmpty();
+  }
+
+}
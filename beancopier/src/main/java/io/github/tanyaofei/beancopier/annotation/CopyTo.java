@@ -0,0 +1,35 @@
+package io.github.tanyaofei.beancopier.annotation;
+
+
+import java.lang.annotation.*;
+
+/**
+ * 声明拷贝目标, 用于在构建时预先生成转换器
+ *
+ * <pre>
+ *  {@literal @}CopyTo({UserDTO.class, UserVO.class})
+ *  public class User {
+ *      private String name;
+ *  }
+ * </pre>
+ *
+ * <p>
+ * 使用 {@code beancopier-maven-plugin} 构建时会为 {@code User -> UserDTO} 和 {@code User -> UserVO} 生成转换器类,
+ * 运行时将直接加载这些转换器而不再生成字节码
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CopyTo {
+
+  /**
+   * @return the classes that this class is copied to
+   * @since 0.2.0
+   */
+  Class<?>[] value();
+
+}
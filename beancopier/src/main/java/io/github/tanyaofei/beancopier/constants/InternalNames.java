@@ -10,9 +10,7 @@ public interface InternalNames {
 
   String Object = Type.getInternalName(Object.class);
 
-  String List = Type.getInternalName(java.util.List.class);
-
-  String LambdaMetafactory = Type.getInternalName(java.lang.invoke.LambdaMetafactory.class);
+  String RandomAccess = Type.getInternalName(java.util.RandomAccess.class);
 
   String[] AConverter = new String[]{Type.getInternalName(Converter.class)};
 
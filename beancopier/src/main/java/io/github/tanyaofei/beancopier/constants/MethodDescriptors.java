@@ -7,10 +7,10 @@ import org.objectweb.asm.Type;
  */
 public interface MethodDescriptors {
 
-  String LambdaMetafactory$metafactory = Type.getMethodDescriptor(Methods.lambdaMetaFactory$metafacotry());
-
   String Converter$convert = Type.getMethodDescriptor(Methods.Converter$convert());
 
+  String Converter$convertInto = Type.getMethodDescriptor(Methods.Converter$convertInto());
+
   String Object$init = "()V";
 
 }
@@ -8,12 +8,20 @@ import io.github.tanyaofei.beancopier.core.invoker.MethodInvoker;
  */
 public interface MethodInvokers {
 
-  MethodInvoker Stream$map = ExecutableInvoker.invoker(Methods.Stream$map());
+  MethodInvoker Converter$convert = ExecutableInvoker.invoker(Methods.Converter$convert());
 
-  MethodInvoker Stream$collect = ExecutableInvoker.invoker(Methods.Stream$collect());
+  MethodInvoker NestedConverters$link = ExecutableInvoker.invoker(Methods.NestedConverters$link());
 
-  MethodInvoker Collection$stream = ExecutableInvoker.invoker(Methods.Collection$stream());
+  MethodInvoker Collection$size = ExecutableInvoker.invoker(Methods.Collection$size());
 
-  MethodInvoker Collector$toList = ExecutableInvoker.invoker(Methods.Collectors$toList());
+  MethodInvoker Collection$iterator = ExecutableInvoker.invoker(Methods.Collection$iterator());
+
+  MethodInvoker Collection$add = ExecutableInvoker.invoker(Methods.Collection$add());
+
+  MethodInvoker List$get = ExecutableInvoker.invoker(Methods.List$get());
+
+  MethodInvoker Iterator$hasNext = ExecutableInvoker.invoker(Methods.Iterator$hasNext());
+
+  MethodInvoker Iterator$next = ExecutableInvoker.invoker(Methods.Iterator$next());
 
 }
@@ -5,14 +5,18 @@ package io.github.tanyaofei.beancopier.constants;
  */
 public interface MethodNames {
 
-  String lambda$convert$0 = "lambda$convert$0";
+  String copy$ = "copy$";
 
-  String Object$init = "<init>";
+  String value$ = "value$";
+
+  String nested$ = "nested$";
 
-  String Lambda$Metafactory$metafactory = "metafactory";
+  String Class$clinit = "<clinit>";
 
-  String Function$apply = "apply";
+  String Object$init = "<init>";
 
   String Converter$convert = "convert";
 
+  String Converter$convertInto = "convertInto";
+
 }
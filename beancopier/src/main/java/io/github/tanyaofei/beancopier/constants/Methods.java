@@ -1,18 +1,13 @@
 package io.github.tanyaofei.beancopier.constants;
 
 import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.core.NestedConverters;
 import lombok.SneakyThrows;
 
-import java.lang.invoke.LambdaMetafactory;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Collection;
-import java.util.function.Function;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * @author tanyaofei
@@ -25,34 +20,43 @@ public interface Methods {
   }
 
   @SneakyThrows
-  static Method Collection$stream() {
-    return Collection.class.getMethod("stream");
+  static Method Converter$convertInto() {
+    return Converter.class.getMethod("convertInto", Object.class, Object.class);
   }
 
   @SneakyThrows
-  static Method Stream$map() {
-    return Stream.class.getMethod("map", Function.class);
+  static Method NestedConverters$link() {
+    return NestedConverters.class.getMethod("link", Class.class, Class.class);
   }
 
   @SneakyThrows
-  static Method Stream$collect() {
-    return Stream.class.getMethod("collect", Collector.class);
+  static Method Collection$size() {
+    return Collection.class.getMethod("size");
   }
 
   @SneakyThrows
-  static Method Collectors$toList() {
-    return Collectors.class.getMethod("toList");
+  static Method Collection$iterator() {
+    return Collection.class.getMethod("iterator");
   }
 
   @SneakyThrows
-  static Method lambdaMetaFactory$metafacotry() {
-    return LambdaMetafactory.class.getMethod("metafactory",
-        MethodHandles.Lookup.class,
-        String.class,
-        MethodType.class,
-        MethodType.class,
-        MethodHandle.class,
-        MethodType.class);
+  static Method Collection$add() {
+    return Collection.class.getMethod("add", Object.class);
+  }
+
+  @SneakyThrows
+  static Method List$get() {
+    return List.class.getMethod("get", int.class);
+  }
+
+  @SneakyThrows
+  static Method Iterator$hasNext() {
+    return Iterator.class.getMethod("hasNext");
+  }
+
+  @SneakyThrows
+  static Method Iterator$next() {
+    return Iterator.class.getMethod("next");
   }
 
 }
@@ -4,15 +4,11 @@ import io.github.tanyaofei.beancopier.annotation.Property;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
 import lombok.SneakyThrows;
 
-import java.util.WeakHashMap;
-
 /**
  * @author tanyaofei
  */
 public interface Properties {
 
-  WeakHashMap<BeanMember, Property> propertiesCache = new WeakHashMap<>(32);
-
   Property defaultProperty = defaultProperty();
 
   @SneakyThrows
@@ -27,19 +23,18 @@ public interface Properties {
 
   }
 
+  /**
+   * Return the {@link Property} of the specified member.
+   * <p>
+   * It reads the annotation every time, the result is cached in {@link io.github.tanyaofei.beancopier.utils.reflection.BeanMetadata}
+   * </p>
+   *
+   * @param member the member
+   * @return the {@link Property} of the member, or {@link #defaultProperty} if it is not annotated
+   */
   static Property getOrDefault(BeanMember member) {
-    Property property = propertiesCache.get(member);
-    if (property == null) {
-      property = member.getAnnotation(Property.class);
-      if (property == null) {
-        property = defaultProperty;
-      }
-      synchronized (propertiesCache) {
-        propertiesCache.put(member, property);
-      }
-    }
-    return property;
+    var property = member.getAnnotation(Property.class);
+    return property == null ? defaultProperty : property;
   }
 
-
 }
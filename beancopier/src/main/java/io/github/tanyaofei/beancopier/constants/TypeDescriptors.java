@@ -7,6 +7,6 @@ import org.objectweb.asm.Type;
  */
 public interface TypeDescriptors {
 
-  String Function = Type.getDescriptor(java.util.function.Function.class);
+  String Converter = Type.getDescriptor(io.github.tanyaofei.beancopier.converter.Converter.class);
 
 }
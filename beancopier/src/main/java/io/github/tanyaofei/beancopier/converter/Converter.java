@@ -1,7 +1,13 @@
 package io.github.tanyaofei.beancopier.converter;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * A converter the used to copy properties of source to target.
  * The implementations class will be dynamically generated at runtime by {@link io.github.tanyaofei.beancopier.core.ConverterFactory} using ASM technology.
@@ -25,4 +31,48 @@ public interface Converter<S, T> {
   @Nullable
   T convert(@Nullable S source);
 
+  /**
+   * Copy the properties of source to an existing target.
+   * <ol>
+   *   <li>Return the target without any modification if source is null</li>
+   *   <li>Return the target that has copied fields from source</li>
+   * </ol>
+   * <p>The generated converters implement this method if the target is instantiated by a no-args-constructor,
+   * an immutable target such as {@link Record} is not supported.</p>
+   *
+   * @param source An object that used to copy
+   * @param target An object that copy to
+   * @return the target
+   * @throws UnsupportedOperationException if the target can not be modified
+   * @since 0.2.0
+   */
+  default T convertInto(@Nullable S source, @NotNull T target) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support copying to an existing target");
+  }
+
+  /**
+   * Convert each element of sources.
+   *
+   * @param sources Objects that used to copy
+   * @return the targets, has the same size and order as sources. The element will be null if the source element is null.
+   * @since 0.2.0
+   */
+  @NotNull
+  default List<T> convertList(@NotNull Collection<? extends S> sources) {
+    var targets = new ArrayList<T>(sources.size());
+    for (var source : sources) {
+      targets.add(convert(source));
+    }
+    return targets;
+  }
+
+  /**
+   * @return a function that calls {@link #convert(Object)}, for example using in {@code stream.map(converter.asFunction())}
+   * @since 0.2.0
+   */
+  @NotNull
+  default Function<S, T> asFunction() {
+    return this::convert;
+  }
+
 }
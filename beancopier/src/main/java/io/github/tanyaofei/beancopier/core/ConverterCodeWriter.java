@@ -1,23 +1,29 @@
 package io.github.tanyaofei.beancopier.core;
 
+import io.github.tanyaofei.beancopier.annotation.Property;
 import io.github.tanyaofei.beancopier.constants.*;
 import io.github.tanyaofei.beancopier.converter.Converter;
 import io.github.tanyaofei.beancopier.core.instancer.AllArgsConstructorInstancer;
 import io.github.tanyaofei.beancopier.core.instancer.NoArgsConstructorInstancer;
+import io.github.tanyaofei.beancopier.core.invoker.ConstructorInvoker;
 import io.github.tanyaofei.beancopier.core.local.LocalDefiner;
 import io.github.tanyaofei.beancopier.core.local.LocalDefiners;
 import io.github.tanyaofei.beancopier.core.local.LocalDefinition;
 import io.github.tanyaofei.beancopier.core.local.LocalsDefinitionContext;
 import io.github.tanyaofei.beancopier.utils.ClassSignature;
-import io.github.tanyaofei.beancopier.utils.reflection.Reflections;
+import io.github.tanyaofei.beancopier.utils.reflection.BeanMetadata;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * 转换器字节码编写工具
@@ -27,10 +33,69 @@ import java.util.stream.StreamSupport;
 public class ConverterCodeWriter implements Opcodes, Methods {
 
   private final static LocalDefiner definer = LocalDefiners.getDefiner();
+
+  /**
+   * 目标类的属性数量达到该值时, 拷贝代码被拆分到多个私有方法中,
+   * 避免 convert 方法超过 HotSpot 的 HugeMethodLimit (8000 字节) 而永远无法被 JIT 编译.
+   * PerformanceTest#testWideBeanSweep 显示 32 个属性时每个属性的耗时已开始上升, 因此 32 个属性也会拆分
+   */
+  private final static int SPLIT_THRESHOLD = 32;
+
+  /**
+   * 拆分出的拷贝方法的字节码长度达到该值后开始编写下一个方法, 使每个方法通常小于 HotSpot 的 FreqInlineSize (325 字节)
+   */
+  private final static int SPLIT_METHOD_SIZE = 200;
+
   private final ConverterDefinition definition;
 
+  /**
+   * 目标类中需要赋值的属性
+   */
+  private final List<BeanMember> targetMembers;
+
+  /**
+   * 目标类属性的 {@link Property} 配置, 与 {@link #targetMembers} 一一对应
+   */
+  private final List<Property> targetProperties;
+
+  /**
+   * 目标类属性对应的来源属性名称, 与 {@link #targetMembers} 一一对应, 为 null 时使用目标类属性名称
+   */
+  private final List<String> sourceNames;
+
+  /**
+   * 来源类中有 getter 的属性
+   */
+  private final Map<String, BeanMember> sourceMembers;
+
+  /**
+   * 是否将拷贝代码拆分到多个私有方法中
+   */
+  private final boolean split;
+
+  /**
+   * 拆分出的 {@code copy$n} 方法数量
+   */
+  private int copyMethods;
+
   public ConverterCodeWriter(ConverterDefinition definition) {
     this.definition = definition;
+
+    var configuration = definition.getConfiguration();
+    var includingSuper = configuration.isIncludingSuper();
+    var publicFields = configuration.isDirectFieldAccess();
+    var targetMetadata = BeanMetadata.of(definition.getTargetType(), publicFields);
+    var propertySupported = configuration.isPropertySupported();
+    this.targetMembers = targetMetadata.getMembersWithSetter(includingSuper);
+    this.targetProperties = propertySupported
+        ? targetMetadata.getSetterProperties(includingSuper)
+        : Collections.nCopies(targetMembers.size(), Properties.defaultProperty);
+    // use filed name if it is cloning other while use value() of @Property and fallback to field name if it's empty
+    this.sourceNames = propertySupported && !definition.isClone()
+        ? targetMetadata.getSetterAliases(includingSuper)
+        : null;
+    this.sourceMembers = BeanMetadata.of(definition.getSourceType(), publicFields).getMembersWithGetterByName(includingSuper);
+    this.split = targetMembers.size() >= SPLIT_THRESHOLD;
   }
 
   /**
@@ -56,10 +121,10 @@ public class ConverterCodeWriter implements Opcodes, Methods {
   public byte[] write() {
     var sourceType = definition.getSourceType();
     var tc = definition.getTargetType();
-    var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+    var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);  // the stack map frames are written explicitly
     cw.visit(
         V1_8,
-        ACC_PUBLIC | ACC_SYNTHETIC,
+        ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC,
         definition.getInternalName(),
         ClassSignature.getClassSignature(
             ClassInfos.Object,
@@ -70,15 +135,54 @@ public class ConverterCodeWriter implements Opcodes, Methods {
     );
     cw.visitSource("<generated>", null);
     genConstructor(cw);
+    if (split) {
+      genSplitMethods(cw);
+    }
     genConvertMethod(cw);
-    genLambda$convert$0Method(cw);
     if (sourceType != Object.class || tc != Object.class) {
       genConvertBridgeMethod(cw);
     }
+    if (definition.getInstantiateMode() == InstantiateMode.NO_ARGS_CONSTRUCTOR_THEN_GET_SET) {
+      genConvertIntoMethod(cw);
+      if (sourceType != Object.class || tc != Object.class) {
+        genConvertIntoBridgeMethod(cw);
+      }
+    }
+    genLinkedConverters(cw);
 
     return cw.toByteArray();
   }
 
+  /**
+   * 编写链接的嵌套转换器字段, 以及在静态初始化方法中为其赋值的代码, 字段在编写其他方法时由 {@link ConverterDefinition#link(Class, Class)} 登记
+   * <pre>{@code
+   * private static final Converter nested$0 = NestedConverters.link(Customer.class, CustomerDTO.class);
+   * }</pre>
+   *
+   * @param cw ClassWriter
+   * @see NestedConverters
+   */
+  private void genLinkedConverters(ClassWriter cw) {
+    var linkedTypes = definition.getLinkedTypes();
+    if (linkedTypes.isEmpty()) {
+      return;
+    }
+
+    var v = cw.visitMethod(ACC_STATIC | ACC_SYNTHETIC, MethodNames.Class$clinit, MethodDescriptors.Object$init, null, null);
+    v.visitCode();
+    for (int i = 0; i < linkedTypes.size(); i++) {
+      var name = MethodNames.nested$ + i;
+      cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC, name, TypeDescriptors.Converter, null, null).visitEnd();
+      v.visitLdcInsn(org.objectweb.asm.Type.getType(linkedTypes.get(i).get(0)));
+      v.visitLdcInsn(org.objectweb.asm.Type.getType(linkedTypes.get(i).get(1)));
+      MethodInvokers.NestedConverters$link.invoke(v);
+      v.visitFieldInsn(PUTSTATIC, definition.getInternalName(), name, TypeDescriptors.Converter);
+    }
+    v.visitInsn(RETURN);
+    v.visitMaxs(-1, -1);
+    v.visitEnd();
+  }
+
   /**
    * 编写如果为 null 直接返回 null 的代码片段
    * <pre>{@code
@@ -97,26 +201,24 @@ public class ConverterCodeWriter implements Opcodes, Methods {
     v.visitInsn(ACONST_NULL);
     v.visitInsn(ARETURN);
     v.visitLabel(ifnonnull);
+    v.visitFrame(F_SAME, 0, null, 0, null);
   }
 
   /**
    * 编写转换方法 {@link Converter#convert(Object)}
-   * <pre>{@code
-   * var var2 = source.getVar2();
-   * var var3 = source.getVar3();
-   * }</pre>
-   *
    * <ul>
-   *   <li>如果 target 为 {@link Record} 类，那么接下来会写入</li>
+   *   <li>如果 target 为 {@link Record} 类, 先将所有值存入局部变量再调用构造器</li>
    *   <pre>{@code
+   *   var var2 = source.getVar2();
+   *   var var3 = source.getVar3();
    *   var target = new Target(var2, var3);
    *   }
    *   </pre>
-   *   <li>否则接下来将写入</li>
+   *   <li>否则先创建 target, 每个值直接传给 setter</li>
    *   <pre>{@code
    *   var target = new Target();
-   *   target.setVar2(var2);
-   *   target.setVar3(var3);
+   *   target.setVar2(source.getVar2());
+   *   target.setVar3(source.getVar3());
    *   }</pre>
    * </ul>
    * <br>
@@ -128,7 +230,6 @@ public class ConverterCodeWriter implements Opcodes, Methods {
    * @param cw ClassWriter
    */
   private void genConvertMethod(ClassWriter cw) {
-    var configuration = definition.getConfiguration();
     var v = cw.visitMethod(
         ACC_PUBLIC,
         MethodNames.Converter$convert,
@@ -139,56 +240,47 @@ public class ConverterCodeWriter implements Opcodes, Methods {
     v.visitCode();
 
     returnNullIfNull(v);
+    int targetStore = genCopy(v, 2, false);  // 0: this, 1: source object ref
 
-    var targetMembers = Reflections.getMembersWithSetter(definition.getTargetType(), configuration.isIncludingSuper());
-    var sourceMembers = BeanMember.mapIterable(Reflections.getMembersWithGetter(definition.getSourceType(), configuration.isIncludingSuper()));
+    v.visitVarInsn(ALOAD, targetStore);
+    v.visitInsn(ARETURN);
+    v.visitMaxs(-1, -1);
+    v.visitEnd();
+  }
 
-    int firstLocalStore = 2;  // 0: this, 1: source object ref
-    var context = new LocalsDefinitionContext()
-        .setSourceMembers(sourceMembers)
-        .setNextStore(firstLocalStore);
+  /**
+   * 编写转换方法 {@link Converter#convertInto(Object, Object)}, 与 {@link #genConvertMethod(ClassWriter)} 相同, 但是不创建新的 target
+   * <pre>{@code
+   * if (source == null) {
+   *   return target;
+   * }
+   * target.setVar2(source.getVar2());
+   * target.setVar3(source.getVar3());
+   * return target;
+   * }</pre>
+   *
+   * @param cw ClassWriter
+   */
+  private void genConvertIntoMethod(ClassWriter cw) {
+    var v = cw.visitMethod(
+        ACC_PUBLIC,
+        MethodNames.Converter$convertInto,
+        definition.getConvertIntoMethodDescriptor(),
+        null,
+        null
+    );
+    v.visitCode();
 
-    for (var tm : targetMembers) {
-      var property = configuration.isPropertySupported()
-          ? Properties.getOrDefault(tm)
-          : Properties.defaultProperty;
-      definer.define(
-          v,
-          definition,
-          LocalDefinition
-              .builder()
-              // use filed name if it is cloning other while use value() of @Property and fallback to field name if it's empty
-              .name(definition.isClone() ? tm.getName() : property.value().isEmpty() ? tm.getName() : property.value())
-              .type(tm.getType())
-              .genericType(tm.getGenericType())
-              .skip(property.skip())
-              .build(),
-          context
-      );
-    }
+    // if (source == null) return target;
+    var ifnonnull = new Label();
+    v.visitVarInsn(ALOAD, 1);
+    v.visitJumpInsn(IFNONNULL, ifnonnull);
+    v.visitVarInsn(ALOAD, 2);
+    v.visitInsn(ARETURN);
+    v.visitLabel(ifnonnull);
+    v.visitFrame(F_SAME, 0, null, 0, null);
 
-    int targetStore = context.getNextStore();
-    var instancer = switch (definition.getInstantiateMode()) {
-      case ALL_ARGS_CONSTRUCTOR -> new AllArgsConstructorInstancer(
-          v,
-          definition,
-          targetStore,
-          targetMembers,
-          firstLocalStore
-      );
-      case NO_ARGS_CONSTRUCTOR_THEN_GET_SET -> new NoArgsConstructorInstancer(
-          v,
-          definition,
-          targetStore,
-          targetMembers,
-          StreamSupport
-              .stream(targetMembers.spliterator(), true)
-              .filter(m -> (configuration.isPropertySupported() ? Properties.getOrDefault(m) : Properties.defaultProperty).skip())
-              .collect(Collectors.toSet()),
-          firstLocalStore
-      );
-    };
-    instancer.instantiate();
+    int targetStore = genCopy(v, 3, true);  // 0: this, 1: source object ref, 2: target object ref
 
     v.visitVarInsn(ALOAD, targetStore);
     v.visitInsn(ARETURN);
@@ -196,6 +288,228 @@ public class ConverterCodeWriter implements Opcodes, Methods {
     v.visitEnd();
   }
 
+  /**
+   * 编写拷贝字段的代码片段, 如果目标类属性过多, 改为调用 {@link #genSplitMethods(ClassWriter)} 编写的私有方法
+   *
+   * @param v               方法编写器
+   * @param firstLocalStore 第一个局部变量的下标
+   * @param existingTarget  是否拷贝到已经存在的 target, 如果是, target 位于局部变量表下标 {@code firstLocalStore - 1} 中, 仅支持无参构造器创建的 target
+   * @return target 位于局部变量表中的下标
+   */
+  private int genCopy(MethodVisitor v, int firstLocalStore, boolean existingTarget) {
+    var context = newContext(firstLocalStore, existingTarget);
+    var valueWriter = valueWriter(v, context);
+
+    if (definition.getInstantiateMode() == InstantiateMode.NO_ARGS_CONSTRUCTOR_THEN_GET_SET) {
+      // 先创建 target, 每个值压入操作数栈后直接传给 setter, 不需要局部变量暂存
+      int targetStore = existingTarget ? firstLocalStore - 1 : firstLocalStore;
+      if (split) {
+        if (!existingTarget) {
+          ConstructorInvoker.fromNoArgsConstructor(definition.getTargetType()).invoke(v);
+          v.visitVarInsn(ASTORE, targetStore);
+        }
+        for (int i = 0; i < copyMethods; i++) {
+          v.visitVarInsn(ALOAD, 0);
+          v.visitVarInsn(ALOAD, 1);
+          v.visitVarInsn(ALOAD, targetStore);
+          v.visitMethodInsn(INVOKESPECIAL, definition.getInternalName(), MethodNames.copy$ + i, copyMethodDescriptor(), false);
+        }
+        return targetStore;
+      }
+      context.setStreamed(true);
+      new NoArgsConstructorInstancer(
+          v,
+          definition,
+          targetStore,
+          targetMembers,
+          skippedMembers(),
+          context,
+          !existingTarget,
+          valueWriter
+      ).instantiate();
+      return targetStore;
+    }
+
+    // 所有参数构造器需要同时使用所有值, 先依次存入局部变量表
+    for (int i = 0; i < targetMembers.size(); i++) {
+      if (split) {
+        var type = targetMembers.get(i).getType();
+        var op = LocalOpcode.ofType(type);
+        v.visitVarInsn(ALOAD, 0);
+        v.visitVarInsn(ALOAD, 1);
+        v.visitMethodInsn(INVOKESPECIAL, definition.getInternalName(), MethodNames.value$ + i, valueMethodDescriptor(type), false);
+        v.visitVarInsn(op.storeOpcode, context.getNextStore());
+        context.addLocal(type, op.slots);
+      } else {
+        valueWriter.accept(i);
+      }
+    }
+    int targetStore = context.getNextStore();
+    context.addLocal(definition.getTargetType(), 1);
+    new AllArgsConstructorInstancer(
+        v,
+        definition,
+        targetStore,
+        targetMembers,
+        firstLocalStore
+    ).instantiate();
+    return targetStore;
+  }
+
+  /**
+   * 编写拆分出的私有方法, 由 convert 和 convertInto 调用
+   * <ul>
+   *   <li>如果 target 使用无参构造器创建, 每个方法为一部分属性赋值, 字节码长度达到 {@link #SPLIT_METHOD_SIZE} 后开始编写下一个方法</li>
+   *   <pre>{@code
+   *   private void copy$0(Source source, Target target) {
+   *     target.setVar2(source.getVar2());
+   *     target.setVar3(source.getVar3());
+   *   }
+   *   }</pre>
+   *   <li>否则每个方法返回一个属性的值, 构造器参数最多占用 255 个槽位, 因此依次调用这些方法的 convert 方法不会过大</li>
+   *   <pre>{@code
+   *   private String value$0(Source source) {
+   *     return source.getVar2();
+   *   }
+   *   }</pre>
+   * </ul>
+   *
+   * @param cw ClassWriter
+   */
+  private void genSplitMethods(ClassWriter cw) {
+    if (definition.getInstantiateMode() == InstantiateMode.NO_ARGS_CONSTRUCTOR_THEN_GET_SET) {
+      var skippedMembers = skippedMembers();
+      int i = 0;
+      while (i < targetMembers.size()) {
+        var v = cw.visitMethod(ACC_PRIVATE | ACC_SYNTHETIC, MethodNames.copy$ + copyMethods++, copyMethodDescriptor(), null, null);
+        v.visitCode();
+        var context = newContext(3, true).setStreamed(true);  // 0: this, 1: source object ref, 2: target object ref
+        var instancer = new NoArgsConstructorInstancer(
+            v,
+            definition,
+            2,
+            targetMembers,
+            skippedMembers,
+            context,
+            false,
+            valueWriter(v, context)
+        );
+        do {
+          instancer.assign(i++);
+        } while (i < targetMembers.size() && codeSize(v) < SPLIT_METHOD_SIZE);
+        v.visitInsn(RETURN);
+        v.visitMaxs(-1, -1);
+        v.visitEnd();
+      }
+      return;
+    }
+
+    for (int i = 0; i < targetMembers.size(); i++) {
+      var type = targetMembers.get(i).getType();
+      var v = cw.visitMethod(ACC_PRIVATE | ACC_SYNTHETIC, MethodNames.value$ + i, valueMethodDescriptor(type), null, null);
+      v.visitCode();
+      var context = newContext(2, false).setStreamed(true);  // 0: this, 1: source object ref
+      valueWriter(v, context).accept(i);
+      v.visitInsn(org.objectweb.asm.Type.getType(type).getOpcode(IRETURN));
+      v.visitMaxs(-1, -1);
+      v.visitEnd();
+    }
+  }
+
+  /**
+   * 返回方法当前已编写的字节码长度
+   *
+   * @param v 方法编写器, 必须由 {@link ClassWriter} 创建
+   * @return 字节码长度
+   */
+  private static int codeSize(MethodVisitor v) {
+    var label = new Label();
+    v.visitLabel(label);
+    return label.getOffset();
+  }
+
+  /**
+   * @return {@code copy$n} 方法的描述符 {@code (Source, Target)void}
+   */
+  private String copyMethodDescriptor() {
+    return org.objectweb.asm.Type.getMethodDescriptor(
+        org.objectweb.asm.Type.VOID_TYPE,
+        org.objectweb.asm.Type.getType(definition.getSourceType()),
+        org.objectweb.asm.Type.getType(definition.getTargetType())
+    );
+  }
+
+  /**
+   * @param type 属性类型
+   * @return {@code value$n} 方法的描述符 {@code (Source)Type}
+   */
+  private String valueMethodDescriptor(Class<?> type) {
+    return org.objectweb.asm.Type.getMethodDescriptor(
+        org.objectweb.asm.Type.getType(type),
+        org.objectweb.asm.Type.getType(definition.getSourceType())
+    );
+  }
+
+  /**
+   * 创建局部变量定义上下文
+   *
+   * @param firstLocalStore 第一个局部变量的下标
+   * @param withTarget      方法参数是否包含 target
+   * @return 局部变量定义上下文
+   */
+  private LocalsDefinitionContext newContext(int firstLocalStore, boolean withTarget) {
+    return new LocalsDefinitionContext()
+        .setSourceMembers(sourceMembers)
+        .setNextStore(firstLocalStore)
+        .setInitialFrameLocals(argumentFrameLocals(withTarget));
+  }
+
+  /**
+   * 返回将指定下标的目标属性的值压入操作数栈的代码编写器
+   *
+   * @param v       方法编写器
+   * @param context 局部变量定义上下文
+   * @return 参数为目标属性下标的代码编写器
+   */
+  private IntConsumer valueWriter(MethodVisitor v, LocalsDefinitionContext context) {
+    return i -> definer.define(
+        v,
+        definition,
+        LocalDefinition
+            .builder()
+            .name(sourceNames == null ? targetMembers.get(i).getName() : sourceNames.get(i))
+            .type(targetMembers.get(i).getType())
+            .genericType(targetMembers.get(i).getGenericType())
+            .skip(targetProperties.get(i).skip())
+            .build(),
+        context
+    );
+  }
+
+  /**
+   * 返回方法开始时局部变量表的栈映射帧类型
+   *
+   * @param withTarget 方法参数是否包含 target
+   * @return {@code [this, source]} 或 {@code [this, source, target]}
+   */
+  private Object[] argumentFrameLocals(boolean withTarget) {
+    var thisType = definition.getInternalName();
+    var sourceType = org.objectweb.asm.Type.getInternalName(definition.getSourceType());
+    return withTarget
+        ? new Object[]{thisType, sourceType, org.objectweb.asm.Type.getInternalName(definition.getTargetType())}
+        : new Object[]{thisType, sourceType};
+  }
+
+  private Set<BeanMember> skippedMembers() {
+    var skipped = new HashSet<BeanMember>();
+    for (int i = 0; i < targetMembers.size(); i++) {
+      if (targetProperties.get(i).skip()) {
+        skipped.add(targetMembers.get(i));
+      }
+    }
+    return skipped;
+  }
+
   /**
    * 编写 convert 的桥接方法
    * <pre>{@code
@@ -231,31 +545,37 @@ public class ConverterCodeWriter implements Opcodes, Methods {
   }
 
   /**
-   * 编写用于集合嵌套拷贝避免空指针错误的 lambda 方法
+   * 编写 convertInto 的桥接方法
    * <pre>{@code
-   * this::convert
+   * public Object convertInto(Object source, Object target) {
+   *   return convertInto((Source) source, (Target) target);
+   * }
    * }</pre>
    *
-   * @param cw ClassWriter
+   * @param cw 类编写器
    */
-  private void genLambda$convert$0Method(
+  private void genConvertIntoBridgeMethod(
       ClassWriter cw
   ) {
-    var convertDescriptor = definition.getConvertMethodDescriptor();
     var v = cw.visitMethod(
-        ACC_PRIVATE | ACC_SYNTHETIC,
-        MethodNames.lambda$convert$0,
-        convertDescriptor,
+        ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC,
+        MethodNames.Converter$convertInto,
+        MethodDescriptors.Converter$convertInto,
         null,
-        null
-    );
-
+        null);
     v.visitCode();
     v.visitVarInsn(ALOAD, 0);
     v.visitVarInsn(ALOAD, 1);
-    v.visitMethodInsn(INVOKEVIRTUAL, definition.getInternalName(), MethodNames.Converter$convert, convertDescriptor, false);
+    v.visitTypeInsn(CHECKCAST, org.objectweb.asm.Type.getInternalName(definition.getSourceType()));
+    v.visitVarInsn(ALOAD, 2);
+    v.visitTypeInsn(CHECKCAST, org.objectweb.asm.Type.getInternalName(definition.getTargetType()));
+    v.visitMethodInsn(
+        INVOKEVIRTUAL,
+        definition.getInternalName(),
+        MethodNames.Converter$convertInto,
+        definition.getConvertIntoMethodDescriptor(),
+        false);
     v.visitInsn(ARETURN);
-
     v.visitMaxs(-1, -1);
     v.visitEnd();
   }
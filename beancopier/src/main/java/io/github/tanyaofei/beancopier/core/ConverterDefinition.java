@@ -8,6 +8,11 @@ import lombok.Data;
 import lombok.experimental.Accessors;
 import org.objectweb.asm.Type;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Accessors(chain = true)
 public class ConverterDefinition {
@@ -32,6 +37,11 @@ public class ConverterDefinition {
    */
   private final String convertMethodDescriptor;
 
+  /**
+   * The method descriptor of {@link Converter#convertInto(Object, Object)} implementer
+   */
+  private final String convertIntoMethodDescriptor;
+
   /**
    * The configuration of the converter that is about to be generated
    */
@@ -49,6 +59,14 @@ public class ConverterDefinition {
    */
   private final InstantiateMode instantiateMode;
 
+  /**
+   * The classes of the {@link ConverterConfiguration#isCrossTypeNested() nested properties} whose converters are linked into the converter,
+   * each element is {@code [sourceType, targetType]}, and the linked converter of the element at index i is kept in the static field {@code nested$i}
+   *
+   * @see NestedConverters
+   */
+  private final List<List<Class<?>>> linkedTypes = new ArrayList<>();
+
   public ConverterDefinition(
       String internalName,
       Class<?> sourceType,
@@ -61,8 +79,57 @@ public class ConverterDefinition {
     this.targetType = targetType;
     this.configuration = configuration;
     this.convertMethodDescriptor = Type.getMethodDescriptor(Type.getType(targetType), Type.getType(sourceType));
+    this.convertIntoMethodDescriptor = Type.getMethodDescriptor(Type.getType(targetType), Type.getType(sourceType), Type.getType(targetType));
     this.clone = sourceType.equals(targetType);
     this.instantiateMode = instantiateMode;
   }
 
+  /**
+   * Return the index of the linked converter of the specified classes, it is linked if it is not yet
+   *
+   * @param sourceType the class of nested source
+   * @param targetType the class of nested target
+   * @return the index in {@link #linkedTypes}
+   * @since 0.2.0
+   */
+  public int link(Class<?> sourceType, Class<?> targetType) {
+    var types = List.<Class<?>>of(sourceType, targetType);
+    int index = linkedTypes.indexOf(types);
+    if (index < 0) {
+      index = linkedTypes.size();
+      linkedTypes.add(types);
+    }
+    return index;
+  }
+
+  /**
+   * Return whether the converter class is able to access the specified field directly.
+   * <ul>
+   *   <li>A public field of a public class is accessible to all converters</li>
+   *   <li>A private field is accessible to the {@link ConverterConfiguration#getHiddenClassLookup() hidden} converters that are the nestmates of its class</li>
+   *   <li>The other fields are accessible to the hidden converters in the same package</li>
+   * </ul>
+   *
+   * @param field the field of source or target
+   * @return true if the field is accessible
+   */
+  public boolean canAccess(Field field) {
+    var declaringClass = field.getDeclaringClass();
+    var modifiers = field.getModifiers();
+    if (Modifier.isPublic(modifiers) && Modifier.isPublic(declaringClass.getModifiers())) {
+      return true;
+    }
+
+    var lookup = configuration.getHiddenClassLookup();
+    if (lookup == null) {
+      return false;
+    }
+    // a hidden converter is a nestmate of the lookup class
+    var host = lookup.lookupClass();
+    if (Modifier.isPrivate(modifiers)) {
+      return host.getNestHost() == declaringClass.getNestHost();
+    }
+    return host.getClassLoader() == declaringClass.getClassLoader() && host.getPackageName().equals(declaringClass.getPackageName());
+  }
+
 }
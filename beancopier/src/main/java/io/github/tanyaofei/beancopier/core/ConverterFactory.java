@@ -2,6 +2,7 @@ package io.github.tanyaofei.beancopier.core;
 
 import io.github.tanyaofei.beancopier.ConverterClassLoader;
 import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.NamingPolicy;
 import io.github.tanyaofei.beancopier.constants.InstantiateMode;
 import io.github.tanyaofei.beancopier.constants.Methods;
 import io.github.tanyaofei.beancopier.converter.Converter;
@@ -11,8 +12,11 @@ import io.github.tanyaofei.beancopier.utils.BytecodeUtils;
 import io.github.tanyaofei.beancopier.utils.StringUtils;
 import io.github.tanyaofei.beancopier.utils.breakout.HackerClassLoader;
 import io.github.tanyaofei.beancopier.utils.breakout.Injector;
+import io.github.tanyaofei.beancopier.utils.reflection.BeanMetadata;
 import io.github.tanyaofei.beancopier.utils.reflection.Reflections;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Opcodes;
 
 import java.io.File;
@@ -20,12 +24,13 @@ import java.io.FileOutputStream;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Proxy;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import static java.lang.reflect.Modifier.isAbstract;
@@ -41,49 +46,27 @@ import static java.lang.reflect.Modifier.isPublic;
 public class ConverterFactory implements Opcodes, Methods {
 
   /**
-   * The defineClass method handle of {@link ClassLoader}
+   * The classnames register in each classloader
    */
-  private static final MethodHandle defineClass;
+  private final static ReservedClassNames reservedClassNames = new ReservedClassNames();
+
+  private final ConverterConfiguration configuration;
 
   /**
-   * The classnames register in each classloader
+   * The converters generated ahead of time
    */
-  private final static WeakHashMap<ClassLoader, Set<String>> classLoaderReservedClassNames = new WeakHashMap<>(4);
-
-  // breakup module protection and initial "defineClass" field
-  static {
-    try {
-      breakupJDK9ModuleProtection();
-      var field = MethodHandles.Lookup.class.getDeclaredField("IMPL_LOOKUP");
-      field.setAccessible(true);
-      var truestedLookup = (MethodHandles.Lookup) field.get(MethodHandles.Lookup.class);
-      defineClass = truestedLookup.findSpecial(
-          ClassLoader.class,
-          "defineClass",
-          MethodType.methodType(Class.class, String.class, byte[].class, int.class, int.class),
-          ClassLoader.class
-      );
-    } catch (Throwable e) {
-      throw new ExceptionInInitializerError(e);
-    }
-  }
+  private final PregeneratedConverters pregeneratedConverters;
 
   /**
-   * Break up JDK9+ module protection
+   * The converter classes kept across JVM restarts, null if it is disabled
    */
-  @SuppressWarnings("all")
-  private static void breakupJDK9ModuleProtection() throws ClassNotFoundException {
-    var cl = new HackerClassLoader();
-    var proxy = Proxy.newProxyInstance(
-        cl,
-        new Class[]{Class.forName("jdk.internal.access.JavaLangAccess")},
-        (proxy0, method, args) -> null
-    );
-    var injectorClass = cl.define(BytecodeUtils.repackage(Injector.class, "com.sun.proxy.jdk.proxy3"));
-    Class.forName(injectorClass.getName(), true, cl);
-  }
+  @Nullable
+  private final PersistentConverterCache persistentCache;
 
-  private final ConverterConfiguration configuration;
+  /**
+   * Returns the converters to link for the {@link ConverterConfiguration#isCrossTypeNested() nested properties of other classes}
+   */
+  private BiFunction<Class<?>, Class<?>, Converter<?, ?>> nestedConverterResolver = this::resolveNestedConverter;
 
   public ConverterFactory(
       Consumer<ConverterConfiguration.Builder> consumer
@@ -91,6 +74,65 @@ public class ConverterFactory implements Opcodes, Methods {
     var builder = ConverterConfiguration.builder();
     consumer.accept(builder);
     this.configuration = builder.build();
+    this.pregeneratedConverters = new PregeneratedConverters(configuration);
+    this.persistentCache = StringUtils.hasLength(configuration.getPersistentCachePath())
+                           ? new PersistentConverterCache(configuration.getPersistentCachePath(), configuration)
+                           : null;
+  }
+
+  /**
+   * @return the configuration of this factory
+   */
+  public ConverterConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Set the function that returns the converters to link for the {@link ConverterConfiguration#isCrossTypeNested() nested properties of other classes}.
+   * By default, the pregenerated converter is linked if there is one, otherwise a new converter is generated by this factory.
+   * <p>
+   * The function is called while a converter is being instantiated, it must not wait for the converters being instantiated by other threads.
+   * </p>
+   *
+   * @param resolver the function that returns the converter of the specified source class and target class
+   * @see NestedConverters
+   * @since 0.2.0
+   */
+  public void setNestedConverterResolver(BiFunction<Class<?>, Class<?>, Converter<?, ?>> resolver) {
+    this.nestedConverterResolver = Objects.requireNonNull(resolver);
+  }
+
+  private Converter<?, ?> resolveNestedConverter(Class<?> sourceType, Class<?> targetType) {
+    var converter = getPregeneratedConverter(sourceType, targetType);
+    return converter != null ? converter : generateConverter(sourceType, targetType);
+  }
+
+  /**
+   * Instantiate a converter, the converters it links are resolved during its static initialization if it links any
+   *
+   * @param sourceType   the class of source
+   * @param targetType   the class of target
+   * @param instantiator instantiates the converter
+   * @return the converter
+   * @throws ReflectiveOperationException if the instantiator throws it
+   */
+  private <C extends Converter<?, ?>> C instantiate(
+      Class<?> sourceType,
+      Class<?> targetType,
+      NestedConverters.Instantiator<C> instantiator
+  ) throws ReflectiveOperationException {
+    if (!configuration.isCrossTypeNested()) {
+      return instantiator.instantiate();
+    }
+    return NestedConverters.instantiate(sourceType, targetType, nestedConverterResolver, instantiator);
+  }
+
+  /**
+   * Instantiate a converter class
+   */
+  @SuppressWarnings("unchecked")
+  private <S, T> Converter<S, T> newInstance(Class<?> c, Class<S> sourceType, Class<T> targetType) throws ReflectiveOperationException {
+    return instantiate(sourceType, targetType, () -> (Converter<S, T>) c.getConstructor().newInstance());
   }
 
   /**
@@ -155,6 +197,12 @@ public class ConverterFactory implements Opcodes, Methods {
       return (Class<T>) ccl.defineClass(null, code);
     }
 
+    var defineClass = ModuleBreakout.defineClass;
+    if (defineClass == null) {
+      // the child classloader can see the same classes as the specified one
+      return (Class<T>) ModuleBreakout.fallbackClassLoader(cl).defineClass(null, code);
+    }
+
     try {
       return (Class<T>) defineClass.invoke(cl, (String) null, code, 0, code.length);
     } catch (Throwable e) {
@@ -175,27 +223,103 @@ public class ConverterFactory implements Opcodes, Methods {
   public <S, T> Converter<S, T> generateConverter(
       Class<S> sourceType, Class<T> targetType
   ) {
+    if (configuration.getHiddenClassLookup() != null) {
+      return generateHiddenConverter(sourceType, targetType, configuration.getHiddenClassLookup());
+    }
+    return generateConverter(sourceType, targetType, getClassLoader(sourceType, targetType));
+  }
+
+  /**
+   * Return the classloader that a converter of the specified classes should be defined in.
+   * It is the configured one, or the lower level one between the classloaders of the two classes if it is not configured.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return a classloader
+   * @throws ConverterGenerateException if the classloader is not configured and the two classes are loaded by unrelated classloaders
+   */
+  public ClassLoader getClassLoader(Class<?> sourceType, Class<?> targetType) {
+    return Optional.ofNullable(configuration.getClassLoader()).orElse(chooseClassLoader(sourceType, targetType));
+  }
+
+  /**
+   * Return an instance of the converter which was generated ahead of time by {@code beancopier-maven-plugin} with the same configuration as this factory.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return the pregenerated converter, or null if there is none
+   * @see PregeneratedConverters
+   */
+  @Nullable
+  public <S, T> Converter<S, T> getPregeneratedConverter(Class<S> sourceType, Class<T> targetType) {
+    var c = pregeneratedConverters.lookup(sourceType, targetType, getClassLoader(sourceType, targetType));
+    if (c == null) {
+      return null;
+    }
+
+    try {
+      return newInstance(c, sourceType, targetType);
+    } catch (ReflectiveOperationException e) {
+      throw new ConverterNewInstanceException(c, e);
+    }
+  }
+
+  /**
+   * Generate the bytecode of a converter class with the specified name without defining it, it is used to generate converters ahead of time.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param className  the name of converter class
+   * @return the bytecode of converter class
+   */
+  public byte[] generateCode(Class<?> sourceType, Class<?> targetType, String className) {
     checkSourceType(sourceType);
     var newInstanceMode = checkTargetType(targetType);
+    try {
+      return writeCode(sourceType, targetType, Reflections.getInternalNameByClassName(className), newInstanceMode);
+    } catch (Exception e) {
+      throw new ConverterGenerateException(sourceType, targetType, e);
+    }
+  }
+
+  /**
+   * Create a converter that has ability to new instance a target and copy source to it, the converter class will be defined
+   * in the specified classloader.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param cl         the classloader to define the converter class
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return A converter that has ability to copy
+   */
+  @Contract(pure = true)
+  public <S, T> Converter<S, T> generateConverter(
+      Class<S> sourceType, Class<T> targetType, ClassLoader cl
+  ) {
+    if (configuration.getHiddenClassLookup() != null) {
+      return generateHiddenConverter(sourceType, targetType, configuration.getHiddenClassLookup());
+    }
 
-    var cl = Optional.ofNullable(configuration.getClassLoader()).orElse(chooseClassLoader(sourceType, targetType));
-    String className;
-    var reservedClassnames = getReservedClassNames(cl);
-    synchronized (reservedClassnames) {
-      className = configuration.getNamingPolicy().getClassName(sourceType, targetType, reservedClassnames::contains);
-      reservedClassnames.add(className);
+    var persistentKey = persistentCache == null ? null : persistentCache.key(sourceType, targetType);
+    if (persistentKey != null) {
+      Converter<S, T> converter = loadPersisted(persistentKey, sourceType, targetType, cl);
+      if (converter != null) {
+        return converter;
+      }
     }
 
+    checkSourceType(sourceType);
+    var newInstanceMode = checkTargetType(targetType);
+
+    var className = reserveClassName(sourceType, targetType, cl);
+
     Class<Converter<S, T>> c;
     String internalName = Reflections.getInternalNameByClassName(className);
     try {
-      final var code = new ConverterCodeWriter(new ConverterDefinition(
-          internalName,
-          sourceType,
-          targetType,
-          configuration,
-          newInstanceMode
-      )).write();
+      final var code = writeCode(sourceType, targetType, internalName, newInstanceMode);
       if (StringUtils.hasLength(configuration.getClassDumpPath())) {
         dumpClassSafely(
             code,
@@ -204,20 +328,131 @@ public class ConverterFactory implements Opcodes, Methods {
         );
       }
       c = defineClass(code, cl);
-    } catch (Exception e) {
-      synchronized (reservedClassnames) {
-        reservedClassnames.remove(className);
+      if (persistentKey != null) {
+        persistentCache.store(persistentKey, code);
       }
+    } catch (Exception e) {
+      reservedClassNames.release(cl, className);
+      throw new ConverterGenerateException(sourceType, targetType, e);
+    }
+
+    try {
+      return newInstance(c, sourceType, targetType);
+    } catch (ReflectiveOperationException e) {
+      throw new ConverterNewInstanceException(c, e);
+    }
+  }
+
+  /**
+   * Create a converter whose class is a hidden class defined by the specified lookup
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param lookup     the lookup to define hidden classes
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return A converter that has ability to copy
+   */
+  private <S, T> Converter<S, T> generateHiddenConverter(Class<S> sourceType, Class<T> targetType, MethodHandles.Lookup lookup) {
+    checkSourceType(sourceType);
+    var newInstanceMode = checkTargetType(targetType);
+
+    // a hidden class must be in the package of the lookup class, the JVM makes its name unique
+    var pkg = lookup.lookupClass().getPackageName();
+    var className = (pkg.isEmpty() ? "" : pkg + ".")
+        + sourceType.getSimpleName()
+        + "To"
+        + targetType.getSimpleName()
+        + "Converter$$HiddenByBeanCopier";
+
+    Class<?> c;
+    try {
+      var code = writeCode(sourceType, targetType, Reflections.getInternalNameByClassName(className), newInstanceMode);
+      // initialized while instantiating, when the converters it links can be resolved
+      c = lookup.defineHiddenClass(code, false, MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass();
+    } catch (Exception e) {
       throw new ConverterGenerateException(sourceType, targetType, e);
     }
 
     try {
-      return c.getConstructor().newInstance();
-    } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+      return newInstance(c, sourceType, targetType);
+    } catch (ReflectiveOperationException e) {
       throw new ConverterNewInstanceException(c, e);
     }
   }
 
+  /**
+   * Create a converter that copies by method handles instead of generating a class,
+   * it copies the same as the generated one but slower.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param <S>        the type of source
+   * @param <T>        the type of target
+   * @return A converter that has ability to copy
+   * @see ReflectiveConverter
+   */
+  public <S, T> Converter<S, T> createReflectiveConverter(Class<S> sourceType, Class<T> targetType) {
+    checkSourceType(sourceType);
+    var newInstanceMode = checkTargetType(targetType);
+    try {
+      return instantiate(sourceType, targetType, () -> new ReflectiveConverter<>(sourceType, targetType, configuration, newInstanceMode));
+    } catch (ReflectiveOperationException e) {
+      throw new ConverterGenerateException(sourceType, targetType, e);
+    }
+  }
+
+  /**
+   * Define the persisted converter class of the specified key
+   *
+   * @param key        the key of persistent cache
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param cl         the classloader to define the converter class
+   * @return a converter, or null if there is no usable class persisted
+   */
+  @Nullable
+  private <S, T> Converter<S, T> loadPersisted(String key, Class<S> sourceType, Class<T> targetType, ClassLoader cl) {
+    assert persistentCache != null;
+    var code = persistentCache.load(key);
+    if (code == null) {
+      return null;
+    }
+
+    var className = PersistentConverterCache.getClassName(code);
+    if (!reservedClassNames.reserve(cl, className)) {
+      // the name was taken by another converter in this classloader, generate a new one instead
+      return null;
+    }
+
+    Class<?> c;
+    try {
+      c = defineClass(code, cl);
+    } catch (Exception | LinkageError e) {
+      reservedClassNames.release(cl, className);
+      persistentCache.evict(key);
+      return null;
+    }
+
+    try {
+      return newInstance(c, sourceType, targetType);
+    } catch (ReflectiveOperationException e) {
+      // the name stays reserved since the class has been defined
+      persistentCache.evict(key);
+      return null;
+    }
+  }
+
+  private byte[] writeCode(Class<?> sourceType, Class<?> targetType, String internalName, InstantiateMode newInstanceMode) {
+    return new ConverterCodeWriter(new ConverterDefinition(
+        internalName,
+        sourceType,
+        targetType,
+        configuration,
+        newInstanceMode
+    )).write();
+  }
+
   private void checkSourceType(Class<?> c) {
     int modifiers = c.getModifiers();
 
@@ -232,15 +467,46 @@ public class ConverterFactory implements Opcodes, Methods {
     }
   }
 
-  private static Set<String> getReservedClassNames(ClassLoader cl) {
-    var names = classLoaderReservedClassNames.get(cl);
-    if (names == null) {
-      synchronized (classLoaderReservedClassNames) {
-        names = new HashSet<>(32);
-        classLoaderReservedClassNames.put(cl, names);
+  /**
+   * Reserve a class name for the converter of the specified classes in the specified classloader.
+   * The name returned by the {@link NamingPolicy} is reserved atomically without any lock,
+   * the policy is asked again if another thread has reserved the same name in the meantime.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param cl         the classloader to define the converter class
+   * @return the reserved class name
+   */
+  private String reserveClassName(Class<?> sourceType, Class<?> targetType, ClassLoader cl) {
+    var usedNames = new NamingPolicy.UsedNames() {
+      @Override
+      public boolean test(String name) {
+        return reservedClassNames.isReserved(cl, name);
       }
+
+      @Override
+      public int getLastSuffix(@NotNull String base) {
+        return reservedClassNames.getLastSuffix(cl, base);
+      }
+
+      @Override
+      public void setLastSuffix(@NotNull String base, int suffix) {
+        reservedClassNames.setLastSuffix(cl, base, suffix);
+      }
+    };
+
+    String last = null;
+    for (; ; ) {
+      var className = configuration.getNamingPolicy().getClassName(sourceType, targetType, usedNames);
+      if (reservedClassNames.reserve(cl, className)) {
+        return className;
+      }
+      // the policy returned a used name again, it does not respect the predicate
+      if (className.equals(last)) {
+        throw new ConverterGenerateException("The class name '" + className + "' has been used in " + cl);
+      }
+      last = className;
     }
-    return names;
   }
 
   private InstantiateMode checkTargetType(Class<?> c) {
@@ -276,13 +542,86 @@ public class ConverterFactory implements Opcodes, Methods {
       throw new ConverterGenerateException("'" + c.getName() + "' is not a enclosing class");
     }
 
-    if (Reflections.hasMatchedPublicAllArgsConstructor(c)) {
-      return InstantiateMode.ALL_ARGS_CONSTRUCTOR;
-    }
-    if (Reflections.hasPublicNoArgsConstructor(c)) {
-      return InstantiateMode.NO_ARGS_CONSTRUCTOR_THEN_GET_SET;
+    var mode = BeanMetadata.of(c).getInstantiateMode();
+    if (mode != null) {
+      return mode;
     }
     throw new ConverterGenerateException("'" + c.getName() + "' missing a public no-args-constructor or a public all-args-constructor");
   }
 
-}
\ No newline at end of file
+  /**
+   * Holds the handle for defining classes in arbitrary classloaders.
+   * The JDK module protection is broken up when this class is initialized,
+   * which happens only if a converter is defined in a classloader other than a {@link ConverterClassLoader},
+   * so generating code only (e.g. ahead of time) never touches the JDK internals.
+   * If the module protection can not be broken up, the converters are defined in child classloaders instead of failing.
+   */
+  private static final class ModuleBreakout {
+
+    /**
+     * The defineClass method handle of {@link ClassLoader}, null if the module protection can not be broken up
+     */
+    @Nullable
+    private static final MethodHandle defineClass;
+
+    /**
+     * The child classloaders to define converters in when the module protection can not be broken up, guarded by itself
+     */
+    private static final Map<ClassLoader, WeakReference<DefaultClassLoader>> fallbackClassLoaders = new WeakHashMap<>(4);
+
+    // breakup module protection and initial "defineClass" field
+    static {
+      MethodHandle handle;
+      try {
+        breakupJDK9ModuleProtection();
+        var field = MethodHandles.Lookup.class.getDeclaredField("IMPL_LOOKUP");
+        field.setAccessible(true);
+        var truestedLookup = (MethodHandles.Lookup) field.get(MethodHandles.Lookup.class);
+        handle = truestedLookup.findSpecial(
+            ClassLoader.class,
+            "defineClass",
+            MethodType.methodType(Class.class, String.class, byte[].class, int.class, int.class),
+            ClassLoader.class
+        );
+      } catch (Throwable e) {
+        // e.g. a hardened JVM, the converters will be defined in child classloaders instead
+        handle = null;
+      }
+      defineClass = handle;
+    }
+
+    /**
+     * Break up JDK9+ module protection
+     */
+    @SuppressWarnings("all")
+    private static void breakupJDK9ModuleProtection() throws ClassNotFoundException {
+      var cl = new HackerClassLoader();
+      var proxy = Proxy.newProxyInstance(
+          cl,
+          new Class[]{Class.forName("jdk.internal.access.JavaLangAccess")},
+          (proxy0, method, args) -> null
+      );
+      // the dynamic module of proxy is numbered by the JVM, so the package should not be hard-coded
+      var injectorClass = cl.define(BytecodeUtils.repackage(Injector.class, proxy.getClass().getPackageName()));
+      Class.forName(injectorClass.getName(), true, cl);
+    }
+
+    /**
+     * @param parent the classloader that a converter class should be visible from
+     * @return a child classloader of the specified one
+     */
+    private static DefaultClassLoader fallbackClassLoader(ClassLoader parent) {
+      synchronized (fallbackClassLoaders) {
+        var ref = fallbackClassLoaders.get(parent);
+        var cl = ref == null ? null : ref.get();
+        if (cl == null) {
+          cl = new DefaultClassLoader(parent);
+          fallbackClassLoaders.put(parent, new WeakReference<>(cl));
+        }
+        return cl;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,213 @@
+package io.github.tanyaofei.beancopier.core;
+
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.utils.reflection.BeanMetadata;
+import io.github.tanyaofei.beancopier.utils.reflection.Reflections;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * The converters linked into other converters for the {@link ConverterConfiguration#isCrossTypeNested() nested properties of other classes}.
+ * <p>
+ * A generated converter keeps each linked converter in a {@code private static final} field assigned by its static initializer through {@link #link(Class, Class)},
+ * so the JIT compiler treats the linked converter as a constant and inlines its calls like the calls to the converter itself.
+ * The static initializer runs while a {@link ConverterFactory} is instantiating the converter by {@link #instantiate},
+ * and the linked converters are resolved by the resolver of that factory.
+ * </p>
+ * <p>
+ * A pair of classes that is being instantiated by the current thread, such as {@code Order -> OrderDTO} for {@code Order.customer.orders},
+ * is linked to a forwarder which delegates to the converter once it has been instantiated, so the classes that refer to each other do not recurse forever.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+public final class NestedConverters {
+
+  /**
+   * The linking of the converter being instantiated by the current thread
+   */
+  private static final ThreadLocal<Linking> linking = new ThreadLocal<>();
+
+  private NestedConverters() {
+  }
+
+  /**
+   * Return whether a nested property of the specified types is converted by a linked converter.
+   * Both of the types must be public classes outside the JDK, and the target class must be instantiable.
+   *
+   * @param sourceType the type of source property
+   * @param targetType the type of target property
+   * @return true if the property is converted by a linked converter
+   */
+  public static boolean isLinkable(@NotNull Type sourceType, @NotNull Type targetType) {
+    if (!(sourceType instanceof Class<?> sc) || !(targetType instanceof Class<?> tc) || sc.equals(tc)) {
+      return false;
+    }
+    if (!isBean(sc) || !isBean(tc)) {
+      return false;
+    }
+    return !Modifier.isAbstract(tc.getModifiers())
+        && Reflections.isEnclosingClass(tc)
+        && BeanMetadata.of(tc).getInstantiateMode() != null;
+  }
+
+  private static boolean isBean(Class<?> c) {
+    if (c.isPrimitive() || c.isArray() || c.isEnum() || c.isInterface() || c.isLocalClass()) {
+      return false;
+    }
+    if (!Modifier.isPublic(c.getModifiers())) {
+      return false;
+    }
+    var name = c.getName();
+    return !name.startsWith("java.") && !name.startsWith("javax.") && !name.startsWith("jdk.") && !name.startsWith("sun.");
+  }
+
+  /**
+   * Return the converter of the specified classes, it is called by the static initializers of generated converters
+   *
+   * @param sourceType the class of nested source
+   * @param targetType the class of nested target
+   * @return the linked converter
+   * @throws IllegalStateException if the converter is not being instantiated by a {@link ConverterFactory}
+   */
+  @NotNull
+  public static Converter<?, ?> link(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    var current = linking.get();
+    if (current == null) {
+      throw new IllegalStateException(
+          "The converter of " + sourceType.getName() + " -> " + targetType.getName() + " can only be linked while a ConverterFactory is instantiating its owner"
+      );
+    }
+    return current.link(sourceType, targetType);
+  }
+
+  /**
+   * Instantiate a converter, the converters it links are resolved by the specified resolver
+   *
+   * @param sourceType   the class of source
+   * @param targetType   the class of target
+   * @param resolver     returns the converter of nested classes
+   * @param instantiator instantiates the converter
+   * @param <C>          the type of converter
+   * @return the converter
+   * @throws ReflectiveOperationException if the instantiator throws it
+   */
+  static <C extends Converter<?, ?>> C instantiate(
+      @NotNull Class<?> sourceType,
+      @NotNull Class<?> targetType,
+      @NotNull BiFunction<Class<?>, Class<?>, Converter<?, ?>> resolver,
+      @NotNull Instantiator<C> instantiator
+  ) throws ReflectiveOperationException {
+    var outer = linking.get();
+    var instantiating = outer == null ? new HashMap<List<Class<?>>, Forwarder>() : outer.instantiating;
+    var key = List.<Class<?>>of(sourceType, targetType);
+    var added = !instantiating.containsKey(key);
+    if (added) {
+      instantiating.put(key, null);
+    }
+
+    linking.set(new Linking(resolver, instantiating));
+    try {
+      var converter = instantiator.instantiate();
+      var forwarder = added ? instantiating.get(key) : null;
+      if (forwarder != null) {
+        forwarder.setDelegate(converter);
+      }
+      return converter;
+    } catch (ExceptionInInitializerError e) {
+      // the linked converter could not be resolved
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    } finally {
+      if (added) {
+        instantiating.remove(key);
+      }
+      if (outer == null) {
+        linking.remove();
+      } else {
+        linking.set(outer);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  interface Instantiator<C> {
+
+    C instantiate() throws ReflectiveOperationException;
+
+  }
+
+  /**
+   * @param resolver      returns the converter of nested classes
+   * @param instantiating the forwarders of the pairs being instantiated by the current thread, keyed by {@code [sourceType, targetType]},
+   *                      the value is null until the pair is linked
+   */
+  private record Linking(
+      BiFunction<Class<?>, Class<?>, Converter<?, ?>> resolver,
+      Map<List<Class<?>>, Forwarder> instantiating
+  ) {
+
+    Converter<?, ?> link(Class<?> sourceType, Class<?> targetType) {
+      var key = List.<Class<?>>of(sourceType, targetType);
+      if (instantiating.containsKey(key)) {
+        return instantiating.computeIfAbsent(key, k -> new Forwarder(resolver, sourceType, targetType));
+      }
+      return Objects.requireNonNull(resolver.apply(sourceType, targetType), "resolver returned null");
+    }
+
+  }
+
+  /**
+   * A converter that delegates to the converter of a pair that refers to itself through other pairs
+   */
+  private static final class Forwarder implements Converter<Object, Object> {
+
+    private final BiFunction<Class<?>, Class<?>, Converter<?, ?>> resolver;
+
+    private final Class<?> sourceType;
+
+    private final Class<?> targetType;
+
+    /**
+     * The converter to delegate to, it is assigned before the converters that link it are published,
+     * or resolved on the first call if the pair failed to be instantiated while the converters that link it were registered
+     */
+    private Converter<Object, Object> delegate;
+
+    private Forwarder(BiFunction<Class<?>, Class<?>, Converter<?, ?>> resolver, Class<?> sourceType, Class<?> targetType) {
+      this.resolver = resolver;
+      this.sourceType = sourceType;
+      this.targetType = targetType;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setDelegate(Converter<?, ?> delegate) {
+      this.delegate = (Converter<Object, Object>) delegate;
+    }
+
+    @Override
+    @Nullable
+    public Object convert(@Nullable Object source) {
+      var delegate = this.delegate;
+      if (delegate == null) {
+        setDelegate(Objects.requireNonNull(resolver.apply(sourceType, targetType), "resolver returned null"));
+        delegate = this.delegate;
+      }
+      return delegate.convert(source);
+    }
+
+  }
+
+}
@@ -0,0 +1,325 @@
+package io.github.tanyaofei.beancopier.core;
+
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * A directory that keeps the bytecode of generated converters across JVM restarts.
+ * <p>
+ * A converter class is stored under a key made of the bytecode of the source class, the target class and their superclasses,
+ * the version of beancopier and the {@link PregeneratedConverters#fingerprint(ConverterConfiguration) fingerprint} of configuration.
+ * Once any of them changes, the key changes and the stale file is never read again.
+ * The classes whose bytecode can not be read (e.g. the ones generated at runtime) are never persisted.
+ * </p>
+ * <p>
+ * The persisted classes are defined into any classloader, including the system classloader, so the directory must be trusted.
+ * Each file is signed by an HMAC with a secret generated for the directory on first use and kept in {@link #SECRET_FILE},
+ * a file that was not written by a holder of the secret is deleted rather than defined.
+ * On POSIX file systems the directory and the secret are created readable and writable by the owner only,
+ * and the cache is disabled if either of them is accessible by the group or others, since the secret would not be secret any more.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+final class PersistentConverterCache {
+
+  private static final String EXTENSION = ".class";
+
+  private static final String CONVERTER_INTERNAL_NAME = Type.getInternalName(Converter.class);
+
+  /**
+   * The file in the cache directory that keeps the secret
+   */
+  static final String SECRET_FILE = ".secret";
+
+  private static final int SECRET_LENGTH = 32;
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+
+  /**
+   * The length of the HMAC that precedes the bytecode in each file
+   */
+  private static final int MAC_LENGTH = 32;
+
+  /**
+   * The secret of an untrusted directory
+   */
+  private static final byte[] NO_SECRET = new byte[0];
+
+  private static final Set<PosixFilePermission> GROUP_OR_OTHERS = EnumSet.of(
+      PosixFilePermission.GROUP_READ,
+      PosixFilePermission.GROUP_WRITE,
+      PosixFilePermission.GROUP_EXECUTE,
+      PosixFilePermission.OTHERS_READ,
+      PosixFilePermission.OTHERS_WRITE,
+      PosixFilePermission.OTHERS_EXECUTE
+  );
+
+  /**
+   * The cache directory
+   */
+  private final Path directory;
+
+  /**
+   * The fingerprint of configuration
+   */
+  private final byte[] fingerprint;
+
+  /**
+   * The secret to sign the files, null until it is loaded, {@link #NO_SECRET} if the directory is not trusted
+   */
+  private volatile byte[] secret;
+
+  /**
+   * @param directory     the cache directory
+   * @param configuration the configuration of converters
+   */
+  PersistentConverterCache(@NotNull String directory, @NotNull ConverterConfiguration configuration) {
+    this.directory = Paths.get(directory);
+    this.fingerprint = PregeneratedConverters.fingerprint(configuration).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compute the key of the specified classes
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return the key, or null if the bytecode of any class is unavailable
+   */
+  @Nullable
+  String key(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    if (secret() == null) {
+      return null;
+    }
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    digest.update(PregeneratedConverters.LIBRARY_VERSION.getBytes(StandardCharsets.UTF_8));
+    digest.update(fingerprint);
+    if (!digestHierarchy(digest, sourceType) || !digestHierarchy(digest, targetType)) {
+      return null;
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Return the bytecode stored under the specified key
+   *
+   * @param key the key
+   * @return the bytecode, or null if there is none, it is not signed by the secret or it is not a converter class
+   */
+  @Nullable
+  byte[] load(@NotNull String key) {
+    var secret = secret();
+    if (secret == null) {
+      return null;
+    }
+
+    byte[] file;
+    try {
+      file = Files.readAllBytes(directory.resolve(key + EXTENSION));
+    } catch (IOException e) {
+      return null;
+    }
+
+    var code = file.length < MAC_LENGTH ? null : Arrays.copyOfRange(file, MAC_LENGTH, file.length);
+    if (code == null || !MessageDigest.isEqual(Arrays.copyOf(file, MAC_LENGTH), mac(secret, key, code))) {
+      // truncated, or not written by a holder of the secret
+      evict(key);
+      return null;
+    }
+
+    try {
+      var reader = new ClassReader(code);
+      if (!Arrays.asList(reader.getInterfaces()).contains(CONVERTER_INTERNAL_NAME)) {
+        evict(key);
+        return null;
+      }
+    } catch (RuntimeException e) {
+      // truncated or corrupted
+      evict(key);
+      return null;
+    }
+    return code;
+  }
+
+  /**
+   * Store the bytecode under the specified key, failures are ignored since it is only a cache
+   *
+   * @param key  the key
+   * @param code the bytecode of converter class
+   */
+  void store(@NotNull String key, byte @NotNull [] code) {
+    var secret = secret();
+    if (secret == null) {
+      return;
+    }
+
+    try {
+      // write to a temporary file then move it, so that a concurrent reader never sees a partial file
+      var tmp = Files.createTempFile(directory, key, ".tmp");
+      try {
+        try (var out = Files.newOutputStream(tmp)) {
+          out.write(mac(secret, key, code));
+          out.write(code);
+        }
+        Files.move(tmp, directory.resolve(key + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException | UnsupportedOperationException e) {
+      // ignored
+    }
+  }
+
+  /**
+   * Delete the bytecode stored under the specified key
+   *
+   * @param key the key
+   */
+  void evict(@NotNull String key) {
+    try {
+      Files.deleteIfExists(directory.resolve(key + EXTENSION));
+    } catch (IOException e) {
+      // ignored
+    }
+  }
+
+  /**
+   * @return the name of the class in the specified bytecode
+   */
+  @NotNull
+  static String getClassName(byte @NotNull [] code) {
+    return new ClassReader(code).getClassName().replace('/', '.');
+  }
+
+  /**
+   * @return the secret of the directory, or null if the directory is not trusted
+   */
+  @Nullable
+  private byte[] secret() {
+    var secret = this.secret;
+    if (secret == null) {
+      synchronized (this) {
+        secret = this.secret;
+        if (secret == null) {
+          secret = loadSecret();
+          this.secret = secret;
+        }
+      }
+    }
+    return secret == NO_SECRET ? null : secret;
+  }
+
+  /**
+   * Create the directory and the secret if they do not exist, then read the secret
+   *
+   * @return the secret, or {@link #NO_SECRET} if the directory is not trusted or not accessible
+   */
+  @NotNull
+  private byte[] loadSecret() {
+    var posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    try {
+      if (Files.notExists(directory)) {
+        if (posix) {
+          Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+          Files.createDirectories(directory);
+        }
+      }
+
+      var file = directory.resolve(SECRET_FILE);
+      if (Files.notExists(file)) {
+        var secret = new byte[SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        try {
+          if (posix) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+          } else {
+            Files.createFile(file);
+          }
+          Files.write(file, secret);
+        } catch (FileAlreadyExistsException e) {
+          // created by another process
+        }
+      }
+
+      if (posix && (isShared(directory) || isShared(file))) {
+        return NO_SECRET;
+      }
+      var secret = Files.readAllBytes(file);
+      // the secret may be being written by another process
+      return secret.length == SECRET_LENGTH ? secret : NO_SECRET;
+    } catch (IOException | UnsupportedOperationException | SecurityException e) {
+      return NO_SECRET;
+    }
+  }
+
+  private static boolean isShared(Path path) throws IOException {
+    var permissions = Files.getPosixFilePermissions(path);
+    return permissions.stream().anyMatch(GROUP_OR_OTHERS::contains);
+  }
+
+  /**
+   * @return the HMAC of the specified key and bytecode
+   */
+  private static byte[] mac(byte[] secret, String key, byte[] code) {
+    try {
+      var mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+      mac.update(key.getBytes(StandardCharsets.UTF_8));
+      return mac.doFinal(code);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean digestHierarchy(MessageDigest digest, Class<?> c) {
+    for (; c != null && c != Object.class && c != Record.class; c = c.getSuperclass()) {
+      var resource = c.getName().replace('.', '/') + EXTENSION;
+      var cl = c.getClassLoader();
+      try (InputStream in = cl == null ? ClassLoader.getSystemResourceAsStream(resource) : cl.getResourceAsStream(resource)) {
+        if (in == null) {
+          return false;
+        }
+        digest.update(c.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update(in.readAllBytes());
+      } catch (IOException e) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
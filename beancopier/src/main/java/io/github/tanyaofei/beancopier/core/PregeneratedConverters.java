@@ -0,0 +1,243 @@
+package io.github.tanyaofei.beancopier.core;
+
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.NamingPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The converters generated ahead of time by {@code beancopier-maven-plugin}.
+ * <p>
+ * The plugin writes the converter classes beside the compiled classes, along with an index file at {@link #INDEX_RESOURCE}.
+ * Each index maps a pair of source and target classes to the name of its converter class,
+ * and records a fingerprint of the configuration that the converters were generated with.
+ * An index whose fingerprint does not match the configuration of a {@link ConverterFactory} is ignored by that factory,
+ * the converters of the pairs which are not indexed are generated at runtime as usual.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+public final class PregeneratedConverters {
+
+  /**
+   * The location of index files
+   */
+  public static final String INDEX_RESOURCE = "META-INF/beancopier/converters.properties";
+
+  /**
+   * The key of fingerprint in an index file
+   */
+  public static final String FINGERPRINT_KEY = "beancopier.fingerprint";
+
+  /**
+   * The version of beancopier, the converters generated by other versions are rejected since the generated code may differ
+   */
+  static final String LIBRARY_VERSION = loadLibraryVersion();
+
+  /**
+   * Names the pregenerated converter classes like {@link NamingPolicy.Default}, but places them in the packages of source classes
+   */
+  private static final NamingPolicy NAMING_POLICY = new NamingPolicy.Default() {
+    @Override
+    @NotNull
+    protected String getBaseName(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+      var pkg = sourceType.getPackageName();
+      return (pkg.isEmpty() ? "" : pkg + ".")
+          + sourceType.getSimpleName()
+          + "To"
+          + targetType.getSimpleName()
+          + "Converter$$PregeneratedByBeanCopier$$"
+          + Integer.toHexString((sourceType.getName() + targetType.getName()).hashCode());
+    }
+  };
+
+  /**
+   * The fingerprint of the configuration
+   */
+  private final String fingerprint;
+
+  /**
+   * The merged indexes of each classloader, guarded by {@code this}
+   */
+  private final Map<ClassLoader, Map<String, String>> indexes = new WeakHashMap<>(4);
+
+  /**
+   * @param configuration the configuration of converters
+   */
+  public PregeneratedConverters(@NotNull ConverterConfiguration configuration) {
+    this.fingerprint = fingerprint(configuration);
+  }
+
+  /**
+   * Return the pregenerated converter class of the specified classes.
+   * The class is not initialized, it is initialized when it is instantiated by a {@link ConverterFactory} which links its {@link NestedConverters nested converters}.
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param cl         the classloader to find indexes and converter classes
+   * @return the pregenerated converter class, or null if there is none
+   */
+  @Nullable
+  public Class<?> lookup(@NotNull Class<?> sourceType, @NotNull Class<?> targetType, @NotNull ClassLoader cl) {
+    var className = index(cl).get(key(sourceType, targetType));
+    if (className == null) {
+      return null;
+    }
+
+    try {
+      return Class.forName(className, false, cl);
+    } catch (ClassNotFoundException e) {
+      // the index was packaged without the classes, generate it at runtime instead
+      return null;
+    }
+  }
+
+  @NotNull
+  private synchronized Map<String, String> index(@NotNull ClassLoader cl) {
+    var index = indexes.get(cl);
+    if (index == null) {
+      index = loadIndex(cl);
+      indexes.put(cl, index);
+    }
+    return index;
+  }
+
+  @NotNull
+  private Map<String, String> loadIndex(@NotNull ClassLoader cl) {
+    var index = new HashMap<String, String>();
+    try {
+      var resources = cl.getResources(INDEX_RESOURCE);
+      while (resources.hasMoreElements()) {
+        var properties = new Properties();
+        try (InputStream in = resources.nextElement().openStream()) {
+          properties.load(in);
+        }
+        if (!fingerprint.equals(properties.getProperty(FINGERPRINT_KEY))) {
+          continue;
+        }
+        for (var name : properties.stringPropertyNames()) {
+          if (!name.equals(FINGERPRINT_KEY)) {
+            index.putIfAbsent(name, properties.getProperty(name));
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load " + INDEX_RESOURCE, e);
+    }
+    return index;
+  }
+
+  /**
+   * Return the fingerprint of a configuration, it only covers the options that affect the generated code
+   *
+   * @param configuration the configuration
+   * @return the fingerprint
+   */
+  @NotNull
+  public static String fingerprint(@NotNull ConverterConfiguration configuration) {
+    return LIBRARY_VERSION
+        + ":fullTypeMatching=" + configuration.isFullTypeMatching()
+        + ",skipNull=" + configuration.isSkipNull()
+        + ",preferNested=" + configuration.isPreferNested()
+        + ",includingSuper=" + configuration.isIncludingSuper()
+        + ",propertySupported=" + configuration.isPropertySupported()
+        + ",directFieldAccess=" + configuration.isDirectFieldAccess()
+        + ",crossTypeNested=" + configuration.isCrossTypeNested();
+  }
+
+  /**
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @return the key of the specified classes in an index
+   */
+  @NotNull
+  public static String key(@NotNull Class<?> sourceType, @NotNull Class<?> targetType) {
+    return sourceType.getName() + "->" + targetType.getName();
+  }
+
+  /**
+   * Return the name of a pregenerated converter class, it is placed in the package of the source class
+   * and suffixed the same way as {@link NamingPolicy.Default} if it is used
+   *
+   * @param sourceType the class of source
+   * @param targetType the class of target
+   * @param predicate  to predicate the name is used or not
+   * @return a class name
+   */
+  @NotNull
+  public static String getClassName(@NotNull Class<?> sourceType, @NotNull Class<?> targetType, @NotNull Predicate<String> predicate) {
+    return NAMING_POLICY.getClassName(sourceType, targetType, predicate);
+  }
+
+  /**
+   * @return the version of beancopier, or a random one if it is unknown, so that no converter generated by an unknown version is accepted
+   */
+  @NotNull
+  private static String loadLibraryVersion() {
+    var properties = new Properties();
+    try (InputStream in = PregeneratedConverters.class.getResourceAsStream("version.properties")) {
+      if (in != null) {
+        properties.load(in);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load the version of beancopier", e);
+    }
+    var version = properties.getProperty("version");
+    return version == null || version.startsWith("${") ? "unknown-" + UUID.randomUUID() : version;
+  }
+
+  /**
+   * Write an index file
+   *
+   * @param configuration the configuration that the converters were generated with
+   * @param classNames    the converter class names of each {@link #key(Class, Class) key}
+   * @param out           the output stream, it is not closed by this method
+   * @throws IOException if an I/O error occurs
+   */
+  public static void writeIndex(
+      @NotNull ConverterConfiguration configuration,
+      @NotNull Map<String, String> classNames,
+      @NotNull OutputStream out
+  ) throws IOException {
+    // Properties.store() writes a timestamp, which makes builds not reproducible
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.ISO_8859_1);
+    writer.write("# Generated by beancopier-maven-plugin, do not edit\n");
+    writer.write(FINGERPRINT_KEY + "=" + escape(fingerprint(configuration)) + "\n");
+    for (var entry : new TreeMap<>(classNames).entrySet()) {
+      writer.write(escape(entry.getKey()) + "=" + escape(entry.getValue()) + "\n");
+    }
+    writer.flush();
+  }
+
+  private static String escape(String s) {
+    var sb = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '\\' || c == '=' || c == ':' || c == ' ') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20 || c > 0x7e) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,385 @@
+package io.github.tanyaofei.beancopier.core;
+
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.constants.InstantiateMode;
+import io.github.tanyaofei.beancopier.constants.Properties;
+import io.github.tanyaofei.beancopier.converter.Converter;
+import io.github.tanyaofei.beancopier.core.local.impl.CollectionNestedLocalDefiner;
+import io.github.tanyaofei.beancopier.core.local.impl.CompatibleLocalDefiner;
+import io.github.tanyaofei.beancopier.core.local.impl.NestedLocalDefiner;
+import io.github.tanyaofei.beancopier.exception.CopyException;
+import io.github.tanyaofei.beancopier.utils.reflection.BeanMetadata;
+import io.github.tanyaofei.beancopier.utils.reflection.CollectionTypes;
+import io.github.tanyaofei.beancopier.utils.reflection.GenericTypes;
+import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A converter that copies by {@link MethodHandle}s instead of a generated class.
+ * <p>
+ * It copies exactly like the generated converter of the same classes and configuration does,
+ * but it is slower since every property is copied through a handle that is not a constant to the JIT compiler.
+ * It defines no class, so it is used when generating more converter classes is not acceptable.
+ * </p>
+ *
+ * @param <S> the type of source
+ * @param <T> the type of target
+ * @author tanyaofei
+ * @see ConverterFactory#createReflectiveConverter(Class, Class)
+ * @since 0.2.0
+ */
+final class ReflectiveConverter<S, T> implements Converter<S, T> {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final Object[] NO_VALUES = new Object[0];
+
+  /**
+   * The adapted handles of the getters and setters declared by each class,
+   * so that a class copied from or copied to many classes creates its handles only once.
+   */
+  private static final ClassValue<Map<Method, MethodHandle>> HANDLES = new ClassValue<>() {
+    @Override
+    protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * The properties of target, in the same order as the members of target
+   */
+  private final Slot[] slots;
+
+  /**
+   * {@code (Object[]) -> Object} if the target is instantiated by an all-args-constructor, otherwise {@code () -> Object}
+   */
+  private final MethodHandle constructor;
+
+  private final boolean allArgsConstructor;
+
+  private final boolean skipNull;
+
+  /**
+   * {@code Source -> Target}, for the messages of copy failures
+   */
+  private final String pair;
+
+  /**
+   * @param sourceType      the class of source
+   * @param targetType      the class of target
+   * @param configuration   the configuration
+   * @param instantiateMode the instantiate mode of target
+   * @throws ReflectiveOperationException if a getter, setter or constructor is not accessible
+   */
+  ReflectiveConverter(
+      @NotNull Class<S> sourceType,
+      @NotNull Class<T> targetType,
+      @NotNull ConverterConfiguration configuration,
+      @NotNull InstantiateMode instantiateMode
+  ) throws ReflectiveOperationException {
+    var includingSuper = configuration.isIncludingSuper();
+    var publicFields = configuration.isDirectFieldAccess();
+    var targetMetadata = BeanMetadata.of(targetType, publicFields);
+    var targetMembers = targetMetadata.getMembersWithSetter(includingSuper);
+    var targetProperties = configuration.isPropertySupported()
+        ? targetMetadata.getSetterProperties(includingSuper)
+        : Collections.nCopies(targetMembers.size(), Properties.defaultProperty);
+    var sourceNames = configuration.isPropertySupported() && sourceType != targetType
+        ? targetMetadata.getSetterAliases(includingSuper)
+        : null;
+    var sourceMembers = BeanMetadata.of(sourceType, publicFields).getMembersWithGetterByName(includingSuper);
+
+    this.allArgsConstructor = instantiateMode == InstantiateMode.ALL_ARGS_CONSTRUCTOR;
+    this.skipNull = configuration.isSkipNull() && !allArgsConstructor;
+    this.pair = sourceType.getName() + " -> " + targetType.getName();
+    this.slots = new Slot[targetMembers.size()];
+    var parameterTypes = new Class<?>[targetMembers.size()];
+    for (int i = 0; i < slots.length; i++) {
+      var tm = targetMembers.get(i);
+      var skip = targetProperties.get(i).skip();
+      var sm = skip ? null : sourceMembers.get(sourceNames == null ? tm.getName() : sourceNames.get(i));
+      var kind = sm == null ? Kind.ZERO : kindOf(sourceType, targetType, configuration, sm, tm);
+      slots[i] = new Slot(
+          kind,
+          kind == Kind.ZERO ? null : handle(sourceType, sm, GETTER_TYPE),
+          skip || allArgsConstructor ? null : handle(targetType, tm, SETTER_TYPE),
+          tm.getType().isPrimitive() ? Array.get(Array.newInstance(tm.getType(), 1), 0) : null,
+          kind == Kind.COLLECTION_NESTED || kind == Kind.COLLECTION_LINKED ? CollectionTypes.getImplementation(tm.getType()) : null,
+          switch (kind) {
+            case LINKED -> link(sm.getType(), tm.getType());
+            case COLLECTION_LINKED -> link(
+                GenericTypes.getCollectionElementType(sm.getGenericType()),
+                GenericTypes.getCollectionElementType(tm.getGenericType())
+            );
+            default -> null;
+          }
+      );
+      parameterTypes[i] = tm.getType();
+    }
+
+    var lookup = MethodHandles.publicLookup();
+    this.constructor = allArgsConstructor
+        ? lookup
+        .unreflectConstructor(targetType.getConstructor(parameterTypes))
+        .asSpreader(Object[].class, parameterTypes.length)
+        .asType(MethodType.methodType(Object.class, Object[].class))
+        : lookup
+        .unreflectConstructor(targetType.getConstructor())
+        .asType(MethodType.methodType(Object.class));
+  }
+
+  /**
+   * @param refc   the class of source or target
+   * @param member a property of source or target
+   * @param type   {@link #GETTER_TYPE} or {@link #SETTER_TYPE}
+   * @return the handle of getter or setter adapted to the specified type, or of the field if the property has no getter or setter
+   */
+  private static MethodHandle handle(Class<?> refc, BeanMember member, MethodType type) throws ReflectiveOperationException {
+    var method = member.getMethod();
+    if (method == null) {
+      // a public field without getter or setter, whose handle is cheap to create.
+      // it is resolved from the copied class since the declaring class may be a non-public superclass
+      var lookup = MethodHandles.publicLookup();
+      var field = member.getField();
+      return (type == GETTER_TYPE
+              ? lookup.findGetter(refc, field.getName(), field.getType())
+              : lookup.findSetter(refc, field.getName(), field.getType())
+      ).asType(type);
+    }
+
+    var handles = HANDLES.get(method.getDeclaringClass());
+    var handle = handles.get(method);
+    if (handle == null) {
+      // creating twice concurrently is harmless
+      handle = MethodHandles.publicLookup().unreflect(method).asType(type);
+      handles.put(method, handle);
+    }
+    return handle;
+  }
+
+  /**
+   * @return the converter linked for the specified nested classes
+   * @see NestedConverters#link(Class, Class)
+   */
+  @SuppressWarnings("unchecked")
+  private static Converter<Object, Object> link(Class<?> sourceType, Class<?> targetType) {
+    return (Converter<Object, Object>) NestedConverters.link(sourceType, targetType);
+  }
+
+  /**
+   * Decide how a property is copied, in the same order as the definers of generated converters
+   *
+   * @see CompatibleLocalDefiner
+   * @see NestedLocalDefiner
+   * @see CollectionNestedLocalDefiner
+   */
+  private static Kind kindOf(
+      Class<?> sourceType,
+      Class<?> targetType,
+      ConverterConfiguration configuration,
+      BeanMember sourceMember,
+      BeanMember targetMember
+  ) {
+    var fullTypeMatching = configuration.isFullTypeMatching();
+    if (fullTypeMatching
+        ? sourceMember.getGenericType().equals(targetMember.getGenericType())
+        : GenericTypes.isSubtypeOf(sourceMember.getGenericType(), targetMember.getGenericType())) {
+      return Kind.COPY;
+    }
+    if (!configuration.isPreferNested()) {
+      return Kind.ZERO;
+    }
+    if (sourceType.equals(sourceMember.getGenericType()) && targetType.equals(targetMember.getGenericType())) {
+      return Kind.NESTED;
+    }
+    var crossTypeNested = configuration.isCrossTypeNested();
+    if (crossTypeNested && NestedConverters.isLinkable(sourceMember.getGenericType(), targetMember.getGenericType())) {
+      return Kind.LINKED;
+    }
+    if (!Collection.class.isAssignableFrom(sourceMember.getType())
+        || !Collection.class.isAssignableFrom(targetMember.getType())
+        || CollectionTypes.getImplementation(targetMember.getType()) == null) {
+      return Kind.ZERO;
+    }
+    var sourceElementType = GenericTypes.getCollectionElementType(sourceMember.getGenericType());
+    var targetElementType = GenericTypes.getCollectionElementType(targetMember.getGenericType());
+    if (sourceElementType == sourceType && targetElementType == targetType) {
+      return !fullTypeMatching || sourceMember.getGenericType().equals(targetMember.getGenericType()) ? Kind.COLLECTION_NESTED : Kind.ZERO;
+    }
+    if (crossTypeNested
+        && (!fullTypeMatching || sourceMember.getType() == targetMember.getType())
+        && sourceElementType != null
+        && targetElementType != null
+        && NestedConverters.isLinkable(sourceElementType, targetElementType)) {
+      return Kind.COLLECTION_LINKED;
+    }
+    return Kind.ZERO;
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public T convert(@Nullable S source) {
+    if (source == null) {
+      return null;
+    }
+
+    var values = values(source);
+    T target;
+    try {
+      target = allArgsConstructor
+          ? (T) (Object) constructor.invokeExact(values)
+          : (T) (Object) constructor.invokeExact();
+    } catch (Throwable e) {
+      throw failure(e);
+    }
+    return allArgsConstructor ? target : set(values, target);
+  }
+
+  @Override
+  public T convertInto(@Nullable S source, @NotNull T target) {
+    if (allArgsConstructor) {
+      return Converter.super.convertInto(source, target);
+    }
+    if (source == null) {
+      return target;
+    }
+    return set(values(source), target);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object[] values(@NotNull S source) {
+    if (slots.length == 0) {
+      return NO_VALUES;
+    }
+
+    var values = new Object[slots.length];
+    for (int i = 0; i < slots.length; i++) {
+      var slot = slots[i];
+      Object value;
+      try {
+        value = slot.kind == Kind.ZERO ? slot.zero : (Object) slot.getter.invokeExact((Object) source);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+      values[i] = switch (slot.kind) {
+        case ZERO, COPY -> value;
+        case NESTED -> convert((S) value);
+        case LINKED -> slot.converter.convert(value);
+        case COLLECTION_NESTED, COLLECTION_LINKED -> value == null ? null : convertAll((Collection<Object>) value, slot);
+      };
+    }
+    return values;
+  }
+
+  /**
+   * @param sources the source collection
+   * @param slot    the property of target
+   * @return a collection of the converted elements
+   */
+  @SuppressWarnings("unchecked")
+  private Collection<Object> convertAll(@NotNull Collection<Object> sources, @NotNull Slot slot) {
+    var converter = slot.converter != null ? slot.converter : (Converter<Object, Object>) this;
+    var targets = CollectionTypes.newCollection(slot.collection, sources.size());
+    for (var source : sources) {
+      targets.add(converter.convert(source));
+    }
+    return targets;
+  }
+
+  private T set(@NotNull Object[] values, @NotNull T target) {
+    for (int i = 0; i < slots.length; i++) {
+      var slot = slots[i];
+      if (slot.setter == null || (skipNull && slot.zero == null && values[i] == null)) {
+        continue;
+      }
+      try {
+        slot.setter.invokeExact((Object) target, values[i]);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+    return target;
+  }
+
+  /**
+   * @param e the throwable thrown by a getter, setter or constructor
+   * @return the exception to throw, which is the throwable itself if it is unchecked
+   * @throws Error if the throwable is an error
+   */
+  private RuntimeException failure(Throwable e) {
+    if (e instanceof Error error) {
+      throw error;
+    }
+    if (e instanceof RuntimeException re) {
+      return re;
+    }
+    return new CopyException("Failed to copy bean: " + pair, e);
+  }
+
+  private enum Kind {
+
+    /**
+     * Copy the zero value of target type, the property is skipped or there is no compatible source property
+     */
+    ZERO,
+
+    /**
+     * Copy the value of source property
+     */
+    COPY,
+
+    /**
+     * Copy the value of source property by this converter
+     */
+    NESTED,
+
+    /**
+     * Copy each element of source property by this converter
+     */
+    COLLECTION_NESTED,
+
+    /**
+     * Copy the value of source property by the converter linked for its classes
+     */
+    LINKED,
+
+    /**
+     * Copy each element of source property by the converter linked for the element classes
+     */
+    COLLECTION_LINKED
+
+  }
+
+  /**
+   * @param kind       how this property is copied
+   * @param getter     {@code (Object) -> Object}, the getter of source, null if kind is {@link Kind#ZERO}
+   * @param setter     {@code (Object, Object) -> void}, the setter of target, null if the property is skipped or the target is instantiated by an all-args-constructor
+   * @param zero       the zero value of target type, the boxed one for primitive types
+   * @param collection the class of target collection if kind is {@link Kind#COLLECTION_NESTED} or {@link Kind#COLLECTION_LINKED}, otherwise null
+   * @param converter  the linked converter if kind is {@link Kind#LINKED} or {@link Kind#COLLECTION_LINKED}, otherwise null
+   */
+  private record Slot(
+      Kind kind,
+      MethodHandle getter,
+      MethodHandle setter,
+      Object zero,
+      Class<?> collection,
+      Converter<Object, Object> converter
+  ) {
+  }
+
+}
@@ -0,0 +1,153 @@
+package io.github.tanyaofei.beancopier.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The converter class names reserved in each classloader, and the last suffixes appended to the base names by the naming policies.
+ * <p>
+ * The classloaders are weakly referenced, the names and suffixes of a classloader are released once it is collected.
+ * Reserving and releasing are atomic and lock-free, so converters can be generated concurrently without blocking each other.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+final class ReservedClassNames {
+
+  private final ConcurrentMap<LoaderKey, Names> names = new ConcurrentHashMap<>(4);
+
+  private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+
+  /**
+   * Reserve a name in the specified classloader
+   *
+   * @param cl   the classloader
+   * @param name the class name
+   * @return true if the name is reserved by this call, or false if it had been reserved
+   */
+  boolean reserve(@NotNull ClassLoader cl, @NotNull String name) {
+    return namesOf(cl).reserved.add(name);
+  }
+
+  /**
+   * @param cl   the classloader
+   * @param name the class name
+   * @return true if the name has been reserved in the specified classloader
+   */
+  boolean isReserved(@NotNull ClassLoader cl, @NotNull String name) {
+    var names = this.names.get(new LoaderKey(cl, null));
+    return names != null && names.reserved.contains(name);
+  }
+
+  /**
+   * @param cl   the classloader
+   * @param base the base name
+   * @return the last suffix appended to the specified base name in the specified classloader, or 1 if there is none
+   * @see io.github.tanyaofei.beancopier.NamingPolicy.UsedNames#getLastSuffix(String)
+   */
+  int getLastSuffix(@NotNull ClassLoader cl, @NotNull String base) {
+    var names = this.names.get(new LoaderKey(cl, null));
+    var suffix = names == null ? null : names.suffixes.get(base);
+    return suffix == null ? 1 : suffix.get();
+  }
+
+  /**
+   * Keep the last suffix appended to the specified base name in the specified classloader, it is never decreased
+   *
+   * @param cl     the classloader
+   * @param base   the base name
+   * @param suffix the suffix
+   * @see io.github.tanyaofei.beancopier.NamingPolicy.UsedNames#setLastSuffix(String, int)
+   */
+  void setLastSuffix(@NotNull ClassLoader cl, @NotNull String base, int suffix) {
+    namesOf(cl).suffixes.computeIfAbsent(base, k -> new AtomicInteger(1)).accumulateAndGet(suffix, Math::max);
+  }
+
+  /**
+   * Release a name reserved in the specified classloader
+   *
+   * @param cl   the classloader
+   * @param name the class name
+   */
+  void release(@NotNull ClassLoader cl, @NotNull String name) {
+    var names = this.names.get(new LoaderKey(cl, null));
+    if (names != null) {
+      names.reserved.remove(name);
+    }
+  }
+
+  /**
+   * @return the number of classloaders that have reserved names
+   */
+  int size() {
+    expunge();
+    return names.size();
+  }
+
+  @NotNull
+  private Names namesOf(@NotNull ClassLoader cl) {
+    var names = this.names.get(new LoaderKey(cl, null));
+    if (names != null) {
+      return names;
+    }
+
+    expunge();
+    return this.names.computeIfAbsent(new LoaderKey(cl, queue), k -> new Names());
+  }
+
+  private void expunge() {
+    for (Object key; (key = queue.poll()) != null; ) {
+      names.remove(key);
+    }
+  }
+
+  /**
+   * The reserved names and the last suffixes of a classloader
+   */
+  private static final class Names {
+
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<String, AtomicInteger> suffixes = new ConcurrentHashMap<>(4);
+
+  }
+
+  /**
+   * A weak key compared by the identity of classloader
+   */
+  private static final class LoaderKey extends WeakReference<ClassLoader> {
+
+    private final int hash;
+
+    private LoaderKey(ClassLoader cl, ReferenceQueue<ClassLoader> queue) {
+      super(cl, queue);
+      this.hash = System.identityHashCode(cl);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LoaderKey other)) {
+        return false;
+      }
+      var cl = get();
+      return cl != null && cl == other.get();
+    }
+
+  }
+
+}
@@ -5,15 +5,28 @@ import io.github.tanyaofei.beancopier.core.ConverterDefinition;
 import io.github.tanyaofei.beancopier.core.invoker.ConstructorInvoker;
 import io.github.tanyaofei.beancopier.core.invoker.ExecutableInvoker;
 import io.github.tanyaofei.beancopier.core.local.IfNonNull;
+import io.github.tanyaofei.beancopier.core.local.LocalsDefinitionContext;
+import io.github.tanyaofei.beancopier.utils.BytecodeUtils;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
+import java.util.List;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * This instancer will instantiate the target using no-args-constructor,
  * and then use setters to assign values for all fields that need to be copied.
+ * <p>
+ * The target is instantiated before any value is got from source,
+ * and each value is passed to its setter as soon as it is pushed to the stack, so no local variable is needed for the values.
+ * </p>
+ * <pre>{@code
+ * var target = new Target();
+ * target.setVar2(source.getVar2());
+ * target.setVar3(source.getVar3());
+ * }</pre>
  *
  * @author tanyaofei
  */
@@ -22,61 +35,119 @@ public class NoArgsConstructorInstancer implements TargetInstancer {
   private final MethodVisitor v;
   private final ConverterDefinition definition;
   private final int targetStore;
-  private final Iterable<BeanMember> targetMembers;
-  private final int firstLocalStore;
+  private final List<BeanMember> targetMembers;
   private final Set<BeanMember> skippedMembers;
 
+  /**
+   * The context of local variables, for recording the target and writing stack map frames
+   */
+  private final LocalsDefinitionContext context;
+
+  /**
+   * Whether to instantiate a new target, if false, the target is already stored at {@link #targetStore}
+   */
+  private final boolean newInstance;
+
+  /**
+   * Generates bytecode that pushes the value of the target member at the specified index to the empty stack
+   */
+  private final IntConsumer valueWriter;
+
+  /**
+   * @param v              Method writer
+   * @param definition     The definition of converter
+   * @param targetStore    The index of local variable to store the target
+   * @param targetMembers  The members of target
+   * @param skippedMembers The members of target that should not be assigned
+   * @param context        The context of local variables
+   * @param newInstance    Whether to instantiate a new target, if false, the target is already stored at targetStore
+   * @param valueWriter    Generates bytecode that pushes the value of the target member at the specified index to the empty stack
+   */
   public NoArgsConstructorInstancer(
       MethodVisitor v,
       ConverterDefinition definition,
       int targetStore,
-      Iterable<BeanMember> targetMembers,
+      List<BeanMember> targetMembers,
       Set<BeanMember> skippedMembers,
-      int firstLocalStore
+      LocalsDefinitionContext context,
+      boolean newInstance,
+      IntConsumer valueWriter
   ) {
     this.v = v;
     this.definition = definition;
     this.targetStore = targetStore;
     this.targetMembers = targetMembers;
-    this.firstLocalStore = firstLocalStore;
     this.skippedMembers = skippedMembers;
+    this.context = context;
+    this.newInstance = newInstance;
+    this.valueWriter = valueWriter;
   }
 
   @Override
   public void instantiate() {
-    ConstructorInvoker.fromNoArgsConstructor(definition.getTargetType()).invoke(v);
-    v.visitVarInsn(Opcodes.ASTORE, targetStore);
-    int store = firstLocalStore;
-    for (var member : targetMembers) {
-      boolean skip = skippedMembers.contains(member);
-      if (skip) {
-        store += LocalOpcode.ofType(member.getType()).slots;
-      } else {
-        store = setValue(member, store);
-      }
+    if (newInstance) {
+      ConstructorInvoker.fromNoArgsConstructor(definition.getTargetType()).invoke(v);
+      v.visitVarInsn(Opcodes.ASTORE, targetStore);
+      context.addLocal(definition.getTargetType(), 1);
+    }
+    for (int i = 0; i < targetMembers.size(); i++) {
+      assign(i);
+    }
+  }
+
+  /**
+   * Assign the value of the target member at the specified index, nothing is written if the member is skipped.
+   * It is used to assign the members in several methods, in which case {@link #instantiate()} is not called
+   *
+   * @param index the index of target member
+   * @since 0.2.0
+   */
+  public void assign(int index) {
+    var member = targetMembers.get(index);
+    if (!skippedMembers.contains(member)) {
+      valueWriter.accept(index);
+      setValue(member);
     }
   }
 
-  private int setValue(BeanMember member, int localStore) {
-    var os = LocalOpcode.ofType(member.getType());
+  /**
+   * Pass the value in the stack to the setter of the specified member
+   */
+  private void setValue(BeanMember member) {
+    var setter = ExecutableInvoker.setter(member, definition);
     if (definition.getConfiguration().isSkipNull() && !member.getType().isPrimitive()) {
       // If skipNull is configured as true, a null check will be performed before calling the setter.
       // The setter method will only be called if the value is not null.
       new IfNonNull(
           v,
+          BytecodeUtils.getFrameType(member.getType()),
           () -> {
-            v.visitVarInsn(Opcodes.ALOAD, targetStore);
-            v.visitVarInsn(os.loadOpcode, localStore);
+            loadTargetUnderValue(member.getType());
+            setter.invoke(v, true);
           },
-          () -> ExecutableInvoker.invoker(member.getMethod()).invoke(v, true)
+          context
       ).write();
     } else {
-      v.visitVarInsn(Opcodes.ALOAD, targetStore);
-      v.visitVarInsn(os.loadOpcode, localStore);
-      ExecutableInvoker.invoker(member.getMethod()).invoke(v, true);
+      loadTargetUnderValue(member.getType());
+      setter.invoke(v, true);
     }
-    return localStore + os.slots;
   }
 
+  /**
+   * Insert the target under the value in the stack
+   * <pre>{@code
+   * ..., value -> ..., target, value
+   * }</pre>
+   */
+  private void loadTargetUnderValue(Class<?> valueType) {
+    v.visitVarInsn(Opcodes.ALOAD, targetStore);
+    if (LocalOpcode.ofType(valueType).slots == 2) {
+      // value is a long or double
+      v.visitInsn(Opcodes.DUP_X2);
+      v.visitInsn(Opcodes.POP);
+    } else {
+      v.visitInsn(Opcodes.SWAP);
+    }
+  }
 
 }
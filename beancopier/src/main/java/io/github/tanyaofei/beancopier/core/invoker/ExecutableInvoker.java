@@ -1,9 +1,14 @@
 package io.github.tanyaofei.beancopier.core.invoker;
 
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.core.ConverterDefinition;
+import io.github.tanyaofei.beancopier.utils.reflection.TrivialAccessors;
+import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
 import org.objectweb.asm.MethodVisitor;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * A tool for generating bytecode to execute an executable.
@@ -36,6 +41,79 @@ public interface ExecutableInvoker {
     return new ConstructorInvoker(constructor);
   }
 
+  /**
+   * Return an invoker that reads the specified property of source,
+   * it reads the field directly if {@link ConverterConfiguration#isDirectFieldAccess()} is enabled and the getter can be skipped.
+   *
+   * @param member     the property of source
+   * @param definition the definition of converter
+   * @return 读取属性的字节码编写工具
+   * @since 0.2.0
+   */
+  static ExecutableInvoker getter(BeanMember member, ConverterDefinition definition) {
+    var field = directField(member, definition, definition.getSourceType(), false);
+    return field != null ? field : invoker(member.getMethod());
+  }
+
+  /**
+   * Return an invoker that writes the specified property of target,
+   * it writes the field directly if {@link ConverterConfiguration#isDirectFieldAccess()} is enabled and the setter can be skipped.
+   *
+   * @param member     the property of target
+   * @param definition the definition of converter
+   * @return 写入属性的字节码编写工具
+   * @since 0.2.0
+   */
+  static ExecutableInvoker setter(BeanMember member, ConverterDefinition definition) {
+    var field = directField(member, definition, definition.getTargetType(), true);
+    return field != null ? field : invoker(member.getMethod());
+  }
+
+  /**
+   * @param member     the property
+   * @param definition the definition of converter
+   * @param type       the class of source or target that declaring or inheriting the property
+   * @param write      true for a setter, false for a getter
+   * @return the invoker that accesses the field in place of the getter or setter, or null if the getter or setter must be called
+   */
+  private static FieldInvoker directField(BeanMember member, ConverterDefinition definition, Class<?> type, boolean write) {
+    if (!definition.getConfiguration().isDirectFieldAccess()) {
+      return null;
+    }
+    var field = member.getField();
+    if (field == null) {
+      return null;
+    }
+
+    Class<?> owner;
+    if (definition.canAccess(field)) {
+      owner = field.getDeclaringClass();
+    } else if (Modifier.isPublic(field.getModifiers()) && Modifier.isPublic(type.getModifiers())) {
+      // a public field declared by a non-public superclass, it is accessible through the copied class
+      owner = type;
+    } else {
+      return null;
+    }
+
+    var method = member.getMethod();
+    if (method == null) {
+      // a public field without getter or setter
+      return write ? FieldInvoker.setter(field, owner) : FieldInvoker.getter(field, owner);
+    }
+    if (write ? !TrivialAccessors.isTrivialSetter(method, field) : !TrivialAccessors.isTrivialGetter(method, field)) {
+      return null;
+    }
+    // the method may be overridden by a subclass between the copied class and the declaring class
+    for (var c = type; c != method.getDeclaringClass(); c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(method.getName(), method.getParameterTypes());
+        return null;
+      } catch (NoSuchMethodException ignored) {
+      }
+    }
+    return write ? FieldInvoker.setter(field, owner) : FieldInvoker.getter(field, owner);
+  }
+
   /**
    * Write bytecode that invoking the executable, and keep the return value in stack if the executable return one
    *
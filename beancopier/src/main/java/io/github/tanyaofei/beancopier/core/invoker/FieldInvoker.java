@@ -0,0 +1,91 @@
+package io.github.tanyaofei.beancopier.core.invoker;
+
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Field;
+
+/**
+ * A tool for generating bytecode to read or write a field in place of calling its getter or setter.
+ * <p>
+ * The operand stack is changed the same as calling the getter or setter:
+ * reading consumes the object and pushes the value, writing consumes the object and the value.
+ * </p>
+ *
+ * @author tanyaofei
+ * @see Field
+ * @since 0.2.0
+ */
+public class FieldInvoker implements ExecutableInvoker {
+
+  /**
+   * {@link Opcodes#GETFIELD} or {@link Opcodes#PUTFIELD}
+   */
+  private final int opcode;
+
+  /**
+   * The internal name of the class that the field is resolved from, the declaring class or an accessible subclass of it
+   */
+  private final String owner;
+
+  /**
+   * The name of field
+   */
+  private final String name;
+
+  /**
+   * The type descriptor of field
+   */
+  private final String descriptor;
+
+  private FieldInvoker(int opcode, Field field, Class<?> owner) {
+    this.opcode = opcode;
+    this.owner = Type.getInternalName(owner);
+    this.name = field.getName();
+    this.descriptor = Type.getDescriptor(field.getType());
+  }
+
+  /**
+   * @param field the field
+   * @return a FieldInvoker that reads the specified field
+   */
+  public static FieldInvoker getter(Field field) {
+    return getter(field, field.getDeclaringClass());
+  }
+
+  /**
+   * @param field the field
+   * @param owner the class that the field is resolved from, the declaring class or a subclass of it
+   * @return a FieldInvoker that reads the specified field
+   */
+  public static FieldInvoker getter(Field field, Class<?> owner) {
+    return new FieldInvoker(Opcodes.GETFIELD, field, owner);
+  }
+
+  /**
+   * @param field the field
+   * @return a FieldInvoker that writes the specified field
+   */
+  public static FieldInvoker setter(Field field) {
+    return setter(field, field.getDeclaringClass());
+  }
+
+  /**
+   * @param field the field
+   * @param owner the class that the field is resolved from, the declaring class or a subclass of it
+   * @return a FieldInvoker that writes the specified field
+   */
+  public static FieldInvoker setter(Field field, Class<?> owner) {
+    return new FieldInvoker(Opcodes.PUTFIELD, field, owner);
+  }
+
+  @Override
+  public void invoke(MethodVisitor v, boolean popReturnValue) {
+    v.visitFieldInsn(opcode, owner, name, descriptor);
+    if (popReturnValue && opcode == Opcodes.GETFIELD) {
+      v.visitInsn(Type.getType(descriptor).getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+    }
+  }
+
+}
@@ -5,7 +5,13 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
 /**
- * A tool for generating bytecode for the "if null" condition
+ * A tool for generating bytecode for the "if non null" condition of the only value in the stack.
+ * The value is consumed by {@link #onNonNull} if it is not null, or popped if it is null.
+ * <pre>{@code
+ * if (value != null) {
+ *   target.setValue(value);
+ * }
+ * }</pre>
  *
  * @author tanyaofei
  */
@@ -16,45 +22,59 @@ public class IfNonNull {
    */
   private final MethodVisitor v;
 
-
   /**
    * The label of IFNUll
    */
   private final Label ifNull = new Label();
 
   /**
-   * A runnable for generating bytecode to get a value that used to check if it is null or not
+   * The label of GOTO
+   */
+  private final Label end = new Label();
+
+  /**
+   * The type of the only value in the stack, in the format of stack map frames
    */
-  private final Runnable who;
+  private final Object valueType;
 
   /**
-   * A runnable for generating bytecode for the case when the value({@link #who}) is not null
+   * A runnable for generating bytecode for the case when the value is not null, it must consume the value
    */
   private final Runnable onNonNull;
 
+  /**
+   * The context of local variables, for writing stack map frames
+   */
+  private final LocalsDefinitionContext context;
 
   /**
    * Return an instance
    *
    * @param v         Method writer
-   * @param who       A runnable for generating bytecode to get a value that used to check if it is null or not
-   * @param onNonNull A runnable for generating bytecode for the case when the value({@link #who}) is not null
+   * @param valueType The type of the only value in the stack, in the format of stack map frames
+   * @param onNonNull A runnable for generating bytecode for the case when the value is not null, it must consume the value
+   * @param context   The context of local variables, for writing stack map frames
    */
-  public IfNonNull(MethodVisitor v, Runnable who, Runnable onNonNull) {
+  public IfNonNull(MethodVisitor v, Object valueType, Runnable onNonNull, LocalsDefinitionContext context) {
     this.v = v;
-    this.who = who;
+    this.valueType = valueType;
     this.onNonNull = onNonNull;
+    this.context = context;
   }
 
   /**
-   * Generating bytecode for the "if null" condition
+   * Generating bytecode for the "if non null" condition
    */
   public void write() {
-    who.run();
+    v.visitInsn(Opcodes.DUP);
     v.visitJumpInsn(Opcodes.IFNULL, ifNull);
-    who.run();
     onNonNull.run();
+    v.visitJumpInsn(Opcodes.GOTO, end);
     v.visitLabel(ifNull);
+    context.visitFrame(v, valueType);
+    v.visitInsn(Opcodes.POP);
+    v.visitLabel(end);
+    context.visitFrame(v, null);
   }
 
 }
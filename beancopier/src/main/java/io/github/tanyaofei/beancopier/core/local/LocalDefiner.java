@@ -1,6 +1,8 @@
 package io.github.tanyaofei.beancopier.core.local;
 
 import io.github.tanyaofei.beancopier.constants.LocalOpcode;
+import io.github.tanyaofei.beancopier.constants.MethodNames;
+import io.github.tanyaofei.beancopier.constants.TypeDescriptors;
 import io.github.tanyaofei.beancopier.core.ConverterDefinition;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -26,17 +28,20 @@ public abstract class LocalDefiner implements Opcodes {
   }
 
   /**
-   * Storing a variable from the stack to the local variable table
+   * Storing a variable from the stack to the local variable table,
+   * or leaving it in the stack if the context is {@link LocalsDefinitionContext#isStreamed() streamed}
    *
    * @param v       Method writer
    * @param type    The type of this variable
    * @param context The context of the definition
    */
   protected static void storeLocal(MethodVisitor v, Class<?> type, LocalsDefinitionContext context) {
-    var store = context.getNextStore();
+    if (context.isStreamed()) {
+      return;
+    }
     var op = LocalOpcode.ofType(type);
-    v.visitVarInsn(op.storeOpcode, store);
-    context.setNextStore(store + op.slots);
+    v.visitVarInsn(op.storeOpcode, context.getNextStore());
+    context.addLocal(type, op.slots);
   }
 
   /**
@@ -47,10 +52,7 @@ public abstract class LocalDefiner implements Opcodes {
    * @since 0.2.0
    */
   protected static void storeLocal(MethodVisitor v, LocalDefinition definition, LocalsDefinitionContext context) {
-    var store = context.getNextStore();
-    var op = LocalOpcode.ofType(definition.getType());
-    v.visitVarInsn(op.storeOpcode, store);
-    context.setNextStore(store + op.slots);
+    storeLocal(v, definition.getType(), context);
   }
 
   /**
@@ -73,6 +75,25 @@ public abstract class LocalDefiner implements Opcodes {
     v.visitVarInsn(Opcodes.ALOAD, 0);
   }
 
+  /**
+   * Pushing the converter linked for the specified nested classes from its static field to the stack
+   *
+   * @param v                   Method writer
+   * @param converterDefinition The definition of converter
+   * @param sourceType          The class of nested source
+   * @param targetType          The class of nested target
+   * @see ConverterDefinition#link(Class, Class)
+   * @since 0.2.0
+   */
+  protected static void loadLinkedConverter(MethodVisitor v, ConverterDefinition converterDefinition, Class<?> sourceType, Class<?> targetType) {
+    v.visitFieldInsn(
+        Opcodes.GETSTATIC,
+        converterDefinition.getInternalName(),
+        MethodNames.nested$ + converterDefinition.link(sourceType, targetType),
+        TypeDescriptors.Converter
+    );
+  }
+
   /**
    * Defining a variable as expected.
    * The implementer should define a variable as expected in this method.
@@ -1,9 +1,19 @@
 package io.github.tanyaofei.beancopier.core.local;
 
+import io.github.tanyaofei.beancopier.utils.BytecodeUtils;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,4 +34,122 @@ public class LocalsDefinitionContext {
    */
   int nextStore;
 
+  /**
+   * Whether the defined values are left in the stack to be consumed immediately instead of being stored in local variables.
+   * The values are streamed to the setters of target when the target is instantiated by a no-args-constructor,
+   * since only the all-args-constructor needs all the values at once.
+   *
+   * @since 0.2.0
+   */
+  private boolean streamed;
+
+  /**
+   * The types of the local variables defined so far, in the format of stack map frames.
+   * A long or double variable takes one element only.
+   *
+   * @since 0.2.0
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final List<Object> frameLocals = new ArrayList<>();
+
+  /**
+   * The number of local variables in the last stack map frame, the frames are written in compressed form relative to it
+   *
+   * @since 0.2.0
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private int lastFrameLocals;
+
+  /**
+   * The number of local variables that are unchanged since the last stack map frame,
+   * it is less than {@link #lastFrameLocals} if some local variables are removed after the last frame
+   *
+   * @since 0.2.0
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private int unchangedFrameLocals;
+
+  /**
+   * Record the locals that exist before the first local variable is defined, such as {@code this} and the method arguments.
+   * They are the locals of the implicit first frame, or of the last frame written before the first local variable is defined
+   *
+   * @param locals the types of locals, in the format of stack map frames
+   * @return this
+   * @since 0.2.0
+   */
+  public LocalsDefinitionContext setInitialFrameLocals(Object... locals) {
+    frameLocals.clear();
+    frameLocals.addAll(Arrays.asList(locals));
+    lastFrameLocals = locals.length;
+    unchangedFrameLocals = locals.length;
+    return this;
+  }
+
+  /**
+   * Record a local variable stored at {@link #nextStore} and move {@link #nextStore} to the next free slot
+   *
+   * @param type  the class of local variable
+   * @param slots the slots the local variable takes
+   * @return this
+   * @since 0.2.0
+   */
+  public LocalsDefinitionContext addLocal(Class<?> type, int slots) {
+    frameLocals.add(BytecodeUtils.getFrameType(type));
+    nextStore += slots;
+    return this;
+  }
+
+  /**
+   * Remove the last local variables and move {@link #nextStore} back, so that their slots are reused by the local variables defined later.
+   * It is used for the local variables that are only used inside a block, such as the index of a loop
+   *
+   * @param count the number of local variables to remove
+   * @return this
+   * @since 0.2.0
+   */
+  public LocalsDefinitionContext removeLocals(int count) {
+    for (int i = 0; i < count; i++) {
+      var type = frameLocals.remove(frameLocals.size() - 1);
+      nextStore -= type == Opcodes.LONG || type == Opcodes.DOUBLE ? 2 : 1;
+    }
+    unchangedFrameLocals = Math.min(unchangedFrameLocals, frameLocals.size());
+    return this;
+  }
+
+  /**
+   * Write a stack map frame holding all the local variables defined so far.
+   * The frame is written in the most compact form relative to the last one
+   *
+   * @param v     Method writer
+   * @param stack the type of the only value in the stack, in the format of stack map frames, or null if the stack is empty
+   * @since 0.2.0
+   */
+  public void visitFrame(MethodVisitor v, @Nullable Object stack) {
+    var n = frameLocals.size();
+    var appended = n - lastFrameLocals;
+    if (unchangedFrameLocals < lastFrameLocals) {
+      // some local variables are removed since the last frame
+      if (stack == null && n == unchangedFrameLocals && lastFrameLocals - n <= 3) {
+        v.visitFrame(Opcodes.F_CHOP, lastFrameLocals - n, null, 0, null);
+      } else {
+        v.visitFrame(Opcodes.F_FULL, n, frameLocals.toArray(), stack == null ? 0 : 1, stack == null ? null : new Object[]{stack});
+      }
+    } else if (appended == 0) {
+      if (stack == null) {
+        v.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+      } else {
+        v.visitFrame(Opcodes.F_SAME1, 0, null, 1, new Object[]{stack});
+      }
+    } else if (stack == null && appended <= 3) {
+      v.visitFrame(Opcodes.F_APPEND, appended, frameLocals.subList(lastFrameLocals, n).toArray(), 0, null);
+    } else {
+      v.visitFrame(Opcodes.F_FULL, n, frameLocals.toArray(), stack == null ? 0 : 1, stack == null ? null : new Object[]{stack});
+    }
+    lastFrameLocals = n;
+    unchangedFrameLocals = n;
+  }
+
 }
@@ -1,19 +1,25 @@
 package io.github.tanyaofei.beancopier.core.local.impl;
 
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
 import io.github.tanyaofei.beancopier.constants.*;
 import io.github.tanyaofei.beancopier.core.ConverterDefinition;
+import io.github.tanyaofei.beancopier.core.NestedConverters;
 import io.github.tanyaofei.beancopier.core.invoker.ExecutableInvoker;
-import io.github.tanyaofei.beancopier.core.local.IfNullOrElse;
 import io.github.tanyaofei.beancopier.core.local.LocalDefiner;
 import io.github.tanyaofei.beancopier.core.local.LocalDefinition;
 import io.github.tanyaofei.beancopier.core.local.LocalsDefinitionContext;
+import io.github.tanyaofei.beancopier.utils.BytecodeUtils;
+import io.github.tanyaofei.beancopier.utils.reflection.CollectionTypes;
+import io.github.tanyaofei.beancopier.utils.reflection.GenericTypes;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
-import io.github.tanyaofei.guava.common.reflect.TypeToken;
-import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 
 import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * A definer for define a nested field variable.
@@ -23,11 +29,34 @@ import java.util.Collection;
  * }</pre>
  * In this case, the field named "nested" is a Collection Nested Field,
  * which means that a recursive bytecode will be generated to complete the local variable definition.
+ * <p>
+ * Each element is converted in a counted loop and added to a collection created with the capacity of source collection,
+ * the collection is of the class returned by {@link CollectionTypes#getImplementation(Class)} for the declared type of target.
+ * The elements of a {@link RandomAccess} list are got by index without iterator.
+ * </p>
+ * <p>
+ * If {@link ConverterConfiguration#isCrossTypeNested()} is enabled, the elements of other classes are converted by the converter linked for their classes,
+ * e.g. {@code List<Customer>} to {@code List<CustomerDTO>}, see {@link NestedLocalDefiner}.
+ * </p>
  *
  * <pre>{@code
- *  List<Target> nested = source.nested() == null
- *    ? null
- *    : source.nested().map(this::convert).collect(Collector.toList());
+ *  List<Target> nested;
+ *  var sourceNested = source.nested();
+ *  if (sourceNested == null) {
+ *    nested = null;
+ *  } else {
+ *    var collection = new ArrayList<Target>(sourceNested.size());
+ *    if (sourceNested instanceof RandomAccess) {
+ *      for (int i = 0, size = sourceNested.size(); i < size; i++) {
+ *        collection.add(this.convert((Source) sourceNested.get(i)));
+ *      }
+ *    } else {
+ *      for (var iterator = sourceNested.iterator(); iterator.hasNext(); ) {
+ *        collection.add(this.convert((Source) iterator.next()));
+ *      }
+ *    }
+ *    nested = collection;
+ *  }
  * }
  * </pre>
  *
@@ -57,99 +86,246 @@ public class CollectionNestedLocalDefiner extends LocalDefiner {
       return false;
     }
 
-    var getter = ExecutableInvoker.invoker(member.getMethod());
-    var internalName = converterDefinition.getInternalName();
-    String convertDescriptor = converterDefinition.getConvertMethodDescriptor();
-
-    /*
-     ->
-     if (source.getValue() == null) {
-        var value = null;
-     } else {
-        var value = source.getValue().stream().map(this::convert).collect(Collector.toList());
-     }
-     */
-    new IfNullOrElse(
-        v,
-        () -> {
-          loadSource(v);
-          getter.invoke(v);
-        },
-        () -> v.visitInsn(ACONST_NULL),
-        () -> {
-          // list.stream()
-          MethodInvokers.Collection$stream.invoke(v);
-
-          // this::convert
-          v.visitVarInsn(ALOAD, 0);
-          v.visitInvokeDynamicInsn(
-              MethodNames.Function$apply,
-              "(L" + internalName + ";)" + TypeDescriptors.Function,
-              new Handle(H_INVOKESTATIC,
-                  InternalNames.LambdaMetafactory,
-                  MethodNames.Lambda$Metafactory$metafactory,
-                  MethodDescriptors.LambdaMetafactory$metafactory,
-                  false),
-              MethodTypes.Converter$convert,
-              new Handle(H_INVOKESPECIAL,
-                  internalName,
-                  MethodNames.lambda$convert$0,
-                  convertDescriptor,
-                  false
-              ),
-              org.objectweb.asm.Type.getType(convertDescriptor)
-          );
-
-          // stream.map()
-          MethodInvokers.Stream$map.invoke(v);
-
-          // collector.toList()
-          MethodInvokers.Collector$toList.invoke(v);
-
-          // stream.collect()
-          MethodInvokers.Stream$collect.invoke(v);
-
-          // (List) .....
-          v.visitTypeInsn(CHECKCAST, InternalNames.List);
-        }
-    ).write();
+    var implementation = CollectionTypes.getImplementation(localDefinition.getType());
+    if (implementation == null) {
+      return false;
+    }
+
+    var elements = new Elements(
+        converterDefinition,
+        GenericTypes.getCollectionElementType(member.getGenericType()),
+        GenericTypes.getCollectionElementType(localDefinition.getGenericType())
+    );
+    var getter = ExecutableInvoker.getter(member, converterDefinition);
+    var sourceCollectionType = member.getType();
+    var end = new Label();
+    var nonNull = new Label();
+
+    // if (source.getValue() == null) value = null;
+    loadSource(v);
+    getter.invoke(v);
+    v.visitInsn(DUP);
+    v.visitJumpInsn(IFNONNULL, nonNull);
+    v.visitInsn(POP);
+    v.visitInsn(ACONST_NULL);
+    v.visitJumpInsn(GOTO, end);
+
+    // var sourceCollection = source.getValue();
+    v.visitLabel(nonNull);
+    context.visitFrame(v, BytecodeUtils.getFrameType(sourceCollectionType));
+    int sourceStore = context.getNextStore();
+    v.visitVarInsn(ASTORE, sourceStore);
+    context.addLocal(sourceCollectionType, 1);
+
+    // var collection = new ArrayList<>(sourceCollection.size());
+    var implementationName = org.objectweb.asm.Type.getInternalName(implementation);
+    v.visitTypeInsn(NEW, implementationName);
+    v.visitInsn(DUP);
+    if (CollectionTypes.isPresizable(implementation)) {
+      v.visitVarInsn(ALOAD, sourceStore);
+      MethodInvokers.Collection$size.invoke(v);
+      if (CollectionTypes.isHashed(implementation)) {
+        // (int) (size / .75f) + 1
+        v.visitInsn(I2F);
+        v.visitLdcInsn(.75f);
+        v.visitInsn(FDIV);
+        v.visitInsn(F2I);
+        v.visitInsn(ICONST_1);
+        v.visitInsn(IADD);
+      }
+      v.visitMethodInsn(INVOKESPECIAL, implementationName, MethodNames.Object$init, "(I)V", false);
+    } else {
+      v.visitMethodInsn(INVOKESPECIAL, implementationName, MethodNames.Object$init, MethodDescriptors.Object$init, false);
+    }
+    int collectionStore = context.getNextStore();
+    v.visitVarInsn(ASTORE, collectionStore);
+    context.addLocal(implementation, 1);
+
+    var indexed = List.class.isAssignableFrom(sourceCollectionType);
+    var alwaysIndexed = indexed && RandomAccess.class.isAssignableFrom(sourceCollectionType);
+    var iterate = new Label();
+    var done = new Label();
+    if (indexed) {
+      if (!alwaysIndexed) {
+        v.visitVarInsn(ALOAD, sourceStore);
+        v.visitTypeInsn(INSTANCEOF, InternalNames.RandomAccess);
+        v.visitJumpInsn(IFEQ, iterate);
+      }
+      writeIndexedLoop(v, elements, context, sourceStore, collectionStore);
+      if (!alwaysIndexed) {
+        v.visitJumpInsn(GOTO, done);
+        v.visitLabel(iterate);
+        context.visitFrame(v, null);
+      }
+    }
+    if (!alwaysIndexed) {
+      writeIteratorLoop(v, elements, context, sourceStore, collectionStore);
+      if (indexed) {
+        v.visitLabel(done);
+        context.visitFrame(v, null);
+      }
+    }
+
+    // value = collection;
+    v.visitVarInsn(ALOAD, collectionStore);
+    context.removeLocals(2);
+    v.visitLabel(end);
+    context.visitFrame(v, BytecodeUtils.getFrameType(localDefinition.getType()));
 
     storeLocal(v, localDefinition, context);
     return true;
   }
 
+  /**
+   * Writing the loop that converts the elements of a {@link RandomAccess} list by index
+   * <pre>{@code
+   * for (int i = 0, size = sourceCollection.size(); i < size; i++) {
+   *   collection.add(this.convert((Source) sourceCollection.get(i)));
+   * }
+   * }</pre>
+   */
+  private static void writeIndexedLoop(
+      MethodVisitor v,
+      Elements elements,
+      LocalsDefinitionContext context,
+      int sourceStore,
+      int collectionStore
+  ) {
+    int indexStore = context.getNextStore();
+    v.visitInsn(ICONST_0);
+    v.visitVarInsn(ISTORE, indexStore);
+    context.addLocal(int.class, 1);
+    int sizeStore = context.getNextStore();
+    v.visitVarInsn(ALOAD, sourceStore);
+    MethodInvokers.Collection$size.invoke(v);
+    v.visitVarInsn(ISTORE, sizeStore);
+    context.addLocal(int.class, 1);
+
+    var loop = new Label();
+    var exit = new Label();
+    v.visitLabel(loop);
+    context.visitFrame(v, null);
+    v.visitVarInsn(ILOAD, indexStore);
+    v.visitVarInsn(ILOAD, sizeStore);
+    v.visitJumpInsn(IF_ICMPGE, exit);
+    v.visitVarInsn(ALOAD, collectionStore);
+    elements.loadConverter(v);
+    v.visitVarInsn(ALOAD, sourceStore);
+    v.visitVarInsn(ILOAD, indexStore);
+    MethodInvokers.List$get.invoke(v);
+    elements.convertAndAdd(v);
+    v.visitIincInsn(indexStore, 1);
+    v.visitJumpInsn(GOTO, loop);
+    v.visitLabel(exit);
+    context.removeLocals(2);
+    context.visitFrame(v, null);
+  }
+
+  /**
+   * Writing the loop that converts the elements of a collection by iterator
+   * <pre>{@code
+   * for (var iterator = sourceCollection.iterator(); iterator.hasNext(); ) {
+   *   collection.add(this.convert((Source) iterator.next()));
+   * }
+   * }</pre>
+   */
+  private static void writeIteratorLoop(
+      MethodVisitor v,
+      Elements elements,
+      LocalsDefinitionContext context,
+      int sourceStore,
+      int collectionStore
+  ) {
+    int iteratorStore = context.getNextStore();
+    v.visitVarInsn(ALOAD, sourceStore);
+    MethodInvokers.Collection$iterator.invoke(v);
+    v.visitVarInsn(ASTORE, iteratorStore);
+    context.addLocal(Iterator.class, 1);
+
+    var loop = new Label();
+    var exit = new Label();
+    v.visitLabel(loop);
+    context.visitFrame(v, null);
+    v.visitVarInsn(ALOAD, iteratorStore);
+    MethodInvokers.Iterator$hasNext.invoke(v);
+    v.visitJumpInsn(IFEQ, exit);
+    v.visitVarInsn(ALOAD, collectionStore);
+    elements.loadConverter(v);
+    v.visitVarInsn(ALOAD, iteratorStore);
+    MethodInvokers.Iterator$next.invoke(v);
+    elements.convertAndAdd(v);
+    v.visitJumpInsn(GOTO, loop);
+    v.visitLabel(exit);
+    context.removeLocals(1);
+    context.visitFrame(v, null);
+  }
 
   protected boolean isCollectionNested(ConverterDefinition converterDefinition, BeanMember souceBeanMember, Class<?> localType, Type localGenericType) {
-    var sc = converterDefinition.getSourceType();
-    var tc = converterDefinition.getTargetType();
-
-    if (converterDefinition.getConfiguration().isFullTypeMatching()) {
-      return souceBeanMember.getGenericType().equals(localGenericType)
-          && Collection.class.isAssignableFrom(localType)
-          && getCollectionElementType(souceBeanMember.getGenericType()) == sc
-          && getCollectionElementType(localGenericType) == tc;
-    } else {
-      return Collection.class.isAssignableFrom(souceBeanMember.getType())
-          && Collection.class.isAssignableFrom(localType)
-          && getCollectionElementType(souceBeanMember.getGenericType()) == sc
-          && getCollectionElementType(localGenericType) == tc;
+    if (!Collection.class.isAssignableFrom(souceBeanMember.getType()) || !Collection.class.isAssignableFrom(localType)) {
+      return false;
+    }
+
+    var configuration = converterDefinition.getConfiguration();
+    var sourceElementType = GenericTypes.getCollectionElementType(souceBeanMember.getGenericType());
+    var targetElementType = GenericTypes.getCollectionElementType(localGenericType);
+    if (sourceElementType == converterDefinition.getSourceType() && targetElementType == converterDefinition.getTargetType()) {
+      return !configuration.isFullTypeMatching() || souceBeanMember.getGenericType().equals(localGenericType);
     }
 
+    // the elements of other classes
+    return configuration.isCrossTypeNested()
+        && (!configuration.isFullTypeMatching() || souceBeanMember.getType() == localType)
+        && sourceElementType != null
+        && targetElementType != null
+        && NestedConverters.isLinkable(sourceElementType, targetElementType);
   }
 
   /**
-   * 获取指定字段 {@link Collection} 的元素类型
+   * The converter of elements, it is the converter itself or the one linked for the element classes
    *
-   * @param type 集合类
-   * @return 集合的元素类型
+   * @param converterDefinition The definition of converter
+   * @param sourceType          The class of source elements
+   * @param targetType          The class of target elements
    */
-  @SuppressWarnings("unchecked")
-  private Class<?> getCollectionElementType(Type type) {
-    return ((TypeToken<? extends Collection<?>>) TypeToken.of(type))
-        .getSupertype(Collection.class)
-        .resolveType(Collection.class.getTypeParameters()[0])
-        .getRawType();
-  }
+  private record Elements(ConverterDefinition converterDefinition, Class<?> sourceType, Class<?> targetType) {
+
+    private boolean isLinked() {
+      return sourceType != converterDefinition.getSourceType() || targetType != converterDefinition.getTargetType();
+    }
+
+    /**
+     * Pushing the converter of elements to the stack
+     */
+    void loadConverter(MethodVisitor v) {
+      if (isLinked()) {
+        loadLinkedConverter(v, converterDefinition, sourceType, targetType);
+      } else {
+        loadThis(v);
+      }
+    }
 
+    /**
+     * Converting the element in the stack and adding it to the collection
+     * <pre>{@code
+     * ..., collection, converter, element -> ...
+     * }</pre>
+     */
+    void convertAndAdd(MethodVisitor v) {
+      if (isLinked()) {
+        MethodInvokers.Converter$convert.invoke(v);
+      } else {
+        v.visitTypeInsn(CHECKCAST, org.objectweb.asm.Type.getInternalName(converterDefinition.getSourceType()));
+        v.visitMethodInsn(
+            INVOKEVIRTUAL,
+            converterDefinition.getInternalName(),
+            MethodNames.Converter$convert,
+            converterDefinition.getConvertMethodDescriptor(),
+            false
+        );
+      }
+      MethodInvokers.Collection$add.invoke(v, true);
+    }
+
+  }
 
 }
@@ -5,7 +5,7 @@ import io.github.tanyaofei.beancopier.core.invoker.ExecutableInvoker;
 import io.github.tanyaofei.beancopier.core.local.LocalDefiner;
 import io.github.tanyaofei.beancopier.core.local.LocalDefinition;
 import io.github.tanyaofei.beancopier.core.local.LocalsDefinitionContext;
-import io.github.tanyaofei.guava.common.reflect.TypeToken;
+import io.github.tanyaofei.beancopier.utils.reflection.GenericTypes;
 import org.objectweb.asm.MethodVisitor;
 
 import java.lang.reflect.Type;
@@ -43,7 +43,7 @@ public class CompatibleLocalDefiner extends LocalDefiner {
       }
     }
 
-    var getter = ExecutableInvoker.invoker(member.getMethod());
+    var getter = ExecutableInvoker.getter(member, converterDefinition);
     loadSource(v);
     getter.invoke(v);
     storeLocal(v, localDefinition.getType(), context);
@@ -65,7 +65,7 @@ public class CompatibleLocalDefiner extends LocalDefiner {
    * @return true if `targetType` is a subtype of source type
    */
   protected boolean isTypeCompatible(Type sourceType, Type targetType) {
-    return TypeToken.of(sourceType).isSubtypeOf(targetType);
+    return GenericTypes.isSubtypeOf(sourceType, targetType);
   }
 
 }
@@ -1,7 +1,10 @@
 package io.github.tanyaofei.beancopier.core.local.impl;
 
+import io.github.tanyaofei.beancopier.ConverterConfiguration;
+import io.github.tanyaofei.beancopier.constants.MethodInvokers;
 import io.github.tanyaofei.beancopier.constants.MethodNames;
 import io.github.tanyaofei.beancopier.core.ConverterDefinition;
+import io.github.tanyaofei.beancopier.core.NestedConverters;
 import io.github.tanyaofei.beancopier.core.invoker.ExecutableInvoker;
 import io.github.tanyaofei.beancopier.core.local.LocalDefiner;
 import io.github.tanyaofei.beancopier.core.local.LocalDefinition;
@@ -23,6 +26,16 @@ import java.lang.reflect.Type;
  *  Target nested = this.convert(source.nested());
  * }
  * </pre>
+ * <p>
+ * If {@link ConverterConfiguration#isCrossTypeNested()} is enabled, a nested field of other classes is converted by the converter linked for its classes,
+ * which is kept in a static final field of the converter.
+ * </p>
+ * <pre>{@code
+ *  public record Order(Customer customer) {}
+ *  public record OrderDTO(CustomerDTO customer) {}
+ *
+ *  CustomerDTO customer = (CustomerDTO) nested$0.convert(source.customer());
+ * }</pre>
  *
  * @author tanyaofei
  * @see CollectionNestedLocalDefiner
@@ -41,15 +54,21 @@ public class NestedLocalDefiner extends LocalDefiner {
       return false;
     }
 
-    if (!isNested(converterDefinition, member.getGenericType(), localDefinition.getGenericType())) {
+    var getter = ExecutableInvoker.getter(member, converterDefinition);
+    if (isNested(converterDefinition, member.getGenericType(), localDefinition.getGenericType())) {
+      loadThis(v);
+      loadSource(v);
+      getter.invoke(v);
+      v.visitMethodInsn(INVOKESPECIAL, converterDefinition.getInternalName(), MethodNames.Converter$convert, converterDefinition.getConvertMethodDescriptor(), false);
+    } else if (isLinked(converterDefinition, member.getGenericType(), localDefinition.getGenericType())) {
+      loadLinkedConverter(v, converterDefinition, member.getType(), localDefinition.getType());
+      loadSource(v);
+      getter.invoke(v);
+      MethodInvokers.Converter$convert.invoke(v);
+      v.visitTypeInsn(CHECKCAST, org.objectweb.asm.Type.getInternalName(localDefinition.getType()));
+    } else {
       return false;
     }
-
-    loadThis(v);
-    loadSource(v);
-    var getter = ExecutableInvoker.invoker(member.getMethod());
-    getter.invoke(v);
-    v.visitMethodInsn(INVOKESPECIAL, converterDefinition.getInternalName(), MethodNames.Converter$convert, converterDefinition.getConvertMethodDescriptor(), false);
     storeLocal(v, localDefinition.getType(), context);
     return true;
   }
@@ -64,4 +83,11 @@ public class NestedLocalDefiner extends LocalDefiner {
     return definition.getSourceType().equals(getterReturnType) && definition.getTargetType().equals(localType);
   }
 
+  private boolean isLinked(ConverterDefinition definition, Type getterReturnType, Type localType) {
+    var configuration = definition.getConfiguration();
+    return configuration.isPreferNested()
+        && configuration.isCrossTypeNested()
+        && NestedConverters.isLinkable(getterReturnType, localType);
+  }
+
 }
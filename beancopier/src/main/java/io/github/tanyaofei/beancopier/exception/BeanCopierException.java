@@ -25,4 +25,8 @@ public sealed class BeanCopierException extends RuntimeException permits Convert
     super(message, cause);
   }
 
+  protected BeanCopierException(String message, Throwable cause, boolean writableStackTrace) {
+    super(message, cause, true, writableStackTrace);
+  }
+
 }
@@ -25,4 +25,14 @@ public final class ConverterGenerateException extends BeanCopierException {
     super("Failed to generate converter class: " + sc.getName() + " -> " + tc.getName(), cause);
   }
 
+  /**
+   * @param message            异常信息
+   * @param cause              原因
+   * @param writableStackTrace 是否填充异常栈, 频繁抛出且原因已知的异常可以不填充以减少开销
+   * @since 0.2.0
+   */
+  public ConverterGenerateException(String message, Throwable cause, boolean writableStackTrace) {
+    super(message, cause, writableStackTrace);
+  }
+
 }
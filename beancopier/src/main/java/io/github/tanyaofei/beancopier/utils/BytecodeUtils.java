@@ -20,6 +20,31 @@ public class BytecodeUtils implements Opcodes {
     return cw.toByteArray();
   }
 
+  /**
+   * Return the type of a value in stack map frames
+   *
+   * @param c the class of value
+   * @return {@link Opcodes#INTEGER}, {@link Opcodes#LONG}, {@link Opcodes#FLOAT}, {@link Opcodes#DOUBLE} for primitives,
+   * or the internal name for references
+   * @see org.objectweb.asm.MethodVisitor#visitFrame(int, int, Object[], int, Object[])
+   */
+  public static Object getFrameType(Class<?> c) {
+    if (!c.isPrimitive()) {
+      return Type.getInternalName(c);
+    }
+    if (c == long.class) {
+      return LONG;
+    }
+    if (c == float.class) {
+      return FLOAT;
+    }
+    if (c == double.class) {
+      return DOUBLE;
+    }
+    // boolean, byte, char, short, int
+    return INTEGER;
+  }
+
   @SneakyThrows
   public static byte[] repackage(Class<?> c, String packageName) {
     return rename(c, packageName + "." + c.getSimpleName());
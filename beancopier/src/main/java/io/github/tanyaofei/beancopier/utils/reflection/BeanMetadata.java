@@ -0,0 +1,337 @@
+package io.github.tanyaofei.beancopier.utils.reflection;
+
+import io.github.tanyaofei.beancopier.annotation.Property;
+import io.github.tanyaofei.beancopier.constants.InstantiateMode;
+import io.github.tanyaofei.beancopier.constants.Properties;
+import io.github.tanyaofei.beancopier.utils.StringUtils;
+import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
+import io.github.tanyaofei.beancopier.utils.reflection.member.ClassBeanMember;
+import io.github.tanyaofei.beancopier.utils.reflection.member.RecordBeanMember;
+import io.github.tanyaofei.beancopier.utils.reflection.member.RecordBeanWithSetterMember;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The introspected members of a bean class.
+ * <p>
+ * The metadata of a class is computed once and kept alongside the class itself,
+ * so a class that is copied from or copied to many other classes is introspected only once no matter how many converters are generated for it.
+ * It is released along with the class.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+public final class BeanMetadata {
+
+  private static final ClassValue<BeanMetadata> CACHE = new ClassValue<>() {
+    @Override
+    protected BeanMetadata computeValue(Class<?> type) {
+      return new BeanMetadata(type, false);
+    }
+  };
+
+  /**
+   * The metadata that also takes the public fields without getter or setter as members
+   */
+  private static final ClassValue<BeanMetadata> PUBLIC_FIELDS_CACHE = new ClassValue<>() {
+    @Override
+    protected BeanMetadata computeValue(Class<?> type) {
+      return new BeanMetadata(type, true);
+    }
+  };
+
+  private final Class<?> type;
+
+  /**
+   * The members with getter declared in this class
+   */
+  private final List<BeanMember> declaredGetters;
+
+  /**
+   * The members with setter declared in this class
+   */
+  private final List<BeanMember> declaredSetters;
+
+  /**
+   * The members with getter declared in this class and its superclasses
+   */
+  private final List<BeanMember> getters;
+
+  /**
+   * The members with setter declared in this class and its superclasses
+   */
+  private final List<BeanMember> setters;
+
+  /**
+   * The {@link Property} of each member in {@link #setters}, at the same index
+   */
+  private final Property[] setterProperties;
+
+  /**
+   * The name of source member that each member in {@link #setters} copies from, at the same index,
+   * which is the {@link Property#value() alias} if present or the member name
+   */
+  private final String[] setterAliases;
+
+  private final Map<String, BeanMember> declaredGettersByName;
+
+  private final Map<String, BeanMember> gettersByName;
+
+  /**
+   * Resolved on demand since most of classes are never copied to, null if not resolved yet
+   */
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private volatile Optional<InstantiateMode> instantiateMode;
+
+  private BeanMetadata(Class<?> type, boolean publicFields) {
+    this.type = type;
+    var superclass = type.getSuperclass();
+    if (type.isRecord()) {
+      this.declaredGetters = recordGetters(type);
+      this.declaredSetters = recordSetters(type);
+      this.getters = declaredGetters;
+      this.setters = declaredSetters;
+    } else {
+      var methods = new HashMap<String, List<Method>>();
+      for (var method : type.getDeclaredMethods()) {
+        if (!method.isBridge()) {
+          methods.computeIfAbsent(method.getName(), k -> new ArrayList<>(1)).add(method);
+        }
+      }
+      this.declaredGetters = classGetters(type, methods, publicFields);
+      this.declaredSetters = classSetters(type, methods, publicFields);
+
+      if (superclass != null && superclass != Object.class) {
+        var sm = of(superclass, publicFields);
+        this.getters = concat(declaredGetters, sm.getters);
+        this.setters = concat(declaredSetters, sm.setters);
+      } else {
+        this.getters = declaredGetters;
+        this.setters = declaredSetters;
+      }
+    }
+
+    var declared = declaredSetters.size();
+    this.setterProperties = new Property[setters.size()];
+    this.setterAliases = new String[setters.size()];
+    for (int i = 0; i < declared; i++) {
+      var property = Properties.getOrDefault(declaredSetters.get(i));
+      setterProperties[i] = property;
+      setterAliases[i] = property.value().isEmpty() ? declaredSetters.get(i).getName() : property.value();
+    }
+    if (setters.size() > declared) {
+      // inherited members come from the metadata of superclass, whose annotations had been read
+      var sm = of(superclass, publicFields);
+      System.arraycopy(sm.setterProperties, 0, setterProperties, declared, sm.setterProperties.length);
+      System.arraycopy(sm.setterAliases, 0, setterAliases, declared, sm.setterAliases.length);
+    }
+    this.declaredGettersByName = byName(declaredGetters);
+    this.gettersByName = getters == declaredGetters ? declaredGettersByName : byName(getters);
+  }
+
+  /**
+   * Return the metadata of the specified class
+   *
+   * @param c the class
+   * @return the metadata
+   */
+  @NotNull
+  public static BeanMetadata of(@NotNull Class<?> c) {
+    return CACHE.get(c);
+  }
+
+  /**
+   * Return the metadata of the specified class
+   *
+   * @param c            the class
+   * @param publicFields whether the public fields that have no getter or setter are taken as members as well,
+   *                     the {@link BeanMember#getMethod() method} of such a member is null
+   * @return the metadata
+   * @since 0.2.0
+   */
+  @NotNull
+  public static BeanMetadata of(@NotNull Class<?> c, boolean publicFields) {
+    return publicFields ? PUBLIC_FIELDS_CACHE.get(c) : CACHE.get(c);
+  }
+
+  /**
+   * @return the class of this metadata
+   */
+  @NotNull
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * @param includingSuper whether including the members declared in superclasses
+   * @return the members with getter, the ones declared in subclasses come first
+   * @see Reflections#getMembersWithGetter(Class, boolean)
+   */
+  @NotNull
+  public List<BeanMember> getMembersWithGetter(boolean includingSuper) {
+    return includingSuper ? getters : declaredGetters;
+  }
+
+  /**
+   * @param includingSuper whether including the members declared in superclasses
+   * @return the members with getter by name, the one declared in a superclass wins if there are members with the same name
+   */
+  @NotNull
+  public Map<String, BeanMember> getMembersWithGetterByName(boolean includingSuper) {
+    return includingSuper ? gettersByName : declaredGettersByName;
+  }
+
+  /**
+   * @param includingSuper whether including the members declared in superclasses
+   * @return the members with setter, the ones declared in subclasses come first
+   * @see Reflections#getMembersWithSetter(Class, boolean)
+   */
+  @NotNull
+  public List<BeanMember> getMembersWithSetter(boolean includingSuper) {
+    return includingSuper ? setters : declaredSetters;
+  }
+
+  /**
+   * @param includingSuper whether including the members declared in superclasses
+   * @return the {@link Property} of each member in {@link #getMembersWithSetter(boolean)}, at the same index
+   */
+  @NotNull
+  public List<Property> getSetterProperties(boolean includingSuper) {
+    return view(setterProperties, includingSuper);
+  }
+
+  /**
+   * @param includingSuper whether including the members declared in superclasses
+   * @return the name of source member that each member in {@link #getMembersWithSetter(boolean)} copies from, at the same index,
+   * which is the {@link Property#value() alias} if present or the member name
+   */
+  @NotNull
+  public List<String> getSetterAliases(boolean includingSuper) {
+    return view(setterAliases, includingSuper);
+  }
+
+  /**
+   * @return the way to instantiate this class, or null if it can not be instantiated by a public constructor
+   */
+  @Nullable
+  public InstantiateMode getInstantiateMode() {
+    var mode = instantiateMode;
+    if (mode == null) {
+      // computing twice concurrently is harmless
+      if (Reflections.hasMatchedPublicAllArgsConstructor(type)) {
+        mode = Optional.of(InstantiateMode.ALL_ARGS_CONSTRUCTOR);
+      } else if (Reflections.hasPublicNoArgsConstructor(type)) {
+        mode = Optional.of(InstantiateMode.NO_ARGS_CONSTRUCTOR_THEN_GET_SET);
+      } else {
+        mode = Optional.empty();
+      }
+      instantiateMode = mode;
+    }
+    return mode.orElse(null);
+  }
+
+  private <T> List<T> view(T[] array, boolean includingSuper) {
+    var list = Collections.unmodifiableList(Arrays.asList(array));
+    return includingSuper ? list : list.subList(0, declaredSetters.size());
+  }
+
+  private static List<BeanMember> classGetters(Class<?> c, Map<String, List<Method>> methods, boolean publicFields) {
+    var fields = c.getDeclaredFields();
+    var members = new ArrayList<BeanMember>(fields.length);
+    for (var field : fields) {
+      var name = (field.getType() == boolean.class ? "is" : "get") + StringUtils.capitalize(field.getName());
+      Method getter = null;
+      for (var method : methods.getOrDefault(name, List.of())) {
+        if (method.getParameterCount() == 0) {
+          getter = method;
+          break;
+        }
+      }
+      if (getter != null || (publicFields && isPublicInstanceField(field, false))) {
+        members.add(new ClassBeanMember(field, getter));
+      }
+    }
+    return Collections.unmodifiableList(members);
+  }
+
+  private static List<BeanMember> classSetters(Class<?> c, Map<String, List<Method>> methods, boolean publicFields) {
+    var fields = c.getDeclaredFields();
+    var members = new ArrayList<BeanMember>(fields.length);
+    for (var field : fields) {
+      var name = "set" + StringUtils.capitalize(field.getName());
+      Method setter = null;
+      for (var method : methods.getOrDefault(name, List.of())) {
+        if (method.getParameterCount() == 1 && method.getParameterTypes()[0] == field.getType()) {
+          setter = method;
+          break;
+        }
+      }
+      if (setter != null || (publicFields && isPublicInstanceField(field, true))) {
+        members.add(new ClassBeanMember(field, setter));
+      }
+    }
+    return Collections.unmodifiableList(members);
+  }
+
+  /**
+   * @param field    the field
+   * @param writable whether the field must not be final
+   * @return true if the field is a public, non-static and non-synthetic field
+   */
+  private static boolean isPublicInstanceField(Field field, boolean writable) {
+    var modifiers = field.getModifiers();
+    return Modifier.isPublic(modifiers)
+        && !Modifier.isStatic(modifiers)
+        && !field.isSynthetic()
+        && !(writable && Modifier.isFinal(modifiers));
+  }
+
+  private static List<BeanMember> recordGetters(Class<?> c) {
+    var components = c.getRecordComponents();
+    var members = new ArrayList<BeanMember>(components.length);
+    for (var rc : components) {
+      try {
+        members.add(new RecordBeanMember(rc, c.getMethod(rc.getName())));
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException(c + " missing a getter for property: " + rc.getName());
+      }
+    }
+    return Collections.unmodifiableList(members);
+  }
+
+  private static List<BeanMember> recordSetters(Class<?> c) {
+    var components = c.getRecordComponents();
+    var members = new ArrayList<BeanMember>(components.length);
+    for (var rc : components) {
+      members.add(new RecordBeanWithSetterMember(rc));
+    }
+    return Collections.unmodifiableList(members);
+  }
+
+  private static List<BeanMember> concat(List<BeanMember> a, List<BeanMember> b) {
+    if (b.isEmpty()) {
+      return a;
+    }
+    var members = new ArrayList<BeanMember>(a.size() + b.size());
+    members.addAll(a);
+    members.addAll(b);
+    return Collections.unmodifiableList(members);
+  }
+
+  private static Map<String, BeanMember> byName(List<BeanMember> members) {
+    return Collections.unmodifiableMap(BeanMember.mapIterable(members));
+  }
+
+}
@@ -0,0 +1,119 @@
+package io.github.tanyaofei.beancopier.utils.reflection;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The collections created for the collection properties copied by a converter element by element.
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CollectionTypes {
+
+  /**
+   * The implementations of the common collection interfaces, the first one assignable to the declared type is used
+   */
+  private final static List<Class<?>> DEFAULT_IMPLEMENTATIONS = List.of(
+      ArrayList.class,
+      LinkedHashSet.class,
+      ArrayDeque.class,
+      TreeSet.class
+  );
+
+  /**
+   * Return the class to instantiate for a collection property of the specified declared type
+   * <ul>
+   *   <li>{@link ArrayList} for {@link Collection} and {@link List}</li>
+   *   <li>{@link LinkedHashSet} for {@link java.util.Set} and {@link java.util.HashSet}, so the elements keep the order of source</li>
+   *   <li>{@link ArrayDeque} for {@link java.util.Queue} and {@link java.util.Deque}</li>
+   *   <li>{@link TreeSet} for {@link java.util.SortedSet} and {@link java.util.NavigableSet}</li>
+   *   <li>the declared type itself if it is a public concrete class with a public no-args-constructor</li>
+   * </ul>
+   *
+   * @param declaredType the declared type of collection property
+   * @return the class to instantiate, or null if no collection of the declared type can be created
+   */
+  public static @Nullable Class<?> getImplementation(Class<?> declaredType) {
+    for (var implementation : DEFAULT_IMPLEMENTATIONS) {
+      if (declaredType.isAssignableFrom(implementation)) {
+        return implementation;
+      }
+    }
+
+    var modifiers = declaredType.getModifiers();
+    if (!Collection.class.isAssignableFrom(declaredType)
+        || !Modifier.isPublic(modifiers)
+        || Modifier.isAbstract(modifiers)
+        || declaredType.isInterface()) {
+      return null;
+    }
+    try {
+      declaredType.getConstructor();
+      return declaredType;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param implementation a class returned by {@link #getImplementation(Class)}
+   * @return true if the implementation has a constructor that takes the initial capacity as the only argument
+   */
+  public static boolean isPresizable(Class<?> implementation) {
+    return implementation == ArrayList.class
+        || implementation == ArrayDeque.class
+        || isHashed(implementation);
+  }
+
+  /**
+   * @param implementation a class returned by {@link #getImplementation(Class)}
+   * @return true if the initial capacity of implementation is the capacity of its hash table,
+   * which should be {@link #hashCapacity(int)} to hold the elements without rehashing
+   */
+  public static boolean isHashed(Class<?> implementation) {
+    return implementation == LinkedHashSet.class;
+  }
+
+  /**
+   * @param size the number of elements
+   * @return the capacity of a hash table with the default load factor 0.75 to hold the elements without rehashing
+   */
+  public static int hashCapacity(int size) {
+    return (int) (size / .75f) + 1;
+  }
+
+  /**
+   * Create an empty collection that holds the specified number of elements without resizing if possible
+   *
+   * @param implementation a class returned by {@link #getImplementation(Class)}
+   * @param size           the number of elements to add
+   * @return an empty collection
+   */
+  @SneakyThrows
+  @SuppressWarnings("unchecked")
+  public static Collection<Object> newCollection(Class<?> implementation, int size) {
+    if (implementation == ArrayList.class) {
+      return new ArrayList<>(size);
+    }
+    if (implementation == LinkedHashSet.class) {
+      return new LinkedHashSet<>(hashCapacity(size));
+    }
+    if (implementation == ArrayDeque.class) {
+      return new ArrayDeque<>(size);
+    }
+    return (Collection<Object>) implementation.getConstructor().newInstance();
+  }
+
+}
@@ -0,0 +1,181 @@
+package io.github.tanyaofei.beancopier.utils.reflection;
+
+import io.github.tanyaofei.guava.common.cache.Cache;
+import io.github.tanyaofei.guava.common.cache.CacheBuilder;
+import io.github.tanyaofei.guava.common.reflect.TypeToken;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 泛型工具
+ * <p>
+ * 泛型的子类型判断与类型参数解析代价很高, 因此结果会被缓存。
+ * 由系统类加载器及其祖先加载的类组成的类型缓存在有容量上限的全局缓存中, 这些类不会被卸载;
+ * 其他类型缓存在它引用的由最下层类加载器加载的类中, 随该类一起被回收, 因此缓存不会阻止任何类被卸载。
+ * 引用了类型变量或互不相关的类加载器加载的类的类型不会被缓存。
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class GenericTypes {
+
+  private static final int MAXIMUM_SIZE = 4096;
+
+  /**
+   * 子类型判断结果缓存
+   */
+  private static final Cache<TypePair, Boolean> subtypes = CacheBuilder
+      .newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build();
+
+  /**
+   * 集合元素类型缓存
+   */
+  private static final Cache<Type, Class<?>> collectionElementTypes = CacheBuilder
+      .newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build();
+
+  /**
+   * 引用了会被卸载的类的类型的缓存, 保存在类型引用的由最下层类加载器加载的类中
+   */
+  private static final ClassValue<AnchoredCaches> anchoredCaches = new ClassValue<>() {
+    @Override
+    protected AnchoredCaches computeValue(Class<?> type) {
+      return new AnchoredCaches();
+    }
+  };
+
+  /**
+   * 判断 sourceType 是否是 targetType 的子类型, 与 {@link TypeToken#isSubtypeOf(Type)} 一致
+   *
+   * @param sourceType 类型
+   * @param targetType 可能为父类型的类型
+   * @return 如果 sourceType 是 targetType 的子类型则返回 true, 反之为 false
+   */
+  public static boolean isSubtypeOf(Type sourceType, Type targetType) {
+    // 非泛型类型直接判断
+    if (sourceType instanceof Class<?> s && targetType instanceof Class<?> t) {
+      return t.isAssignableFrom(s);
+    }
+
+    var anchor = anchorOf(targetType, anchorOf(sourceType, Object.class));
+    if (anchor == null) {
+      return TypeToken.of(sourceType).isSubtypeOf(targetType);
+    }
+
+    var cache = isPermanent(anchor) ? subtypes.asMap() : anchoredCaches.get(anchor).subtypes;
+    return cache.computeIfAbsent(new TypePair(sourceType, targetType), k -> TypeToken.of(sourceType).isSubtypeOf(targetType));
+  }
+
+  /**
+   * 获取 {@link Collection} 类型的元素类型
+   *
+   * @param type 集合类型
+   * @return 集合元素类型的原始类型
+   */
+  public static Class<?> getCollectionElementType(Type type) {
+    var anchor = anchorOf(type, Object.class);
+    if (anchor == null) {
+      return resolveCollectionElementType(type);
+    }
+
+    var cache = isPermanent(anchor) ? collectionElementTypes.asMap() : anchoredCaches.get(anchor).collectionElementTypes;
+    return cache.computeIfAbsent(type, GenericTypes::resolveCollectionElementType);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Class<?> resolveCollectionElementType(Type type) {
+    return ((TypeToken<? extends Collection<?>>) TypeToken.of(type))
+        .getSupertype(Collection.class)
+        .resolveType(Collection.class.getTypeParameters()[0])
+        .getRawType();
+  }
+
+  /**
+   * 返回类型引用的类中由最下层类加载器加载的类, 类型引用的其他类都由它的类加载器或其祖先加载, 因此它被卸载前这些类都不会被卸载
+   *
+   * @param type   类型
+   * @param anchor 已经找到的最下层的类, 为 null 时表示类型无法缓存
+   * @return 最下层的类, 如果类型引用了类型变量或互不相关的类加载器加载的类则返回 null
+   */
+  @Nullable
+  private static Class<?> anchorOf(Type type, @Nullable Class<?> anchor) {
+    if (anchor == null) {
+      return null;
+    }
+    if (type instanceof Class<?> c) {
+      return lower(anchor, c);
+    }
+    if (type instanceof ParameterizedType p) {
+      if (p.getOwnerType() != null) {
+        anchor = anchorOf(p.getOwnerType(), anchor);
+      }
+      return anchorOf(p.getActualTypeArguments(), anchorOf(p.getRawType(), anchor));
+    }
+    if (type instanceof WildcardType w) {
+      return anchorOf(w.getLowerBounds(), anchorOf(w.getUpperBounds(), anchor));
+    }
+    if (type instanceof GenericArrayType a) {
+      return anchorOf(a.getGenericComponentType(), anchor);
+    }
+    // 类型变量
+    return null;
+  }
+
+  @Nullable
+  private static Class<?> anchorOf(Type[] types, @Nullable Class<?> anchor) {
+    for (var type : types) {
+      anchor = anchorOf(type, anchor);
+    }
+    return anchor;
+  }
+
+  /**
+   * @return 由更下层的类加载器加载的类, 如果两个类加载器互不相关则返回 null
+   */
+  @Nullable
+  private static Class<?> lower(Class<?> a, Class<?> b) {
+    if (Reflections.isClAssignableFrom(a.getClassLoader(), b.getClassLoader())) {
+      return b;
+    }
+    if (Reflections.isClAssignableFrom(b.getClassLoader(), a.getClassLoader())) {
+      return a;
+    }
+    return null;
+  }
+
+  /**
+   * @return 如果类由系统类加载器或其祖先加载, 不会被卸载则返回 true
+   */
+  private static boolean isPermanent(Class<?> c) {
+    return Reflections.isClAssignableFrom(c.getClassLoader(), ClassLoader.getSystemClassLoader());
+  }
+
+  /**
+   * 保存在类中的缓存, 其中的类型引用的类都不会比该类更晚被卸载, 数量受限于该类的类加载器中声明的属性类型, 因此不限制容量
+   */
+  private static final class AnchoredCaches {
+
+    private final ConcurrentMap<TypePair, Boolean> subtypes = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Type, Class<?>> collectionElementTypes = new ConcurrentHashMap<>();
+
+  }
+
+  private record TypePair(Type sourceType, Type targetType) {
+  }
+
+}
@@ -1,21 +1,14 @@
 package io.github.tanyaofei.beancopier.utils.reflection;
 
-import io.github.tanyaofei.beancopier.utils.StringUtils;
 import io.github.tanyaofei.beancopier.utils.reflection.member.BeanMember;
-import io.github.tanyaofei.beancopier.utils.reflection.member.ClassBeanMember;
-import io.github.tanyaofei.beancopier.utils.reflection.member.RecordBeanMember;
-import io.github.tanyaofei.beancopier.utils.reflection.member.RecordBeanWithSetterMember;
-import io.github.tanyaofei.guava.common.collect.Iterables;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
+import java.lang.reflect.Parameter;
 import java.util.Arrays;
-import java.util.stream.Collectors;
 
 /**
  * 反射工具
@@ -57,63 +50,10 @@ public class Reflections {
    * @param c              类
    * @param includingSuper 是否包含父类 getters
    * @return 该类包括父类的所有 getter 集合迭代器
+   * @see BeanMetadata#getMembersWithGetter(boolean)
    */
   public static Iterable<BeanMember> getMembersWithGetter(Class<?> c, boolean includingSuper) {
-    if (c.isRecord()) {
-      return getRecordMembersWithGetter(c);
-    }
-
-    var fields = c.getDeclaredFields();
-    var properties = new ArrayList<BeanMember>(fields.length);
-    for (var field : fields) {
-      var name = field.getName();
-      Method getter;
-      try {
-        if (field.getType() == boolean.class) {
-          getter = c.getDeclaredMethod("is" + StringUtils.capitalize(name));
-        } else {
-          getter = c.getDeclaredMethod("get" + StringUtils.capitalize(name));
-        }
-      } catch (NoSuchMethodException e) {
-        continue;
-      }
-      if (getter.getParameterTypes().length != 0) {
-        continue;
-      }
-
-      properties.add(new ClassBeanMember(field, getter));
-    }
-
-    var superclass = c.getSuperclass();
-    if (superclass != null && superclass != Object.class && includingSuper) {
-      return Iterables.concat(properties, getMembersWithGetter(superclass, true));
-    }
-
-    return properties;
-  }
-
-  /**
-   * 获取 record 类的 getter
-   *
-   * @param c record 类
-   * @return record 类的 getter 可迭代对象
-   * @since 2.0.0
-   */
-  private static Iterable<BeanMember> getRecordMembersWithGetter(Class<?> c) {
-    if (!c.isRecord()) {
-      throw new IllegalArgumentException(c.getName() + " is not a record class");
-    }
-
-    var properties = new ArrayList<BeanMember>(c.getRecordComponents().length);
-    for (var rc : c.getRecordComponents()) {
-      try {
-        properties.add(new RecordBeanMember(rc, c.getMethod(rc.getName())));
-      } catch (NoSuchMethodException e) {
-        throw new IllegalStateException(c + " missing a getter for property: " + rc.getName());
-      }
-    }
-
-    return properties;
+    return BeanMetadata.of(c).getMembersWithGetter(includingSuper);
   }
 
   /**
@@ -125,44 +65,10 @@ public class Reflections {
    * @param c              类
    * @param includingSuper 是否包含父类 setters
    * @return 该类包括父类的所有 setter 集合迭代器
+   * @see BeanMetadata#getMembersWithSetter(boolean)
    */
   public static Iterable<BeanMember> getMembersWithSetter(Class<?> c, boolean includingSuper) {
-    if (c.isRecord()) {
-      return getRecordMembersWithSetter(c);
-    }
-
-    var fields = c.getDeclaredFields();
-    var properties = new ArrayList<BeanMember>(fields.length);
-    for (var f : fields) {
-      Method setter;
-      try {
-        setter = c.getDeclaredMethod("set" + StringUtils.capitalize(f.getName()), f.getType());
-      } catch (NoSuchMethodException e) {
-        continue;
-      }
-      if (setter.getParameterTypes().length != 1) {
-        continue;
-      }
-
-      properties.add(new ClassBeanMember(f, setter));
-    }
-
-    Class<?> superclass = c.getSuperclass();
-    if (superclass != null && superclass != Object.class && includingSuper) {
-      return Iterables.concat(properties, getMembersWithSetter(superclass, true));
-    }
-
-    return properties;
-  }
-
-  private static Iterable<BeanMember> getRecordMembersWithSetter(Class<?> c) {
-    if (!c.isRecord()) {
-      throw new IllegalArgumentException(c.getName() + " is not a record class");
-    }
-    return Arrays
-        .stream(c.getRecordComponents())
-        .map(RecordBeanWithSetterMember::new)
-        .collect(Collectors.toList());
+    return BeanMetadata.of(c).getMembersWithSetter(includingSuper);
   }
 
   /**
@@ -227,11 +133,17 @@ public class Reflections {
 
   /**
    * 判断一个类是否包含一个与其所有字段相匹配（同名同顺序）的 public 构造器
+   * <p>
+   * 参数名优先从反射获取（使用 {@code -parameters} 编译）, 否则从 class 文件的局部变量表读取（使用 {@code -g} 编译）,
+   * 两者都不可用时返回 false
+   * </p>
    *
    * @param c 类
    * @return 是否包含一个与其所有字段相匹配（同名同顺序）的构造器
+   * @see BeanMetadata#getInstantiateMode()
    */
   public static boolean hasMatchedPublicAllArgsConstructor(Class<?> c) {
+    // canonical constructor
     if (c.isRecord()) {
       return true;
     }
@@ -247,7 +159,7 @@ public class Reflections {
       return false;
     }
 
-    var parameterNames = LocalVariableTableParameterNameDiscoverer.getParameterNames(constructor);
+    var parameterNames = getParameterNames(constructor);
     if (parameterNames == null) {
       return false;
     }
@@ -259,5 +171,19 @@ public class Reflections {
     return true;
   }
 
+  /**
+   * 获取构造器的参数名
+   *
+   * @param constructor 构造器
+   * @return 参数名, 如果编译时没有保留参数名则返回 null
+   */
+  private static String[] getParameterNames(Constructor<?> constructor) {
+    var parameters = constructor.getParameters();
+    if (parameters.length == 0 || parameters[0].isNamePresent()) {
+      return Arrays.stream(parameters).map(Parameter::getName).toArray(String[]::new);
+    }
+    return LocalVariableTableParameterNameDiscoverer.getParameterNames(constructor);
+  }
+
 
 }
@@ -0,0 +1,283 @@
+package io.github.tanyaofei.beancopier.utils.reflection;
+
+import org.objectweb.asm.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Find out the getters and setters that do nothing but reading or writing a field of their own class from the class file.
+ * <p>
+ * A trivial getter is {@code return this.field;},
+ * a trivial setter is {@code this.field = value;} followed by {@code return;} or {@code return this;}.
+ * The class file of each class is read at most once, and no class is loaded while reading.
+ * </p>
+ *
+ * @author tanyaofei
+ * @since 0.2.0
+ */
+public class TrivialAccessors {
+
+  /**
+   * method name + method descriptor -> the field accessed by the method, empty if the class file is unavailable
+   */
+  private final static ClassValue<Map<String, Access>> accessesCache = new ClassValue<>() {
+    @Override
+    protected Map<String, Access> computeValue(Class<?> type) {
+      var map = inspectClass(type);
+      return map == null ? Collections.emptyMap() : map;
+    }
+  };
+
+  private static Map<String, Access> inspectClass(Class<?> c) {
+    try (var in = c.getResourceAsStream(ClassUtils.getClassFileName(c))) {
+      if (in == null) {
+        return null;
+      }
+
+      var cr = new ClassReader(in);
+      var map = new HashMap<String, Access>();
+      cr.accept(new AccessorDiscoveringVisitor(map), ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+      return map;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param getter the getter
+   * @param field  the field declared in the same class as getter
+   * @return true if the getter does nothing but returning the field
+   */
+  public static boolean isTrivialGetter(Method getter, Field field) {
+    return isTrivial(getter, field, false);
+  }
+
+  /**
+   * @param setter the setter
+   * @param field  the field declared in the same class as setter
+   * @return true if the setter does nothing but assigning its argument to the field
+   */
+  public static boolean isTrivialSetter(Method setter, Field field) {
+    return isTrivial(setter, field, true);
+  }
+
+  private static boolean isTrivial(Method method, Field field, boolean write) {
+    if (method.getDeclaringClass() != field.getDeclaringClass()) {
+      return false;
+    }
+    var access = accessesCache
+        .get(method.getDeclaringClass())
+        .get(method.getName() + Type.getMethodDescriptor(method));
+    return access != null
+        && access.write == write
+        && access.name.equals(field.getName())
+        && access.descriptor.equals(Type.getDescriptor(field.getType()));
+  }
+
+  /**
+   * @param name       the name of field
+   * @param descriptor the descriptor of field
+   * @param write      true if it is written by a setter, false if it is read by a getter
+   */
+  private record Access(String name, String descriptor, boolean write) {
+  }
+
+  private static class AccessorDiscoveringVisitor extends ClassVisitor {
+
+    private final Map<String, Access> accesses;
+
+    private String owner;
+
+    public AccessorDiscoveringVisitor(Map<String, Access> accesses) {
+      super(Opcodes.ASM9);
+      this.accesses = accesses;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+      this.owner = name;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+      if ((access & (Opcodes.ACC_STATIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE | Opcodes.ACC_SYNCHRONIZED)) != 0) {
+        return null;
+      }
+      var args = Type.getArgumentTypes(desc);
+      if (args.length > 1) {
+        return null;
+      }
+      return new InstructionsVisitor(accesses, owner, name + desc, args.length == 1 ? args[0] : null, Type.getReturnType(desc));
+    }
+  }
+
+  /**
+   * Record the instructions of a method and match them with the patterns of trivial accessors at the end
+   */
+  private static class InstructionsVisitor extends MethodVisitor {
+
+    /**
+     * The instructions longer than a trivial accessor
+     */
+    private static final int MAX_INSTRUCTIONS = 5;
+
+    private final Map<String, Access> accesses;
+
+    private final String owner;
+
+    private final String key;
+
+    /**
+     * The type of the only argument, null if there is no argument
+     */
+    private final Type argument;
+
+    private final Type returnType;
+
+    /**
+     * The recorded instructions, null if the method is not trivial for sure
+     */
+    private List<Object> instructions = new ArrayList<>(MAX_INSTRUCTIONS);
+
+    private Access access;
+
+    public InstructionsVisitor(Map<String, Access> accesses, String owner, String key, Type argument, Type returnType) {
+      super(Opcodes.ASM9);
+      this.accesses = accesses;
+      this.owner = owner;
+      this.key = key;
+      this.argument = argument;
+      this.returnType = returnType;
+    }
+
+    private void record(Object instruction) {
+      if (instructions != null) {
+        instructions.add(instruction);
+        if (instructions.size() > MAX_INSTRUCTIONS) {
+          instructions = null;
+        }
+      }
+    }
+
+    private void mismatch() {
+      instructions = null;
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+      record(opcode);
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int varIndex) {
+      // only "this" and the first argument are loaded by a trivial accessor
+      if (varIndex == 0 && opcode == Opcodes.ALOAD) {
+        record("this");
+      } else if (varIndex == 1 && argument != null && opcode == argument.getOpcode(Opcodes.ILOAD)) {
+        record("argument");
+      } else {
+        mismatch();
+      }
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+      if ((opcode != Opcodes.GETFIELD && opcode != Opcodes.PUTFIELD) || !owner.equals(this.owner) || access != null) {
+        mismatch();
+        return;
+      }
+      access = new Access(name, descriptor, opcode == Opcodes.PUTFIELD);
+      record(opcode);
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+      mismatch();
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+      mismatch();
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+      mismatch();
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+      mismatch();
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+      mismatch();
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+      mismatch();
+    }
+
+    @Override
+    public void visitIincInsn(int varIndex, int increment) {
+      mismatch();
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+      mismatch();
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+      mismatch();
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+      mismatch();
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+      mismatch();
+    }
+
+    @Override
+    public void visitEnd() {
+      if (instructions == null || access == null) {
+        return;
+      }
+      var field = Type.getType(access.descriptor);
+      List<Object> pattern;
+      if (access.write) {
+        if (argument == null || !argument.equals(field)) {
+          return;
+        }
+        // this.field = value; return; or return this;
+        pattern = returnType.getSort() == Type.VOID
+            ? List.of("this", "argument", Opcodes.PUTFIELD, Opcodes.RETURN)
+            : List.of("this", "argument", Opcodes.PUTFIELD, "this", Opcodes.ARETURN);
+      } else {
+        if (argument != null || !returnType.equals(field)) {
+          return;
+        }
+        // return this.field;
+        pattern = List.of("this", Opcodes.GETFIELD, field.getOpcode(Opcodes.IRETURN));
+      }
+      if (instructions.equals(pattern)) {
+        accesses.put(key, access);
+      }
+    }
+  }
+
+}
@@ -3,6 +3,7 @@ package io.github.tanyaofei.beancopier.utils.reflection.member;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.HashMap;
@@ -34,11 +35,18 @@ public interface BeanMember {
   Type getGenericType();
 
   /**
-   * @return getter or setter
+   * @return getter or setter, 如果该属性是一个没有 getter 或者 setter 的 public 字段则返回 null
    * @throws UnsupportedOperationException 如果该属性没有定义 getter 或者 setter
    */
   Method getMethod();
 
+  /**
+   * @return 属性对应的字段, 如果该属性不能直接访问字段（如 record）则返回 null
+   * @since 0.2.0
+   */
+  @Nullable
+  Field getField();
+
   /**
    * 获取属性的注解
    *
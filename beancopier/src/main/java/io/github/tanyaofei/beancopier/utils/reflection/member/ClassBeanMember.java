@@ -19,6 +19,10 @@ public class ClassBeanMember implements BeanMember {
   private final Field field;
   private final Method xetter;
 
+  /**
+   * @param field  字段
+   * @param xetter getter 或者 setter, 如果字段是一个没有 getter 或者 setter 的 public 字段则为 null
+   */
   public ClassBeanMember(Field field, Method xetter) {
     this.field = field;
     this.xetter = xetter;
@@ -44,6 +48,11 @@ public class ClassBeanMember implements BeanMember {
     return xetter;
   }
 
+  @Override
+  public Field getField() {
+    return field;
+  }
+
   @Override
   public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
     return field.getAnnotation(annotationClass);
@@ -3,6 +3,7 @@ package io.github.tanyaofei.beancopier.utils.reflection.member;
 import lombok.EqualsAndHashCode;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
@@ -41,6 +42,11 @@ public class RecordBeanMember implements BeanMember {
     return xetter;
   }
 
+  @Override
+  public Field getField() {
+    return null;
+  }
+
   @Override
   public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
     return rc.getAnnotation(annotationClass);